@@ -12,6 +12,7 @@ import org.spongepowered.api.registry.DefaultedRegistryType;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface NucleusUserPreferenceService {
 
@@ -42,6 +43,18 @@ public interface NucleusUserPreferenceService {
      */
     <T> Optional<T> getPreferenceFor(UUID user, PreferenceKey<T> key);
 
+    /**
+     * Gets the preference associated with the {@link PreferenceKey} for the
+     * supplied {@link User}, if any is set, without blocking if the user is
+     * offline and their data has to be loaded.
+     *
+     * @param user The {@link User}
+     * @param key The {@link PreferenceKey} to check against.
+     * @param <T> The type of preference this is
+     * @return A {@link CompletableFuture} containing the value, if one is set.
+     */
+    <T> CompletableFuture<Optional<T>> getPreferenceForAsync(UUID user, PreferenceKey<T> key);
+
     /**
      * Sets the preference associated with the {@link PreferenceKey} for the
      * supplied {@link User}.
@@ -13,6 +13,7 @@ import org.spongepowered.math.vector.Vector3d;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 
 /**
@@ -73,6 +74,26 @@ public interface NucleusHomeService {
      */
     Optional<Home> getHome(UUID user, String name);
 
+    /**
+     * Gets the {@link Home}s for the specified user without blocking the
+     * calling thread, loading them from storage if necessary.
+     *
+     * @param user The {@link UUID}
+     * @return A {@link CompletableFuture} that will contain the homes.
+     */
+    CompletableFuture<List<Home>> getHomesAsync(UUID user);
+
+    /**
+     * Gets a specified home of the user, if it exists, without blocking the
+     * calling thread, loading it from storage if necessary.
+     *
+     * @param user The {@link UUID} of the user to get the home for.
+     * @param name The name of the home.
+     * @return A {@link CompletableFuture} that will contain the {@link Home},
+     *         if it exists.
+     */
+    CompletableFuture<Optional<Home>> getHomeAsync(UUID user, String name);
+
     /**
      * Creates a home. This is subject to Nucleus' standard checks.
      *
@@ -30,6 +30,27 @@ public interface NucleusMailService {
      */
     List<MailMessage> getMail(UUID player, MailFilter... filters);
 
+    /**
+     * Gets a page of mail for a specific player, oldest first, optionally
+     * including a list of filters. The offset and limit apply to the mail
+     * that matches the filters.
+     *
+     * @param player The {@link UUID} of the player to get the mail of.
+     * @param offset The number of matching messages to skip.
+     * @param limit The maximum number of messages to return.
+     * @param filters The {@link MailFilter}s
+     * @return A list of mail.
+     */
+    List<MailMessage> getMailPage(UUID player, int offset, int limit, MailFilter... filters);
+
+    /**
+     * Gets the number of messages a specific player has.
+     *
+     * @param player The {@link UUID} of the player.
+     * @return The number of messages.
+     */
+    int getMailCount(UUID player);
+
     /**
      * Removes a specific mail for a specific player.
      *
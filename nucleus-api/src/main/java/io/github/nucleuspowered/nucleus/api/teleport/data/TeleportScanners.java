@@ -26,6 +26,12 @@ public final class TeleportScanners {
     public static final Supplier<TeleportScanner> DESCENDING_SCAN =
             TeleportScanners.REGISTRY.defaultReferenced(ResourceKey.of("nucleus", "descending_scan"));
 
+    public static final Supplier<TeleportScanner> HEIGHTMAP_ASCENDING_SCAN =
+            TeleportScanners.REGISTRY.defaultReferenced(ResourceKey.of("nucleus", "heightmap_ascending_scan"));
+
+    public static final Supplier<TeleportScanner> HEIGHTMAP_DESCENDING_SCAN =
+            TeleportScanners.REGISTRY.defaultReferenced(ResourceKey.of("nucleus", "heightmap_descending_scan"));
+
     public static final Supplier<TeleportScanner> NO_SCAN =
             TeleportScanners.REGISTRY.defaultReferenced(ResourceKey.of("nucleus", "no_scan"));
 }
@@ -15,6 +15,7 @@ import io.github.nucleuspowered.nucleus.core.core.config.CoreConfig;
 import io.github.nucleuspowered.nucleus.core.core.services.UniqueUserService;
 import io.github.nucleuspowered.nucleus.core.core.teleport.filters.NoCheckFilter;
 import io.github.nucleuspowered.nucleus.core.core.teleport.filters.WallCheckFilter;
+import io.github.nucleuspowered.nucleus.core.core.teleport.scanners.HeightmapTeleportScanner;
 import io.github.nucleuspowered.nucleus.core.core.teleport.scanners.NoTeleportScanner;
 import io.github.nucleuspowered.nucleus.core.core.teleport.scanners.VerticalTeleportScanner;
 import io.github.nucleuspowered.nucleus.core.event.RegisterPreferenceKeyEvent;
@@ -184,7 +185,7 @@ public final class NucleusCore {
         try {
             event.register(this.serviceCollection.userPreferenceService().getRegistryResourceKey(), true, () -> {
                 final Map<ResourceKey, NucleusUserPreferenceService.PreferenceKey<?>> factoryMap = new HashMap<>();
-                factoryMap.put(CoreKeys.LOCALE_PREFERENCE_KEY.getKey(), CoreKeys.LOCALE_PREFERENCE_KEY);
+                factoryMap.put(CoreKeys.Preferences.LOCALE_PREFERENCE_KEY.getKey(), CoreKeys.Preferences.LOCALE_PREFERENCE_KEY);
                 return factoryMap;
             });
             event.register(Registry.Keys.COMMAND_MODIFIER_FACTORY_KEY, false, () -> {
@@ -205,6 +206,8 @@ public final class NucleusCore {
                 factoryMap.put(NoTeleportScanner.KEY, new NoTeleportScanner());
                 factoryMap.put(VerticalTeleportScanner.Ascending.KEY, new VerticalTeleportScanner.Ascending());
                 factoryMap.put(VerticalTeleportScanner.Descending.KEY, new VerticalTeleportScanner.Descending());
+                factoryMap.put(HeightmapTeleportScanner.Ascending.KEY, new HeightmapTeleportScanner.Ascending());
+                factoryMap.put(HeightmapTeleportScanner.Descending.KEY, new HeightmapTeleportScanner.Descending());
                 return factoryMap;
             });
             event.register(Registry.Keys.STORAGE_REPOSITORY_KEY, true,
@@ -308,7 +311,7 @@ public final class NucleusCore {
             return;
         }
         this.onStartedActions.forEach(Action::action);
-        this.serviceCollection.getServiceUnchecked(UniqueUserService.class).resetUniqueUserCount();
+        this.serviceCollection.getServiceUnchecked(UniqueUserService.class).loadUniqueUserCount();
         Sponge.asyncScheduler().createExecutor(this.pluginContainer)
                 .submit(() -> this.serviceCollection.userCacheService().startFilewalkIfNeeded());
         this.serviceCollection.platformService().setGameStartedTime();
@@ -11,6 +11,7 @@ public final class NucleusJavaProperties {
     public static final boolean DEBUG_MODE = NucleusJavaProperties.isPropertyActive("nucleus.debug-mode");
     public static final @Nullable String DOCGEN_PATH = System.getProperty("nucleus.docgen");
     public static final boolean RUN_DOCGEN = DOCGEN_PATH != null;
+    public static final boolean PRECOMPILE_MESSAGES = NucleusJavaProperties.isPropertyActive("nucleus.messages.precompile");
 
     public static boolean isPropertyActive(final String property) {
         return System.getProperty(property, "false").equals("true");
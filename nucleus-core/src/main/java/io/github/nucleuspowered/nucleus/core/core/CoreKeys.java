@@ -18,14 +18,6 @@ import java.util.Locale;
 
 public final class CoreKeys {
 
-    public static final NucleusUserPreferenceService.PreferenceKey<Locale> LOCALE_PREFERENCE_KEY = new PreferenceKeyImpl.LocaleKey(
-            NucleusKeysProvider.PLAYER_LOCALE_KEY,
-            Locale.UK,
-            CorePermissions.BASE_NUCLEUSLANGUAGE,
-            "userpref.player_locale",
-            (serviceCollection, uuid, value) -> serviceCollection.messageProvider().invalidateLocaleCacheFor(uuid)
-    );
-
     public static final DataKey<Integer, IGeneralDataObject> GENERAL_VERSION = DataKey.of(TypeTokens.INTEGER, IGeneralDataObject.class, "data_version");
 
     public static final DataKey<Integer, IWorldDataObject> WORLD_VERSION = DataKey.of(TypeTokens.INTEGER, IWorldDataObject.class, "data_version");
@@ -41,4 +33,23 @@ public final class CoreKeys {
     public static final DataKey<String, IUserDataObject> IP_ADDRESS = DataKey.of(TypeTokens.STRING, IUserDataObject.class, "lastIP");
 
     public static final DataKey<Boolean, IUserDataObject> FIRST_JOIN_PROCESSED = DataKey.of(false, TypeTokens.BOOLEAN, IUserDataObject.class, "firstJoinProcessed");
+
+    /**
+     * Kept apart from the data keys, as creating them needs the game to be
+     * running, and the data keys are also used when it is not, such as when
+     * migrating data.
+     */
+    public static final class Preferences {
+
+        public static final NucleusUserPreferenceService.PreferenceKey<Locale> LOCALE_PREFERENCE_KEY = new PreferenceKeyImpl.LocaleKey(
+                NucleusKeysProvider.PLAYER_LOCALE_KEY,
+                Locale.UK,
+                CorePermissions.BASE_NUCLEUSLANGUAGE,
+                "userpref.player_locale",
+                (serviceCollection, uuid, value) -> serviceCollection.messageProvider().updatePreferredLocaleFor(uuid, value)
+        );
+
+        private Preferences() {
+        }
+    }
 }
@@ -9,6 +9,7 @@ import io.github.nucleuspowered.nucleus.core.core.commands.NucleusCommand;
 import io.github.nucleuspowered.nucleus.core.core.commands.SetNucleusLanguageCommand;
 import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.ClearCacheCommand;
 import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.CompatibilityCommand;
+import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.DataCommand;
 import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.DebugCommand;
 import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.DocGenCommand;
 import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.GetUserCommand;
@@ -20,14 +21,17 @@ import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.ReloadCommand
 import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.ResetFirstJoinCommand;
 import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.ResetUserCommand;
 import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.SaveCommand;
+import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.data.MigrateDataCommand;
 import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.debug.RefreshUniqueVisitors;
 import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.debug.VerifyCommandDescriptionsCommand;
 import io.github.nucleuspowered.nucleus.core.core.config.CoreConfig;
 import io.github.nucleuspowered.nucleus.core.core.listeners.ChatChannelListener;
 import io.github.nucleuspowered.nucleus.core.core.listeners.CoreListener;
+import io.github.nucleuspowered.nucleus.core.core.listeners.SafeTeleportCacheListener;
 import io.github.nucleuspowered.nucleus.core.core.listeners.WarmupListener;
 import io.github.nucleuspowered.nucleus.core.core.runnables.CoreTask;
 import io.github.nucleuspowered.nucleus.core.core.services.PlayerMetadataService;
+import io.github.nucleuspowered.nucleus.core.core.services.LoginPrefetchService;
 import io.github.nucleuspowered.nucleus.core.core.services.UniqueUserService;
 import io.github.nucleuspowered.nucleus.core.module.IModule;
 import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandExecutor;
@@ -48,6 +52,7 @@ public class CoreModule implements IModule.Configurable<CoreConfig> {
     public void init(final INucleusServiceCollection serviceCollection) {
         serviceCollection.registerService(UniqueUserService.class, new UniqueUserService(serviceCollection), false);
         serviceCollection.registerService(PlayerMetadataService.class, new PlayerMetadataService(serviceCollection), false);
+        serviceCollection.registerService(LoginPrefetchService.class, new LoginPrefetchService(serviceCollection), false);
     }
 
     @Override
@@ -55,8 +60,10 @@ public class CoreModule implements IModule.Configurable<CoreConfig> {
         return Arrays.asList(
                 RefreshUniqueVisitors.class,
                 VerifyCommandDescriptionsCommand.class,
+                MigrateDataCommand.class,
                 ClearCacheCommand.class,
                 CompatibilityCommand.class,
+                DataCommand.class,
                 DebugCommand.class,
                 DocGenCommand.class,
                 GetUserCommand.class,
@@ -84,6 +91,7 @@ public class CoreModule implements IModule.Configurable<CoreConfig> {
         return Arrays.asList(
                 ChatChannelListener.class,
                 CoreListener.class,
+                SafeTeleportCacheListener.class,
                 WarmupListener.class
         );
     }
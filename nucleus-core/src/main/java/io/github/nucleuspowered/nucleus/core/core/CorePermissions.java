@@ -28,6 +28,12 @@ public final class CorePermissions {
     @PermissionMetadata(descriptionKey = "permission.base", replacements = { "nucleus compatibility" }, level = SuggestedLevel.ADMIN)
     public static final String BASE_NUCLEUS_COMPATIBILITY = "nucleus.nucleus.compatibility.base";
 
+    @PermissionMetadata(descriptionKey = "permission.base", replacements = { "nucleus data" }, level = SuggestedLevel.OWNER)
+    public static final String BASE_NUCLEUS_DATA = "nucleus.nucleus.data.base";
+
+    @PermissionMetadata(descriptionKey = "permission.base", replacements = { "nucleus data migrate" }, level = SuggestedLevel.OWNER)
+    public static final String BASE_DATA_MIGRATE = "nucleus.nucleus.data.migrate.base";
+
     @PermissionMetadata(descriptionKey = "permission.base", replacements = { "nucleus debug" }, level = SuggestedLevel.ADMIN)
     public static final String BASE_NUCLEUS_DEBUG = "nucleus.nucleus.debug.base";
 
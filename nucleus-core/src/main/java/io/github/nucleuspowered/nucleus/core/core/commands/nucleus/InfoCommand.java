@@ -12,6 +12,7 @@ import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandContext;
 import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandExecutor;
 import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandResult;
 import io.github.nucleuspowered.nucleus.core.scaffold.command.annotation.Command;
+import io.github.nucleuspowered.nucleus.core.scaffold.service.IStatisticsReporter;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IModuleReporter;
 import org.spongepowered.api.Platform;
 import org.spongepowered.api.Sponge;
@@ -131,6 +132,17 @@ public final class InfoCommand implements ICommandExecutor {
             information.addAll(disabled);
         }
 
+        final Collection<IStatisticsReporter> reporters = context.getServiceCollection().statisticsReporters();
+        if (!reporters.isEmpty()) {
+            information.add(separator);
+            information.add("Nucleus: Statistics");
+            information.add(separator);
+
+            for (final IStatisticsReporter reporter : reporters) {
+                information.add(reporter.getStatisticsHeading());
+                reporter.getStatistics().forEach(x -> information.add(" - " + x));
+            }
+        }
 
         final String fileName = "nucleus-info-" + DateTimeFormatter.BASIC_ISO_DATE.format(LocalDateTime.now()) + "-" + DateTimeFormatter.ofPattern("HHmmss").format(LocalDateTime.now()) + ".txt";
         try (final BufferedWriter fw = new BufferedWriter(new FileWriter(fileName, false))) {
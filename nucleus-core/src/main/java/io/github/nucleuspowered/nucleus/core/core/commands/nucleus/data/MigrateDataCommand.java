@@ -0,0 +1,76 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.core.commands.nucleus.data;
+
+import io.github.nucleuspowered.nucleus.core.core.CorePermissions;
+import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.DataCommand;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandContext;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandExecutor;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandResult;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.annotation.Command;
+import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.migration.DataMigrationJob;
+import net.kyori.adventure.audience.Audience;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.command.exception.CommandException;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+@Command(
+        aliases = "migrate",
+        basePermission = CorePermissions.BASE_DATA_MIGRATE,
+        commandDescriptionKey = "nucleus.data.migrate",
+        parentCommand = DataCommand.class
+)
+public class MigrateDataCommand implements ICommandExecutor {
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Override
+    public ICommandResult execute(final ICommandContext context) throws CommandException {
+        if (!this.running.compareAndSet(false, true)) {
+            return context.errorResult("command.nucleus.data.migrate.running");
+        }
+
+        final Optional<UUID> optionalUUID = context.uniqueId();
+        final Supplier<Audience> scs;
+        if (optionalUUID.isPresent()) {
+            final UUID uuid = optionalUUID.get();
+            scs = () -> Sponge.server().player(uuid).map(x -> (Audience) x).orElseGet(Sponge::systemSubject);
+        } else {
+            scs = Sponge::systemSubject;
+        }
+
+        final INucleusServiceCollection serviceCollection = context.getServiceCollection();
+        final DataMigrationJob job = serviceCollection.storageManager().createMigrationJob();
+        context.sendMessage("command.nucleus.data.migrate.start");
+        Sponge.asyncScheduler().createExecutor(serviceCollection.pluginContainer()).submit(() -> {
+            try {
+                final DataMigrationJob.Report report = job.run();
+                final Audience audience = scs.get();
+                for (final DataMigrationJob.PartReport part : report.getParts()) {
+                    context.sendMessageTo(audience, "command.nucleus.data.migrate.part", part.getName(), part.getExamined(),
+                            part.getRewritten(), part.getInUse(), part.getFailed(), part.getBytesSaved());
+                }
+                context.sendMessageTo(audience, "command.nucleus.data.migrate.complete", report.getTimeTakenMillis(),
+                        report.getRewritten(), report.getBytesSaved());
+                if (report.getFailed() > 0) {
+                    context.sendMessageTo(audience, "command.nucleus.data.migrate.failures", report.getFailed());
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (final Exception e) {
+                serviceCollection.logger().error("Could not migrate the data", e);
+                context.sendMessageTo(scs.get(), "command.nucleus.data.migrate.failed");
+            } finally {
+                this.running.set(false);
+            }
+        });
+        return context.successResult();
+    }
+}
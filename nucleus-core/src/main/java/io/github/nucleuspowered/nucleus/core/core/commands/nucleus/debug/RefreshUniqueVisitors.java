@@ -30,8 +30,6 @@ public class RefreshUniqueVisitors implements ICommandExecutor {
     @Override
     public ICommandResult execute(final ICommandContext context) throws CommandException {
         final UniqueUserService uus = context.getServiceCollection().getServiceUnchecked(UniqueUserService.class);
-        context.sendMessage("command.nucleus.debug.refreshuniquevisitors.started", uus.getUniqueUserCount());
-
         final Optional<UUID> optionalUUID = context.uniqueId();
         final Supplier<Audience> scs;
         if (optionalUUID.isPresent()) {
@@ -41,7 +39,12 @@ public class RefreshUniqueVisitors implements ICommandExecutor {
             scs = Sponge::systemSubject;
         }
 
-        uus.resetUniqueUserCount(l -> context.sendMessageTo(scs.get(), "command.nucleus.debug.refreshuniquevisitors.done", l));
+        if (!uus.reconcileUniqueUserCount(l -> context.sendMessageTo(scs.get(), "command.nucleus.debug.refreshuniquevisitors.done", l))) {
+            return context.errorResult("command.nucleus.debug.refreshuniquevisitors.throttled",
+                    UniqueUserService.MIN_RECONCILE_INTERVAL_MINUTES, uus.getUniqueUserCount());
+        }
+
+        context.sendMessage("command.nucleus.debug.refreshuniquevisitors.started", uus.getUniqueUserCount());
         return context.successResult();
     }
 }
@@ -0,0 +1,29 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.core.config;
+
+import io.github.nucleuspowered.nucleus.core.services.interfaces.annotation.configuratehelper.LocalisedComment;
+import org.spongepowered.configurate.objectmapping.ConfigSerializable;
+import org.spongepowered.configurate.objectmapping.meta.Setting;
+
+@ConfigSerializable
+public class AutosaveConfig {
+
+    @Setting(value = "interval-seconds")
+    @LocalisedComment("config.core.autosave.interval")
+    private int intervalSeconds = 300;
+
+    @Setting(value = "max-saves-per-second")
+    @LocalisedComment("config.core.autosave.maxpersecond")
+    private int maxSavesPerSecond = 20;
+
+    public int getIntervalSeconds() {
+        return Math.max(1, this.intervalSeconds);
+    }
+
+    public int getMaxSavesPerSecond() {
+        return Math.max(1, this.maxSavesPerSecond);
+    }
+}
@@ -20,6 +20,10 @@ public class CoreConfig {
     @LocalisedComment("config.printonautosave")
     private boolean printOnAutosave = false;
 
+    @Setting(value = "autosave")
+    @LocalisedComment("config.core.autosave")
+    private AutosaveConfig autosaveConfig = new AutosaveConfig();
+
     @Setting(value = "use-custom-message-file")
     @LocalisedComment("config.custommessages")
     private boolean custommessages = false;
@@ -95,6 +99,10 @@ public class CoreConfig {
         return this.printOnAutosave;
     }
 
+    public AutosaveConfig getAutosaveConfig() {
+        return this.autosaveConfig;
+    }
+
     public boolean isCustommessages() {
         return this.custommessages;
     }
@@ -4,6 +4,7 @@
  */
 package io.github.nucleuspowered.nucleus.core.core.config;
 
+import io.github.nucleuspowered.nucleus.core.services.interfaces.annotation.configuratehelper.LocalisedComment;
 import org.spongepowered.api.world.teleport.TeleportHelper;
 import org.spongepowered.configurate.objectmapping.ConfigSerializable;
 import org.spongepowered.configurate.objectmapping.meta.Setting;
@@ -17,6 +18,10 @@ public class SafeTeleportConfig {
     @Setting
     private int height = TeleportHelper.DEFAULT_HEIGHT;
 
+    @Setting("result-cache-size")
+    @LocalisedComment("config.core.safeteleport.cachesize")
+    private int resultCacheSize = 500;
+
     public int getWidth() {
         return Math.max(1, this.width);
     }
@@ -24,4 +29,8 @@ public class SafeTeleportConfig {
     public int getHeight() {
         return Math.max(1, this.height);
     }
+
+    public int getResultCacheSize() {
+        return Math.max(0, this.resultCacheSize);
+    }
 }
@@ -13,16 +13,15 @@ import io.github.nucleuspowered.nucleus.core.core.config.CoreConfig;
 import io.github.nucleuspowered.nucleus.core.core.events.NucleusOnLoginEvent;
 import io.github.nucleuspowered.nucleus.core.core.events.OnFirstLoginEvent;
 import io.github.nucleuspowered.nucleus.core.core.events.UserDataLoadedEvent;
+import io.github.nucleuspowered.nucleus.core.core.services.LoginPrefetchService;
 import io.github.nucleuspowered.nucleus.core.core.services.UniqueUserService;
 import io.github.nucleuspowered.nucleus.core.scaffold.listener.ListenerBase;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.modular.IUserDataObject;
-import io.github.nucleuspowered.nucleus.core.services.impl.storage.queryobjects.IUserQueryObject;
 import io.github.nucleuspowered.nucleus.core.services.impl.texttemplatefactory.NucleusTextTemplateImpl;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IMessageProviderService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
 import io.github.nucleuspowered.nucleus.core.util.AdventureUtils;
-import io.github.nucleuspowered.storage.services.IStorageService;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.event.ClickEvent;
@@ -35,6 +34,7 @@ import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 import org.spongepowered.api.event.CauseStackManager;
 import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.entity.living.player.PlayerChangeClientSettingsEvent;
 import org.spongepowered.api.event.filter.Getter;
 import org.spongepowered.api.event.lifecycle.RefreshGameEvent;
 import org.spongepowered.api.event.lifecycle.StoppingEngineEvent;
@@ -54,6 +54,7 @@ import java.util.UUID;
 public class CoreListener implements IReloadableService.Reloadable, ListenerBase {
 
     private final INucleusServiceCollection serviceCollection;
+    private final LoginPrefetchService loginPrefetchService;
     @Nullable private NucleusTextTemplate getKickOnStopMessage = null;
     @Nullable private final URL url;
     private boolean warnOnWildcard = true;
@@ -62,6 +63,7 @@ public class CoreListener implements IReloadableService.Reloadable, ListenerBase
     @Inject
     public CoreListener(final INucleusServiceCollection serviceCollection) {
         this.serviceCollection = serviceCollection;
+        this.loginPrefetchService = serviceCollection.getServiceUnchecked(LoginPrefetchService.class);
         URL u = null;
         try {
             u = new URL("https://ore.spongepowered.org/Nucleus/Nucleus/pages/The-Permissions-Wildcard-(And-Why-You-Shouldn't-Use-It)");
@@ -93,7 +95,12 @@ public class CoreListener implements IReloadableService.Reloadable, ListenerBase
         if (eventToFire.shouldSave()) {
             this.serviceCollection.storageManager().getUserService().save(userId, dataObject);
         }
-        this.serviceCollection.messageProvider().invalidateLocaleCacheFor(userId);
+
+        // Take a copy of the user's preferences while we're off the main thread.
+        this.serviceCollection.userPreferenceService().createSnapshot(userId, dataObject);
+
+        // Let modules work out what they need for when the player joins, so the main thread doesn't have to.
+        this.loginPrefetchService.prefetch(userId, dataObject);
     }
 
     /* (non-Javadoc)
@@ -103,7 +110,7 @@ public class CoreListener implements IReloadableService.Reloadable, ListenerBase
     public void onPlayerLoginLast(final ServerSideConnectionEvent.Login event, @Getter("profile") final GameProfile profile,
         @Getter("user") final User user) {
 
-        final IUserDataObject udo = this.serviceCollection.storageManager().getUserService().getOrNewOnThread(user.uniqueId());
+        final IUserDataObject udo = this.getUserData(user.uniqueId());
 
         if (event.fromLocation().equals(event.toLocation())) {
             try (final CauseStackManager.StackFrame frame = Sponge.server().causeStackManager().pushCauseFrame()) {
@@ -126,8 +133,10 @@ public class CoreListener implements IReloadableService.Reloadable, ListenerBase
      */
     @Listener(order = Order.FIRST)
     public void onPlayerJoinFirst(final ServerSideConnectionEvent.Join event, @Getter("player") final ServerPlayer player) {
+        this.serviceCollection.userPreferenceService().loadSnapshot(player.uniqueId());
+        this.serviceCollection.messageProvider().loadLocaleFor(player);
         try {
-            final IUserDataObject qsu = this.serviceCollection.storageManager().getUserService().getOrNewOnThread(player.uniqueId());
+            final IUserDataObject qsu = this.getUserData(player.uniqueId());
             qsu.set(CoreKeys.LAST_LOGIN, Instant.now());
             if (this.serviceCollection.platformService().isServer()) {
                 qsu.set(CoreKeys.IP_ADDRESS, player.connection().address().getAddress().toString());
@@ -145,15 +154,11 @@ public class CoreListener implements IReloadableService.Reloadable, ListenerBase
     public void onPlayerJoinLast(final ServerSideConnectionEvent.Join event, @Getter("player") final ServerPlayer player) {
         // created before
         final UUID uuid = player.uniqueId();
-        final IStorageService.Keyed.KeyedData<UUID, IUserQueryObject, IUserDataObject> userService =
-                this.serviceCollection.storageManager().getUserService();
-        if (!userService
-                .getOnThread(uuid)
-                .flatMap(x -> x.get(CoreKeys.FIRST_JOIN_PROCESSED))
-                .orElse(false)) {
+        final IUserDataObject udo = this.getUserData(uuid);
+        if (!udo.get(CoreKeys.FIRST_JOIN_PROCESSED).orElse(false)) {
 
             if (!this.checkSponge || !Util.hasPlayedBeforeSponge(player.user())) {
-                this.serviceCollection.getServiceUnchecked(UniqueUserService.class).resetUniqueUserCount();
+                this.serviceCollection.getServiceUnchecked(UniqueUserService.class).addUniqueUser(uuid);
 
                 final NucleusFirstJoinEvent firstJoinEvent = new OnFirstLoginEvent(
                         event.cause(), player, event.originalAudience(), event.audience().orElse(null), event.originalMessage(),
@@ -164,10 +169,7 @@ public class CoreListener implements IReloadableService.Reloadable, ListenerBase
                 event.setMessageCancelled(firstJoinEvent.isMessageCancelled());
             }
 
-            userService.getOrNew(player.uniqueId())
-                    .thenAccept(x -> {
-                        x.set(CoreKeys.FIRST_JOIN_PROCESSED, true);
-                    });
+            udo.set(CoreKeys.FIRST_JOIN_PROCESSED, true);
         }
 
         // Warn about wildcard.
@@ -198,11 +200,27 @@ public class CoreListener implements IReloadableService.Reloadable, ListenerBase
         }
     }
 
+    /* (non-Javadoc)
+     * Anything prepared for the join has been used by now.
+     */
+    @Listener(order = Order.POST)
+    public void onPlayerJoinPost(final ServerSideConnectionEvent.Join event, @Getter("player") final ServerPlayer player) {
+        this.loginPrefetchService.remove(player.uniqueId());
+    }
+
     @Listener(order = Order.LAST)
     public void onPlayerQuit(final ServerSideConnectionEvent.Disconnect event, @Getter("player") final ServerPlayer player) {
+        this.loginPrefetchService.remove(player.uniqueId());
+        this.serviceCollection.messageProvider().removeLocaleFor(player.uniqueId());
+        this.serviceCollection.userPreferenceService().removeSnapshot(player.uniqueId());
         this.serviceCollection.storageManager().getUser(player.uniqueId()).thenAccept(x -> x.ifPresent(y -> this.onPlayerQuit(player, y)));
     }
 
+    private IUserDataObject getUserData(final UUID uuid) {
+        return this.loginPrefetchService.getUserData(uuid)
+                .orElseGet(() -> this.serviceCollection.storageManager().getUserService().getOrNewOnThread(uuid));
+    }
+
     private void onPlayerQuit(final ServerPlayer player, final IUserDataObject udo) {
         final InetAddress address = player.connection().address().getAddress();
 
@@ -215,6 +233,11 @@ public class CoreListener implements IReloadableService.Reloadable, ListenerBase
         }
     }
 
+    @Listener(order = Order.POST)
+    public void onClientSettingsChange(final PlayerChangeClientSettingsEvent event, @Getter("player") final ServerPlayer player) {
+        this.serviceCollection.messageProvider().updateClientLocaleFor(player, event.locale());
+    }
+
     @Override public void onReload(final INucleusServiceCollection serviceCollection) {
         final CoreConfig c = this.serviceCollection.configProvider().getModuleConfig(CoreConfig.class);
         this.getKickOnStopMessage = c.isKickOnStop() ?
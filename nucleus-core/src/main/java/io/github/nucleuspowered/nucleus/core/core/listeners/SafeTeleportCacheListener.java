@@ -0,0 +1,44 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.core.listeners;
+
+import com.google.inject.Inject;
+import io.github.nucleuspowered.nucleus.core.scaffold.listener.ListenerBase;
+import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.INucleusLocationService;
+import org.spongepowered.api.block.BlockSnapshot;
+import org.spongepowered.api.block.transaction.BlockTransaction;
+import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.block.ChangeBlockEvent;
+
+/**
+ * Drops cached safe teleport locations when blocks around them change.
+ */
+public class SafeTeleportCacheListener implements ListenerBase.Conditional {
+
+    private final INucleusLocationService locationService;
+
+    @Inject
+    public SafeTeleportCacheListener(final INucleusServiceCollection serviceCollection) {
+        this.locationService = serviceCollection.teleportService();
+    }
+
+    @Listener(order = Order.POST)
+    public void onBlockChange(final ChangeBlockEvent.All event) {
+        for (final BlockTransaction transaction : event.transactions()) {
+            if (transaction.isValid()) {
+                final BlockSnapshot snapshot = transaction.original();
+                this.locationService.onBlockChange(snapshot.world(), snapshot.position());
+            }
+        }
+    }
+
+    @Override
+    public boolean shouldEnable(final INucleusServiceCollection serviceCollection) {
+        return serviceCollection.configProvider().getCoreConfig().getSafeTeleportConfig().getResultCacheSize() > 0;
+    }
+
+}
@@ -5,7 +5,9 @@
 package io.github.nucleuspowered.nucleus.core.core.runnables;
 
 import com.google.inject.Inject;
+import io.github.nucleuspowered.nucleus.core.core.config.AutosaveConfig;
 import io.github.nucleuspowered.nucleus.core.core.config.CoreConfig;
+import io.github.nucleuspowered.nucleus.core.core.services.LoginPrefetchService;
 import io.github.nucleuspowered.nucleus.core.scaffold.task.TaskBase;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
@@ -14,16 +16,28 @@ import org.spongepowered.api.util.Identifiable;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
  * Core tasks. No module, must always run.
+ *
+ * <p>Saves changed data a little each second, so that everything that has
+ * changed is saved over the configured interval without a spike in I/O.
+ * {@link io.github.nucleuspowered.nucleus.core.services.interfaces.IStorageManager#saveAll()}
+ * is still used for a full save.</p>
  */
 public class CoreTask implements TaskBase, IReloadableService.Reloadable {
 
     private boolean printSave = false;
+    private AutosaveConfig autosaveConfig = new AutosaveConfig();
     private final INucleusServiceCollection serviceCollection;
 
+    private int second = 0;
+    private int savedThisRound = 0;
+
     @Inject
     public CoreTask(final INucleusServiceCollection serviceCollection) {
         this.serviceCollection = serviceCollection;
@@ -31,29 +45,41 @@ public class CoreTask implements TaskBase, IReloadableService.Reloadable {
 
     @Override
     public Duration interval() {
-        return Duration.of(5, ChronoUnit.MINUTES);
+        return Duration.of(1, ChronoUnit.SECONDS);
     }
 
     @Override
     public void run() {
-        if (this.printSave) {
-            this.serviceCollection.logger().info(this.serviceCollection.messageProvider().getMessageString("core.savetask.starting"));
+        final AutosaveConfig config = this.autosaveConfig;
+        final int round = config.getIntervalSeconds();
+        if (this.second >= round) {
+            this.second = 0;
         }
 
-        // Only do maintenance on the cache once it's been saved.
-        this.serviceCollection.storageManager().saveAll().thenAccept(x -> {
+        // Save an even share of whatever is left to save this round, so that
+        // everything that was changed at the start of the round is saved by
+        // the end of it.
+        final double share = 1.0 / (round - this.second);
+
+        // Players who are logging in are kept too, as their data is already held for when they join.
+        final Set<UUID> toKeep = Sponge.server().onlinePlayers().stream().map(Identifiable::uniqueId).collect(Collectors.toCollection(HashSet::new));
+        toKeep.addAll(this.serviceCollection.getServiceUnchecked(LoginPrefetchService.class).getPrefetchedPlayers());
+        this.savedThisRound += this.serviceCollection.storageManager().saveIncrementally(share, config.getMaxSavesPerSecond(), toKeep);
+
+        if (++this.second >= round) {
             if (this.printSave) {
-                this.serviceCollection.logger().info(this.serviceCollection.messageProvider().getMessageString("core.savetask.complete"));
+                this.serviceCollection.logger().info(
+                        this.serviceCollection.messageProvider().getMessageString("core.savetask.round", this.savedThisRound, round));
             }
-            this.serviceCollection.storageManager().getUserService().clearCacheUnless(
-                    Sponge.server().onlinePlayers().stream().map(Identifiable::uniqueId).collect(Collectors.toSet()));
-        });
-
+            this.savedThisRound = 0;
+        }
     }
 
     @Override
     public void onReload(final INucleusServiceCollection serviceCollection) {
-        this.printSave = serviceCollection.configProvider().getModuleConfig(CoreConfig.class).isPrintOnAutosave();
+        final CoreConfig coreConfig = serviceCollection.configProvider().getModuleConfig(CoreConfig.class);
+        this.printSave = coreConfig.isPrintOnAutosave();
+        this.autosaveConfig = coreConfig.getAutosaveConfig();
     }
 
 }
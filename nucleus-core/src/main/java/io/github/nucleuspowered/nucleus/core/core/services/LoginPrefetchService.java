@@ -0,0 +1,244 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.core.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.inject.Inject;
+import io.github.nucleuspowered.nucleus.core.scaffold.service.ServiceBase;
+import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.modular.IUserDataObject;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.plugin.PluginContainer;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Loads the data of a player while they are authenticating, and lets modules
+ * work out what they need to know about that player at the same time, so
+ * that the join handlers on the main thread do not have to go to storage.
+ *
+ * <p>Modules {@link #register(String, Prefetcher) register} a
+ * {@link Prefetcher} once and get a {@link Key} back, which they use to get
+ * the result when the player logs in or joins. The prefetchers for a player
+ * run in parallel. Results are kept until the player has joined or
+ * disconnected, or for a minute if neither happens.</p>
+ */
+public class LoginPrefetchService implements ServiceBase {
+
+    private static final long MAX_WAIT_MILLIS = 5_000;
+
+    private final Logger logger;
+    private final PluginContainer pluginContainer;
+    private final List<Registration<?>> registrations = new CopyOnWriteArrayList<>();
+    private final Cache<UUID, Prefetched> prefetched = Caffeine.newBuilder()
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .build();
+
+    @Inject
+    public LoginPrefetchService(final INucleusServiceCollection serviceCollection) {
+        this.logger = serviceCollection.logger();
+        this.pluginContainer = serviceCollection.pluginContainer();
+    }
+
+    /**
+     * Registers a {@link Prefetcher} to be run for every player who
+     * authenticates.
+     *
+     * @param id A name for the prefetcher, used when reporting errors
+     * @param prefetcher The prefetcher
+     * @param <T> The type of the result
+     * @return The {@link Key} to get the result with
+     */
+    public <T> Key<T> register(final String id, final Prefetcher<T> prefetcher) {
+        final Key<T> key = new Key<>(id);
+        this.registrations.add(new Registration<>(key, prefetcher));
+        return key;
+    }
+
+    /**
+     * Stops running a {@link Prefetcher} that was registered with
+     * {@link #register(String, Prefetcher)}.
+     *
+     * @param key The {@link Key} returned when the prefetcher was registered
+     */
+    public void unregister(final Key<?> key) {
+        this.registrations.removeIf(x -> x.key == key);
+    }
+
+    /**
+     * Runs every registered {@link Prefetcher} for a player who is
+     * authenticating, and keeps the results along with their data. This must
+     * not be called on the main thread, as it waits for the prefetchers to
+     * finish.
+     *
+     * @param uuid The {@link UUID} of the player
+     * @param dataObject The data of the player
+     */
+    public void prefetch(final UUID uuid, final IUserDataObject dataObject) {
+        final Map<Key<?>, CompletableFuture<?>> results = new IdentityHashMap<>();
+        final Executor executor = Sponge.asyncScheduler().createExecutor(this.pluginContainer);
+        for (final Registration<?> registration : this.registrations) {
+            results.put(registration.key, CompletableFuture.supplyAsync(() -> this.run(registration, uuid, dataObject), executor));
+        }
+        this.prefetched.put(uuid, new Prefetched(dataObject, Collections.unmodifiableMap(results)));
+
+        try {
+            CompletableFuture.allOf(results.values().toArray(new CompletableFuture<?>[0])).get(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            this.logger.warn("Preparing the login of {} took longer than {} ms, anything not ready will be loaded when needed.",
+                    uuid, MAX_WAIT_MILLIS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            // prefetchers report their own errors.
+        }
+    }
+
+    /**
+     * Gets the data that was loaded for a player when they authenticated.
+     *
+     * @param uuid The {@link UUID} of the player
+     * @return The data, if it is still held
+     */
+    public Optional<IUserDataObject> getUserData(final UUID uuid) {
+        final Prefetched p = this.prefetched.getIfPresent(uuid);
+        return p == null ? Optional.empty() : Optional.of(p.dataObject);
+    }
+
+    /**
+     * Gets the result of a {@link Prefetcher} for a player. If this is empty,
+     * because the player has already joined, the prefetcher had not finished
+     * or it did not return anything, the caller should work out what it needs
+     * itself.
+     *
+     * @param uuid The {@link UUID} of the player
+     * @param key The {@link Key} returned when the prefetcher was registered
+     * @param <T> The type of the result
+     * @return The result, if there is one
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> get(final UUID uuid, final Key<T> key) {
+        final Prefetched p = this.prefetched.getIfPresent(uuid);
+        if (p == null) {
+            return Optional.empty();
+        }
+
+        final CompletableFuture<?> future = p.results.get(key);
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable((T) future.join());
+    }
+
+    /**
+     * Gets the players whose data is held, so that it is not dropped from the
+     * storage cache before they have joined.
+     *
+     * @return The {@link UUID}s of the players
+     */
+    public Set<UUID> getPrefetchedPlayers() {
+        return Collections.unmodifiableSet(this.prefetched.asMap().keySet());
+    }
+
+    /**
+     * Removes everything held for a player, once they have joined or
+     * disconnected.
+     *
+     * @param uuid The {@link UUID} of the player
+     */
+    public void remove(final UUID uuid) {
+        this.prefetched.invalidate(uuid);
+    }
+
+    /**
+     * Works out something about a player from their data while they are
+     * authenticating.
+     *
+     * <p>This is called off the main thread, at the same time as other
+     * prefetchers, so it must not change the data object or use anything that
+     * must be used on the main thread.</p>
+     *
+     * @param <T> The type of the result
+     */
+    @FunctionalInterface
+    public interface Prefetcher<T> {
+
+        /**
+         * Works out the result for a player.
+         *
+         * @param uuid The {@link UUID} of the player
+         * @param dataObject The data of the player
+         * @return The result, or null if there is nothing to hand over
+         */
+        @Nullable T prefetch(UUID uuid, IUserDataObject dataObject);
+
+    }
+
+    /**
+     * Identifies the result of a registered {@link Prefetcher}.
+     *
+     * @param <T> The type of the result
+     */
+    public static final class Key<T> {
+
+        private final String id;
+
+        private Key(final String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String toString() {
+            return this.id;
+        }
+    }
+
+    private <T> @Nullable T run(final Registration<T> registration, final UUID uuid, final IUserDataObject dataObject) {
+        try {
+            return registration.prefetcher.prefetch(uuid, dataObject);
+        } catch (final RuntimeException e) {
+            this.logger.error("Could not prepare {} for the login of {}", registration.key, uuid, e);
+            return null;
+        }
+    }
+
+    private static final class Registration<T> {
+
+        private final Key<T> key;
+        private final Prefetcher<T> prefetcher;
+
+        private Registration(final Key<T> key, final Prefetcher<T> prefetcher) {
+            this.key = key;
+            this.prefetcher = prefetcher;
+        }
+    }
+
+    private static final class Prefetched {
+
+        private final IUserDataObject dataObject;
+        private final Map<Key<?>, CompletableFuture<?>> results;
+
+        private Prefetched(final IUserDataObject dataObject, final Map<Key<?>, CompletableFuture<?>> results) {
+            this.dataObject = dataObject;
+            this.results = results;
+        }
+    }
+
+}
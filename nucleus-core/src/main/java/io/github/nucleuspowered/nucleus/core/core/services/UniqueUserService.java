@@ -14,21 +14,66 @@ import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableServ
 import io.github.nucleuspowered.storage.services.IStorageService;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.data.Keys;
+import org.spongepowered.api.entity.living.player.User;
 import org.spongepowered.api.profile.GameProfile;
 import org.spongepowered.api.user.UserManager;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+/**
+ * Keeps count of the unique users that have joined the server.
+ *
+ * <p>The players that have been counted are kept in an index file, and new
+ * players are appended to it on their first join, so keeping the count up to
+ * date does not need to look at every user the server knows about. That only
+ * happens when the count is reconciled, which is limited to once every
+ * {@link #MIN_RECONCILE_INTERVAL_MINUTES} minutes, or when there is no index
+ * yet.</p>
+ *
+ * <p>The index is only read and written by one thread at a time, holding
+ * {@link #fileLock}, and new players are written to it off the main thread.
+ * The monitor on this object only guards the in memory state, so a player
+ * joining never waits on the file.</p>
+ */
 @Singleton
-public class UniqueUserService implements ServiceBase, IReloadableService.Reloadable {
+public class UniqueUserService implements ServiceBase, IReloadableService.Reloadable, IReloadableService.DataLocationReloadable {
+
+    public static final long MIN_RECONCILE_INTERVAL_MINUTES = 10;
+
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 4;
+    private static final int RECORD_LENGTH = 16;
+    private static final long MIN_RECONCILE_INTERVAL = TimeUnit.MINUTES.toNanos(MIN_RECONCILE_INTERVAL_MINUTES);
 
     public static UniqueUserService INSTANCE;
     private final INucleusServiceCollection serviceCollection;
+    private final Supplier<Path> dataDirectory;
     private boolean isMoreAccurate = false;
 
     @Inject
@@ -37,83 +82,300 @@ public class UniqueUserService implements ServiceBase, IReloadableService.Reload
             INSTANCE = this;
         }
         this.serviceCollection = serviceCollection;
+        this.dataDirectory = serviceCollection.dataDir();
     }
 
     private static boolean ERROR_REPORTED = false;
 
-    // This is a session variable - does not get saved on restart.
-    private long userCount = 0;
-    private boolean userCountIsDirty = false;
+    private volatile Set<UUID> counted = ConcurrentHashMap.newKeySet();
+
+    // Players counted while a reconciliation is running, who it may not see.
+    @Nullable private Set<UUID> countedDuringReconcile = null;
+    private long lastReconcile = 0;
+
+    // Held while the index is read or written. Players joining never need it.
+    private final Object fileLock = new Object();
+    private final Queue<UUID> pendingAppends = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean writeScheduled = new AtomicBoolean(false);
+    private volatile boolean rewriteRequested = false;
+    // guarded by fileLock
+    private boolean loaded = false;
+    private boolean indexExists = false;
 
     public long getUniqueUserCount() {
-        if (this.userCountIsDirty) {
-            return this.userCount + 1;
+        return this.counted.size();
+    }
+
+    /**
+     * Counts a player who is joining for the first time.
+     *
+     * @param uuid The {@link UUID} of the player
+     */
+    public void addUniqueUser(final UUID uuid) {
+        synchronized (this) {
+            if (!this.counted.add(uuid)) {
+                return;
+            }
+
+            if (this.countedDuringReconcile != null) {
+                this.countedDuringReconcile.add(uuid);
+            }
         }
 
-        return this.userCount;
+        this.pendingAppends.add(uuid);
+        this.scheduleWrite();
     }
 
-    public void resetUniqueUserCount() {
-        this.resetUniqueUserCount(null);
+    /**
+     * Loads the index of counted players, rebuilding it if there is none.
+     */
+    public void loadUniqueUserCount() {
+        synchronized (this.fileLock) {
+            this.ensureLoaded();
+            if (this.indexExists) {
+                return;
+            }
+        }
+
+        this.reconcileUniqueUserCount(null, true);
     }
 
-    public void resetUniqueUserCount(@Nullable final Consumer<Long> resultConsumer) {
-        if (!this.userCountIsDirty) {
-            this.userCountIsDirty = true;
-            ERROR_REPORTED = false;
+    /**
+     * Recounts the unique users from everyone the server knows about, unless
+     * this is already happening or has happened recently.
+     *
+     * @param resultConsumer Receives the new count when it is done
+     * @return Whether the count is being reconciled
+     */
+    public boolean reconcileUniqueUserCount(@Nullable final Consumer<Long> resultConsumer) {
+        return this.reconcileUniqueUserCount(resultConsumer, false);
+    }
 
-            if (Sponge.server().onMainThread()) {
-                Sponge.asyncScheduler().createExecutor(this.serviceCollection.pluginContainer())
-                        .submit(() -> this.doTask(resultConsumer));
-            } else {
-                this.doTask(resultConsumer);
+    private boolean reconcileUniqueUserCount(@Nullable final Consumer<Long> resultConsumer, final boolean force) {
+        synchronized (this) {
+            if (this.countedDuringReconcile != null
+                    || (!force && this.lastReconcile != 0 && System.nanoTime() - this.lastReconcile < MIN_RECONCILE_INTERVAL)) {
+                return false;
             }
+
+            this.countedDuringReconcile = ConcurrentHashMap.newKeySet();
+            this.lastReconcile = System.nanoTime();
+            ERROR_REPORTED = false;
+        }
+
+        if (Sponge.server().onMainThread()) {
+            Sponge.asyncScheduler().createExecutor(this.serviceCollection.pluginContainer())
+                    .submit(() -> this.doTask(resultConsumer));
+        } else {
+            this.doTask(resultConsumer);
         }
+        return true;
     }
 
     private void doTask(@Nullable final Consumer<Long> resultConsumer) {
-        final UserManager uss = Sponge.server().userManager();
-        final IStorageService.Keyed<UUID, IUserQueryObject, IUserDataObject> service =
-                this.serviceCollection.storageManager().getUserService();
-
-        // This could be slow...
-        if (this.isMoreAccurate) {
-            this.userCount = uss.streamAll().filter(GameProfile::hasName)
-                    .map(uss::find)
-                    .filter(Optional::isPresent)
-                    .filter(x -> {
-                        final boolean ret = x.get().player().isPresent() || service.exists(x.get().uniqueId()).join(); // already async
-                        if (!ret) {
-                            try {
-                                return x.get().get(Keys.FIRST_DATE_JOINED).isPresent();
-                            } catch (final IllegalStateException e) {
-                                if (!ERROR_REPORTED) {
-                                    ERROR_REPORTED = true;
-                                    this.serviceCollection.logger().warn("The Sponge player data provider has not yet been initialised, not "
-                                            + "using join data in this count.");
-                                }
-                            } catch (final NoSuchElementException e) {
-                                if (!ERROR_REPORTED) {
-                                    ERROR_REPORTED = true;
-                                    this.serviceCollection.logger().warn("The join data can not be constructed on some users.");
-                                }
-                            }
-                        }
-
-                        return ret;
-                    }).count();
-        } else {
-            this.userCount = uss.streamAll().filter(GameProfile::hasName).filter(x -> service.exists(x.uniqueId()).join()).count();
+        final Set<UUID> result = ConcurrentHashMap.newKeySet();
+        boolean complete = false;
+        try {
+            synchronized (this.fileLock) {
+                // load the index now, so that it is replaced by the count rather than merged into it later.
+                this.ensureLoaded();
+            }
+
+            final UserManager uss = Sponge.server().userManager();
+            final IStorageService.Keyed<UUID, IUserQueryObject, IUserDataObject> service =
+                    this.serviceCollection.storageManager().getUserService();
+
+            // This could be slow...
+            if (this.isMoreAccurate) {
+                uss.streamAll().filter(GameProfile::hasName)
+                        .map(uss::find)
+                        .filter(Optional::isPresent)
+                        .map(Optional::get)
+                        .filter(x -> this.hasJoined(x, service))
+                        .forEach(x -> result.add(x.uniqueId()));
+            } else {
+                uss.streamAll().filter(GameProfile::hasName).filter(x -> service.exists(x.uniqueId()).join())
+                        .forEach(x -> result.add(x.uniqueId()));
+            }
+            complete = true;
+        } finally {
+            synchronized (this) {
+                // if the count failed part way through, keep what we had.
+                if (complete && this.countedDuringReconcile != null) {
+                    result.addAll(this.countedDuringReconcile);
+                    this.counted = result;
+                    this.rewriteRequested = true;
+                }
+                this.countedDuringReconcile = null;
+            }
+        }
+
+        if (complete) {
+            this.scheduleWrite();
         }
 
-        this.userCountIsDirty = false;
         if (resultConsumer != null) {
-            resultConsumer.accept(this.userCount);
+            resultConsumer.accept(this.getUniqueUserCount());
         }
     }
 
+    private boolean hasJoined(final User user, final IStorageService.Keyed<UUID, IUserQueryObject, IUserDataObject> service) {
+        final boolean ret = user.player().isPresent() || service.exists(user.uniqueId()).join(); // already async
+        if (!ret) {
+            try {
+                return user.get(Keys.FIRST_DATE_JOINED).isPresent();
+            } catch (final IllegalStateException e) {
+                if (!ERROR_REPORTED) {
+                    ERROR_REPORTED = true;
+                    this.serviceCollection.logger().warn("The Sponge player data provider has not yet been initialised, not "
+                            + "using join data in this count.");
+                }
+            } catch (final NoSuchElementException e) {
+                if (!ERROR_REPORTED) {
+                    ERROR_REPORTED = true;
+                    this.serviceCollection.logger().warn("The join data can not be constructed on some users.");
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    private void ensureLoaded() {
+        if (this.loaded) {
+            return;
+        }
+
+        this.loaded = true;
+        final Path file = this.getFile();
+        this.indexExists = Files.exists(file);
+        if (!this.indexExists) {
+            return;
+        }
+
+        final Set<UUID> uuids = ConcurrentHashMap.newKeySet();
+        try {
+            final long size = Files.size(file);
+            final long whole = HEADER_LENGTH + ((size - HEADER_LENGTH) / RECORD_LENGTH) * RECORD_LENGTH;
+            try (final DataInputStream stream = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (size < HEADER_LENGTH || stream.readInt() != VERSION) {
+                    this.indexExists = false;
+                    return;
+                }
+
+                for (long read = HEADER_LENGTH; read < whole; read += RECORD_LENGTH) {
+                    uuids.add(new UUID(stream.readLong(), stream.readLong()));
+                }
+            }
+
+            if (whole < size) {
+                // a player who was only partly written, who will be found on the next reconcile. The partial record
+                // has to go, or everything appended after it would be misaligned.
+                try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(whole);
+                }
+            }
+        } catch (final IOException e) {
+            this.serviceCollection.logger().error("Could not read the unique user index, it will be rebuilt.", e);
+            this.indexExists = false;
+            return;
+        }
+        synchronized (this) {
+            uuids.addAll(this.counted);
+            this.counted = uuids;
+        }
+    }
+
+    private void scheduleWrite() {
+        if (this.writeScheduled.compareAndSet(false, true)) {
+            Sponge.asyncScheduler().createExecutor(this.serviceCollection.pluginContainer()).submit(this::write);
+        }
+    }
+
+    private void write() {
+        synchronized (this.fileLock) {
+            // anything added from here on schedules another write.
+            this.writeScheduled.set(false);
+            this.ensureLoaded();
+            if (this.rewriteRequested || !this.indexExists) {
+                this.rewriteRequested = false;
+                // everything waiting to be appended is already counted, so is in the rewrite.
+                this.pendingAppends.clear();
+                this.rewrite(this.counted);
+                return;
+            }
+
+            final List<UUID> uuids = new ArrayList<>();
+            UUID uuid;
+            while ((uuid = this.pendingAppends.poll()) != null) {
+                uuids.add(uuid);
+            }
+            if (!uuids.isEmpty()) {
+                this.append(uuids);
+            }
+        }
+    }
+
+    private void append(final Collection<UUID> uuids) {
+        final Path file = this.getFile();
+        try (final DataOutputStream stream =
+                new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.APPEND)))) {
+            for (final UUID uuid : uuids) {
+                stream.writeLong(uuid.getMostSignificantBits());
+                stream.writeLong(uuid.getLeastSignificantBits());
+            }
+        } catch (final IOException e) {
+            this.serviceCollection.logger().error("Could not add {} players to the unique user index.", uuids.size(), e);
+            // part of a record may have been written, so the whole index is written out next time.
+            this.indexExists = false;
+            this.scheduleWrite();
+        }
+    }
+
+    private void rewrite(final Collection<UUID> uuids) {
+        final Path file = this.getFile();
+        final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            try (final DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                stream.writeInt(VERSION);
+                for (final UUID uuid : uuids) {
+                    stream.writeLong(uuid.getMostSignificantBits());
+                    stream.writeLong(uuid.getLeastSignificantBits());
+                }
+            }
+
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            this.indexExists = true;
+        } catch (final IOException e) {
+            this.serviceCollection.logger().error("Could not save the unique user index.", e);
+        }
+    }
+
+    private Path getFile() {
+        return this.dataDirectory.get().resolve("uniqueusers.dat");
+    }
+
     @Override public void onReload(final INucleusServiceCollection serviceCollection) {
         this.isMoreAccurate = serviceCollection.configProvider().getCoreConfig()
                 .isMoreAccurate();
     }
+
+    @Override public void onDataFileLocationChange(final INucleusServiceCollection serviceCollection) {
+        synchronized (this.fileLock) {
+            this.loaded = false;
+            this.indexExists = false;
+            synchronized (this) {
+                this.counted = ConcurrentHashMap.newKeySet();
+            }
+        }
+
+        if (Sponge.isServerAvailable()) {
+            this.loadUniqueUserCount();
+        }
+    }
 }
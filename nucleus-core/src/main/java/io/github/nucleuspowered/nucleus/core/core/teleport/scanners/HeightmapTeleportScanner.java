@@ -0,0 +1,158 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.core.teleport.scanners;
+
+import org.spongepowered.api.ResourceKey;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.data.Keys;
+import org.spongepowered.api.world.HeightTypes;
+import org.spongepowered.api.world.server.ServerLocation;
+import org.spongepowered.api.world.server.ServerWorld;
+import org.spongepowered.api.world.teleport.TeleportHelper;
+import org.spongepowered.api.world.teleport.TeleportHelperFilter;
+import org.spongepowered.math.vector.Vector3i;
+
+import java.util.Optional;
+import java.util.function.IntPredicate;
+
+/**
+ * A {@link VerticalTeleportScanner} that only asks the {@link TeleportHelper}
+ * about the floors in the column being scanned, rather than searching every
+ * block between the start and the top or bottom of the world.
+ *
+ * <p>The column is never scanned above the motion blocking heightmap, as there
+ * is nothing to stand on up there. Below it, each block is read once to find
+ * the solid blocks that have two passable blocks above them, and the filters
+ * are only run around those. If the chunk is not loaded, so the heightmap can't
+ * be read, or none of those floors are safe, this scans the same way as
+ * {@link VerticalTeleportScanner}, which also looks at the columns around the
+ * start.</p>
+ */
+public abstract class HeightmapTeleportScanner extends VerticalTeleportScanner {
+
+    public static final int NO_FLOOR = Integer.MIN_VALUE;
+
+    protected HeightmapTeleportScanner(final boolean isAscending) {
+        super(isAscending);
+    }
+
+    @Override
+    public Optional<ServerLocation> scanFrom(
+            final ServerWorld world,
+            final Vector3i position,
+            final int height,
+            final int width,
+            final int floorDistance,
+            final TeleportHelperFilter filter,
+            final TeleportHelperFilter... filters) {
+        final int x = position.x();
+        final int z = position.z();
+        if (!world.isChunkLoaded(x >> 4, 0, z >> 4, false)) {
+            return super.scanFrom(world, position, height, width, floorDistance, filter, filters);
+        }
+
+        final int miny = world.blockMin().y();
+        final int maxy = world.blockMax().y();
+        final int surface = world.height(HeightTypes.MOTION_BLOCKING.get(), x, z);
+        if (surface <= miny) {
+            // nothing in the heightmap, it may not have been generated yet.
+            return super.scanFrom(world, position, height, width, floorDistance, filter, filters);
+        }
+
+        final int top = Math.min(surface, maxy - 1);
+        final int bottom = miny + 1;
+        final IntPredicate isSolid = y -> y >= miny && y <= maxy
+                && !world.block(x, y, z).get(Keys.IS_PASSABLE).orElse(false);
+        final TeleportHelper teleportHelper = Sponge.server().teleportHelper();
+
+        // start as far back as the first search of a vertical scan would look.
+        int y = this.isAscending ? Math.max(Math.min(position.y() - height, top), bottom) : Math.min(Math.max(position.y() + height, bottom), top);
+        final int limit = this.isAscending ? top : bottom;
+        while (true) {
+            final int floor = HeightmapTeleportScanner.findFloor(isSolid, y, limit, this.isAscending);
+            if (floor == NO_FLOOR) {
+                // nothing safe in this column, such as over water or lava, so look around it as well.
+                return super.scanFrom(world, position, height, width, floorDistance, filter, filters);
+            }
+
+            final Optional<ServerLocation> result = teleportHelper.findSafeLocation(
+                    ServerLocation.of(world, x, floor, z),
+                    height,
+                    width,
+                    floorDistance,
+                    filter,
+                    filters
+            );
+            if (result.isPresent()) {
+                return result;
+            }
+
+            y = floor + (this.isAscending ? 1 : -1);
+        }
+    }
+
+    /**
+     * Finds the first position between <code>from</code> and <code>to</code>
+     * inclusive, going in the direction of the scan, that has a solid block
+     * below it and is two blocks clear. Each block is only tested once.
+     *
+     * @param isSolid Whether the block at the given y co-ordinate is solid
+     * @param from The y co-ordinate to start at
+     * @param to The y co-ordinate to stop at
+     * @param isAscending Whether to go up
+     * @return The y co-ordinate, or {@link #NO_FLOOR} if there isn't one
+     */
+    public static int findFloor(final IntPredicate isSolid, final int from, final int to, final boolean isAscending) {
+        if (isAscending ? from > to : from < to) {
+            return NO_FLOOR;
+        }
+
+        boolean below = isSolid.test(from - 1);
+        boolean at = isSolid.test(from);
+        boolean above = isSolid.test(from + 1);
+        int y = from;
+        while (true) {
+            if (below && !at && !above) {
+                return y;
+            }
+
+            if (y == to) {
+                return NO_FLOOR;
+            }
+
+            if (isAscending) {
+                y++;
+                below = at;
+                at = above;
+                above = isSolid.test(y + 1);
+            } else {
+                y--;
+                above = at;
+                at = below;
+                below = isSolid.test(y - 1);
+            }
+        }
+    }
+
+    public static class Ascending extends HeightmapTeleportScanner {
+
+        public static final ResourceKey KEY = ResourceKey.of("nucleus", "heightmap_ascending_scan");
+
+        public Ascending() {
+            super(true);
+        }
+
+    }
+
+    public static class Descending extends HeightmapTeleportScanner {
+
+        public static final ResourceKey KEY = ResourceKey.of("nucleus", "heightmap_descending_scan");
+
+        public Descending() {
+            super(false);
+        }
+
+    }
+}
@@ -16,7 +16,7 @@ import java.util.Optional;
 
 public abstract class VerticalTeleportScanner implements TeleportScanner {
 
-    private final boolean isAscending;
+    protected final boolean isAscending;
 
     protected VerticalTeleportScanner(final boolean isAscending) {
         this.isAscending = isAscending;
@@ -26,12 +26,13 @@ public abstract class VerticalTeleportScanner implements TeleportScanner {
     public Optional<ServerLocation> scanFrom(
             final ServerWorld world,
             Vector3i position,
-            final int width,
             final int height,
+            final int width,
             final int floorDistance,
             final TeleportHelperFilter filter,
             final TeleportHelperFilter... filters) {
         final int maxy = world.blockMax().y();
+        final int miny = world.blockMin().y();
         final int jumps = ((height * 2) - 1) * (this.isAscending ? 1 : -1);
 
         do {
@@ -49,7 +50,7 @@ public abstract class VerticalTeleportScanner implements TeleportScanner {
             }
 
             position = position.add(0, jumps, 0);
-        } while (position.y() < maxy);
+        } while (position.y() < maxy && position.y() > miny);
 
         return Optional.empty();
     }
@@ -15,25 +15,33 @@ import net.kyori.adventure.text.format.NamedTextColor;
 import org.spongepowered.api.asset.Asset;
 import org.spongepowered.api.service.pagination.PaginationList;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
-import java.nio.charset.MalformedInputException;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Handles loading and reading text files.
+ *
+ * <p>The file is only read when {@link #load()} is called, either on reload or
+ * by the {@link TextFileWatcher} when it changes. Each load swaps in a new,
+ * fully parsed {@link Contents}, so reading from the controller never touches
+ * the file system.</p>
  */
 public final class TextFileController {
 
@@ -56,20 +64,13 @@ public final class TextFileController {
      */
     private final Path fileLocation;
 
-    /**
-     * Holds the file information.
-     */
-    private final List<String> fileContents = new ArrayList<>();
-
-    /**
-     * Holds the {@link NucleusTextTemplateImpl} information.
-     */
-    private final List<NucleusTextTemplateImpl> textTemplates = new ArrayList<>();
     private final boolean getTitle;
     private final INucleusTextTemplateFactory textTemplateFactory;
 
-    private long fileTimeStamp = 0;
-    @Nullable private NucleusTextTemplate title;
+    /**
+     * Holds the parsed contents of the file as of the last load.
+     */
+    private volatile Contents contents = Contents.EMPTY;
 
     public TextFileController(final INucleusTextTemplateFactory textTemplateFactory, final Path fileLocation, final boolean getTitle) {
         this(textTemplateFactory, null, fileLocation, getTitle);
@@ -87,57 +88,40 @@ public final class TextFileController {
         this.getTitle = getTitle;
     }
 
+    public Path getFileLocation() {
+        return this.fileLocation;
+    }
+
     /**
      * Loads the file and refreshes the contents of the file in memory.
      *
      * @throws IOException Thrown if there is an issue getting the file.
      */
-    public void load() throws IOException {
+    public synchronized void load() throws IOException {
         if (this.asset != null && !Files.exists(this.fileLocation)) {
             // Create the file
             this.asset.copyToFile(this.fileLocation);
         }
 
-        final List<String> fileContents = new ArrayList<>();
-
-        // Load the file into the list.
-        MalformedInputException exception = null;
-        for (final Charset charset : characterSetsToTest) {
-            try {
-                fileContents.addAll(Files.readAllLines(this.fileLocation, charset));
-                exception = null;
-                break;
-            } catch (final MalformedInputException ex) {
-                exception = ex;
-            }
-        }
-
-        // Rethrow exception if it doesn't work.
-        if (exception != null) {
-            throw exception;
-        }
-
-        this.fileTimeStamp = Files.getLastModifiedTime(this.fileLocation).toMillis();
-        this.fileContents.clear();
-        this.fileContents.addAll(fileContents);
-        this.textTemplates.clear();
+        this.contents = this.parse(TextFileController.decode(Files.readAllBytes(this.fileLocation)));
     }
 
     public Optional<Component> getTitle(final Audience source) {
-        if (this.getTitle && this.textTemplates.isEmpty() && !this.fileContents.isEmpty()) {
-            // Initialisation!
-            this.getFileContentsAsText();
-        }
-
-        if (this.title != null) {
-            return Optional.of(this.title.getForObject(source));
+        final NucleusTextTemplate title = this.contents.title;
+        if (title != null) {
+            return Optional.of(title.getForObject(source));
         }
 
         return Optional.empty();
     }
 
     public List<Component> getTextFromNucleusTextTemplates(final Audience source) {
-        return this.getFileContentsAsText().stream().map(x -> x.getForObject(source)).collect(Collectors.toList());
+        final List<NucleusTextTemplateImpl> lines = this.contents.lines;
+        final List<Component> text = new ArrayList<>(lines.size());
+        for (final NucleusTextTemplateImpl line : lines) {
+            text.add(line.getForObject(source));
+        }
+        return text;
     }
 
     public void sendToAudience(final Audience src, final Component title) {
@@ -154,36 +138,67 @@ public final class TextFileController {
     }
 
     /**
-     * Gets the contents of the file.
-     *
-     * @return An immutable {@link Collection} that contains the file contents.
+     * Reads the file with the first character set that can decode it. The
+     * file is only read from disk once, however many sets are tried.
      */
-    private Collection<NucleusTextTemplateImpl> getFileContentsAsText() {
-        this.checkFileStamp();
-        if (this.textTemplates.isEmpty()) {
-            final List<String> contents = new ArrayList<>(this.fileContents);
-            if (this.getTitle) {
-                this.title = this.getTitleFromStrings(contents);
-
-                if (this.title != null) {
-                    contents.remove(0);
-
-                    final Iterator<String> i = contents.iterator();
-                    while (i.hasNext()) {
-                        final String n = i.next();
-                        if (n.isEmpty() || n.matches("^\\s+$")) {
-                            i.remove();
-                        } else {
-                            break;
-                        }
-                    }
+    private static List<String> decode(final byte[] bytes) throws CharacterCodingException {
+        CharacterCodingException exception = null;
+        for (final Charset charset : characterSetsToTest) {
+            final String text;
+            try {
+                text = charset.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPORT)
+                        .onUnmappableCharacter(CodingErrorAction.REPORT)
+                        .decode(ByteBuffer.wrap(bytes))
+                        .toString();
+            } catch (final CharacterCodingException ex) {
+                exception = ex;
+                continue;
+            }
+
+            final List<String> lines = new ArrayList<>();
+            try (final BufferedReader reader = new BufferedReader(new StringReader(text))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.add(line);
                 }
+            } catch (final IOException e) {
+                // a StringReader won't throw
+                throw new IllegalStateException(e);
             }
+            return lines;
+        }
+
+        // Rethrow exception if it doesn't work.
+        throw Objects.requireNonNull(exception);
+    }
 
-            contents.forEach(x -> this.textTemplates.add(this.textTemplateFactory.createFromAmpersandString(x)));
+    private Contents parse(final List<String> fileContents) {
+        final List<String> contents = new ArrayList<>(fileContents);
+        NucleusTextTemplate title = null;
+        if (this.getTitle) {
+            title = this.getTitleFromStrings(contents);
+
+            if (title != null) {
+                contents.remove(0);
+
+                final Iterator<String> i = contents.iterator();
+                while (i.hasNext()) {
+                    final String n = i.next();
+                    if (n.trim().isEmpty()) {
+                        i.remove();
+                    } else {
+                        break;
+                    }
+                }
+            }
         }
 
-        return Collections.unmodifiableCollection(this.textTemplates);
+        final List<NucleusTextTemplateImpl> lines = new ArrayList<>(contents.size());
+        for (final String line : contents) {
+            lines.add(this.textTemplateFactory.createFromAmpersandString(line));
+        }
+        return new Contents(title, Collections.unmodifiableList(lines));
     }
 
     @Nullable private NucleusTextTemplate getTitleFromStrings(final List<String> info) {
@@ -203,13 +218,19 @@ public final class TextFileController {
         return null;
     }
 
-    private void checkFileStamp() {
-        try {
-            if (this.fileContents.isEmpty() || Files.getLastModifiedTime(this.fileLocation).toMillis() > this.fileTimeStamp) {
-                this.load();
-            }
-        } catch (final IOException e) {
-            // ignored
+    /**
+     * An immutable snapshot of the parsed file.
+     */
+    private static final class Contents {
+
+        private static final Contents EMPTY = new Contents(null, Collections.emptyList());
+
+        @Nullable private final NucleusTextTemplate title;
+        private final List<NucleusTextTemplateImpl> lines;
+
+        private Contents(@Nullable final NucleusTextTemplate title, final List<NucleusTextTemplateImpl> lines) {
+            this.title = title;
+            this.lines = lines;
         }
     }
 }
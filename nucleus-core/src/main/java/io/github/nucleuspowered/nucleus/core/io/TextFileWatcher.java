@@ -0,0 +1,155 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.io;
+
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the files behind {@link TextFileController}s on a single background
+ * thread, and reloads a controller when its file changes.
+ *
+ * <p>This means that reading from a controller never has to check the file
+ * system to see if the file is up to date.</p>
+ */
+public final class TextFileWatcher {
+
+    // Editors tend to write a file in several steps, so wait for them to finish.
+    private static final long SETTLE_TIME_MILLIS = 250;
+
+    private final Logger logger;
+    private final Map<Path, Set<TextFileController>> controllers = new ConcurrentHashMap<>();
+    private final Map<Path, WatchKey> directories = new HashMap<>();
+    @Nullable private WatchService watchService;
+
+    public TextFileWatcher(final Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Starts watching the file behind the given controller.
+     *
+     * @param controller The controller
+     */
+    public synchronized void watch(final TextFileController controller) {
+        final Path file = TextFileWatcher.normalise(controller.getFileLocation());
+        this.controllers.computeIfAbsent(file, x -> ConcurrentHashMap.newKeySet()).add(controller);
+        final Path directory = file.getParent();
+        if (directory != null && !this.directories.containsKey(directory)) {
+            try {
+                this.directories.put(directory,
+                        directory.register(this.getWatchService(), StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY));
+            } catch (final IOException e) {
+                this.logger.warn("Could not watch {} for changes, it will only be updated on reload.", directory, e);
+            }
+        }
+    }
+
+    /**
+     * Stops watching the file behind the given controller.
+     *
+     * @param controller The controller
+     */
+    public synchronized void unwatch(final TextFileController controller) {
+        final Path file = TextFileWatcher.normalise(controller.getFileLocation());
+        final Set<TextFileController> fileControllers = this.controllers.get(file);
+        if (fileControllers == null || !fileControllers.remove(controller)) {
+            return;
+        }
+
+        if (fileControllers.isEmpty()) {
+            this.controllers.remove(file);
+            final Path directory = file.getParent();
+            if (directory != null && this.controllers.keySet().stream().noneMatch(x -> directory.equals(x.getParent()))) {
+                final WatchKey key = this.directories.remove(directory);
+                if (key != null) {
+                    key.cancel();
+                }
+            }
+        }
+    }
+
+    private WatchService getWatchService() throws IOException {
+        if (this.watchService == null) {
+            final WatchService service = FileSystems.getDefault().newWatchService();
+            final Thread thread = new Thread(() -> this.run(service), "Nucleus Text File Watcher");
+            thread.setDaemon(true);
+            thread.start();
+            this.watchService = service;
+        }
+        return this.watchService;
+    }
+
+    private void run(final WatchService service) {
+        while (true) {
+            final Set<Path> changed = new HashSet<>();
+            try {
+                WatchKey key = service.take();
+                do {
+                    this.collectChanges(key, changed);
+                    key = service.poll(SETTLE_TIME_MILLIS, TimeUnit.MILLISECONDS);
+                } while (key != null);
+            } catch (final InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            for (final Path path : changed) {
+                final Collection<TextFileController> fileControllers = this.controllers.get(path);
+                if (fileControllers != null) {
+                    for (final TextFileController controller : fileControllers) {
+                        try {
+                            controller.load();
+                        } catch (final IOException e) {
+                            this.logger.warn("Could not reload {}, the previous contents will be used.", path, e);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void collectChanges(final WatchKey key, final Set<Path> changed) {
+        final Path directory = (Path) key.watchable();
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // we don't know what changed, so reload everything in the directory.
+                for (final Path path : this.controllers.keySet()) {
+                    if (directory.equals(path.getParent())) {
+                        changed.add(path);
+                    }
+                }
+            } else {
+                changed.add(directory.resolve((Path) event.context()));
+            }
+        }
+
+        if (!key.reset()) {
+            synchronized (this) {
+                this.directories.remove(directory, key);
+            }
+        }
+    }
+
+    private static Path normalise(final Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+}
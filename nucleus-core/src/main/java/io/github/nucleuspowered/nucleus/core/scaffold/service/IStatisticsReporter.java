@@ -0,0 +1,30 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.scaffold.service;
+
+import java.util.List;
+
+/**
+ * A {@link ServiceBase} that keeps statistics about the work it does. The
+ * statistics of every registered service that implements this are written
+ * out by <code>/nucleus info</code>.
+ */
+public interface IStatisticsReporter {
+
+    /**
+     * Gets the heading to put above the statistics.
+     *
+     * @return The heading
+     */
+    String getStatisticsHeading();
+
+    /**
+     * Gets the statistics, one per line.
+     *
+     * @return The lines
+     */
+    List<String> getStatistics();
+
+}
@@ -6,6 +6,7 @@ package io.github.nucleuspowered.nucleus.core.services;
 
 import com.google.inject.ImplementedBy;
 import com.google.inject.Injector;
+import io.github.nucleuspowered.nucleus.core.scaffold.service.IStatisticsReporter;
 import io.github.nucleuspowered.nucleus.core.services.impl.NucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IChatMessageFormatterService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.ICommandElementSupplier;
@@ -40,6 +41,7 @@ import org.spongepowered.api.event.lifecycle.RegisterFactoryEvent;
 import org.spongepowered.plugin.PluginContainer;
 
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.function.Supplier;
 
@@ -112,6 +114,8 @@ public interface INucleusServiceCollection {
 
     <I> I getServiceUnchecked(Class<I> key);
 
+    Collection<IStatisticsReporter> statisticsReporters();
+
     Path configDir();
 
     Supplier<Path> dataDir();
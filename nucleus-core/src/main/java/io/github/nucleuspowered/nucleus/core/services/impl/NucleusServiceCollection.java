@@ -9,6 +9,7 @@ import com.google.inject.Injector;
 import com.google.inject.Singleton;
 import io.github.nucleuspowered.nucleus.core.guice.ConfigDirectory;
 import io.github.nucleuspowered.nucleus.core.guice.DataDirectory;
+import io.github.nucleuspowered.nucleus.core.scaffold.service.IStatisticsReporter;
 import io.github.nucleuspowered.nucleus.core.scaffold.service.annotations.APIService;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IChatMessageFormatterService;
@@ -45,7 +46,11 @@ import org.spongepowered.api.event.lifecycle.RegisterFactoryEvent;
 import org.spongepowered.plugin.PluginContainer;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -57,6 +62,7 @@ public class NucleusServiceCollection implements INucleusServiceCollection {
     private final Map<Class<?>, Object> instances = new HashMap<>();
     private final Map<Class<?>, Supplier<?>> suppliers = new HashMap<>();
     private final Map<Class<?>, Object> apiFactories = new HashMap<>();
+    private final List<IStatisticsReporter> statisticsReporters = new ArrayList<>();
 
     private final Supplier<IMessageProviderService> messageProviderService;
     private final Supplier<IEconomyServiceProvider> economyServiceProvider;
@@ -275,7 +281,10 @@ public class NucleusServiceCollection implements INucleusServiceCollection {
         }
 
         this.suppliers.remove(key);
-        this.instances.put(key, service);
+        final Object previous = this.instances.put(key, service);
+        if (previous instanceof IStatisticsReporter) {
+            this.statisticsReporters.remove(previous);
+        }
         if (service.getClass().isAnnotationPresent(APIService.class)) {
             this.apiFactories.put(service.getClass().getAnnotation(APIService.class).value(), service);
         }
@@ -285,6 +294,14 @@ public class NucleusServiceCollection implements INucleusServiceCollection {
         if (service instanceof IReloadableService.DataLocationReloadable) {
             this.reloadableService.get().registerDataFileReloadable((IReloadableService.DataLocationReloadable) service);
         }
+        if (service instanceof IStatisticsReporter) {
+            this.statisticsReporters.add((IStatisticsReporter) service);
+        }
+    }
+
+    @Override
+    public Collection<IStatisticsReporter> statisticsReporters() {
+        return Collections.unmodifiableList(this.statisticsReporters);
     }
 
     @Override @SuppressWarnings("unchecked")
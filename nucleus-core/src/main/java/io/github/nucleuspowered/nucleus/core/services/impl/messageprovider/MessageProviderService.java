@@ -4,12 +4,9 @@
  */
 package io.github.nucleuspowered.nucleus.core.services.impl.messageprovider;
 
-import com.github.benmanes.caffeine.cache.CacheLoader;
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import io.github.nucleuspowered.nucleus.api.core.NucleusUserPreferenceService;
+import io.github.nucleuspowered.nucleus.core.NucleusJavaProperties;
 import io.github.nucleuspowered.nucleus.core.guice.ConfigDirectory;
 import io.github.nucleuspowered.nucleus.core.core.config.CoreConfig;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
@@ -22,7 +19,7 @@ import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableServ
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IUserPreferenceService;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
-import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 import org.spongepowered.api.util.locale.LocaleSource;
@@ -42,6 +39,7 @@ import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Singleton
 public class MessageProviderService implements IMessageProviderService, IReloadableService.Reloadable {
@@ -78,16 +76,10 @@ public class MessageProviderService implements IMessageProviderService, IReloada
     private final PropertiesMessageRepository defaultMessagesResource;
     private final ConfigFileMessagesRepository configFileMessagesRepository;
 
-    private final Map<Locale, PropertiesMessageRepository> messagesMap = new HashMap<>();
-    private final LoadingCache<UUID, Locale> localeCache = Caffeine.newBuilder()
-            .build(new CacheLoader<UUID, Locale>() {
-                @Override
-                public Locale load(@NonNull final UUID key) {
-                    final NucleusUserPreferenceService.PreferenceKey<Locale> l =
-                            MessageProviderService.this.userPreferenceService.keys().playerLocale().get();
-                    return MessageProviderService.this.userPreferenceService.get(key, l).orElse(new Locale(""));
-                }
-            });
+    private final Map<Locale, PropertiesMessageRepository> messagesMap = new ConcurrentHashMap<>();
+
+    // The locale to use for each online player, resolved from their preference and client locale.
+    private final Map<UUID, Locale> playerLocales = new ConcurrentHashMap<>();
 
     @Inject
     public MessageProviderService(
@@ -141,8 +133,35 @@ public class MessageProviderService implements IMessageProviderService, IReloada
     }
 
     @Override
-    public void invalidateLocaleCacheFor(final UUID uuid) {
-        this.localeCache.invalidate(uuid);
+    public void loadLocaleFor(final ServerPlayer player) {
+        this.playerLocales.put(player.uniqueId(), this.resolveLocale(player.uniqueId(), player.locale()));
+    }
+
+    @Override
+    public void updateClientLocaleFor(final ServerPlayer player, final Locale clientLocale) {
+        if (this.playerLocales.containsKey(player.uniqueId())) {
+            this.playerLocales.put(player.uniqueId(), this.resolveLocale(player.uniqueId(), clientLocale));
+        }
+    }
+
+    @Override
+    public void updatePreferredLocaleFor(final UUID uuid, @Nullable final Locale preferredLocale) {
+        this.playerLocales.computeIfPresent(uuid, (key, current) -> {
+            if (preferredLocale != null) {
+                return preferredLocale;
+            }
+            return this.userPreferenceService.keys().playerLocale().get().getDefaultValue()
+                    .orElseGet(() -> Sponge.server().player(key).map(ServerPlayer::locale).orElse(current));
+        });
+    }
+
+    @Override
+    public void removeLocaleFor(final UUID uuid) {
+        this.playerLocales.remove(uuid);
+    }
+
+    private Locale resolveLocale(final UUID uuid, final Locale clientLocale) {
+        return this.userPreferenceService.getPreferenceFor(uuid, this.userPreferenceService.keys().playerLocale().get()).orElse(clientLocale);
     }
 
     @Override
@@ -150,8 +169,11 @@ public class MessageProviderService implements IMessageProviderService, IReloada
         final Locale toUse;
         if (this.useClientLocalesWhenPossible && commandSource instanceof LocaleSource) {
             if (commandSource instanceof ServerPlayer) {
-                return this.userPreferenceService.getPreferenceFor(((ServerPlayer) commandSource).uniqueId(),
-                        this.userPreferenceService.keys().playerLocale().get()).orElseGet(((ServerPlayer) commandSource)::locale);
+                final Locale locale = this.playerLocales.get(((ServerPlayer) commandSource).uniqueId());
+                if (locale != null) {
+                    return locale;
+                }
+                return this.resolveLocale(((ServerPlayer) commandSource).uniqueId(), ((ServerPlayer) commandSource).locale());
             }
             toUse = ((LocaleSource) commandSource).locale();
         } else {
@@ -208,6 +230,11 @@ public class MessageProviderService implements IMessageProviderService, IReloada
         this.defaultLocale = Locale.forLanguageTag(coreConfig.getServerLocale().replace("_", "-"));
         this.serviceCollection.logger().info(this.getMessageString("language.set", this.defaultLocale.toLanguageTag()));
         this.reloadMessageFile();
+        if (NucleusJavaProperties.PRECOMPILE_MESSAGES && !this.useMessagesFile) {
+            final PropertiesMessageRepository repository = this.getPropertiesMessagesRepository(this.defaultLocale);
+            Sponge.asyncScheduler().createExecutor(this.serviceCollection.pluginContainer())
+                    .submit(() -> repository.precompile(repository.getKeys()));
+        }
     }
 
     @Override
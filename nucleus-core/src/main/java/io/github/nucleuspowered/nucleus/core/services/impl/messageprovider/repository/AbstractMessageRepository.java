@@ -5,6 +5,7 @@
 package io.github.nucleuspowered.nucleus.core.services.impl.messageprovider.repository;
 
 import io.github.nucleuspowered.nucleus.core.services.impl.messageprovider.template.ArgumentElement;
+import io.github.nucleuspowered.nucleus.core.services.impl.messageprovider.template.StringTemplate;
 import io.github.nucleuspowered.nucleus.core.services.impl.messageprovider.template.Template;
 import io.github.nucleuspowered.nucleus.core.services.impl.messageprovider.template.TextElement;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IPlayerDisplayNameService;
@@ -13,23 +14,19 @@ import net.kyori.adventure.text.Component;
 import org.spongepowered.api.entity.living.player.User;
 import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 
-import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 abstract class AbstractMessageRepository implements IMessageRepository {
 
-    private final static Pattern STRING_REPLACER = Pattern.compile("\\{+[^0-9]+}+");
-    private final static Pattern STRING_LOCALISER = Pattern.compile("loc:([a-z\\-.]+)");
+    private final static String LOCALISER_PREFIX = "loc:";
 
-    final Map<String, String> cachedStringMessages = new HashMap<>();
-    final Map<String, Template> cachedMessages = new HashMap<>();
+    // These are read from any thread, so must be concurrent.
+    final Map<String, StringTemplate> cachedStringMessages = new ConcurrentHashMap<>();
+    final Map<String, Template> cachedMessages = new ConcurrentHashMap<>();
     private final IPlayerDisplayNameService playerDisplayNameService;
     private final ITextStyleService textStyleService;
 
@@ -42,16 +39,26 @@ abstract class AbstractMessageRepository implements IMessageRepository {
 
     abstract String getEntry(String key);
 
-    private String getStringEntry(final String key) {
-        return STRING_REPLACER.matcher(
-                this.getEntry(key).replaceAll("'", "''")
-        ).replaceAll("'$0'");
-    }
-
     private Template getTextTemplate(final String key) {
         return this.cachedMessages.computeIfAbsent(key, k -> this.templateCreator(this.getEntry(k)));
     }
 
+    private StringTemplate getStringTemplate(final String key) {
+        return this.cachedStringMessages.computeIfAbsent(key, k -> StringTemplate.compile(this.getEntry(k)));
+    }
+
+    /**
+     * Compiles the given keys ahead of their first use.
+     *
+     * @param keys The keys to compile
+     */
+    public void precompile(final Collection<String> keys) {
+        for (final String key : keys) {
+            this.getTextTemplate(key);
+            this.getStringTemplate(key);
+        }
+    }
+
     @Override
     public Component getText(final String key) {
         return this.getTextTemplate(key).create();
@@ -59,79 +66,76 @@ abstract class AbstractMessageRepository implements IMessageRepository {
 
     @Override
     public Component getText(final String key, final Object[] args) {
-        return this.getTextMessageWithTextFormat(key,
-                Arrays.stream(args).map(x -> {
-                    final Component component;
-                    if (x instanceof User) {
-                        component = this.playerDisplayNameService.getDisplayName(((User) x).uniqueId());
-                    } else if (x instanceof ServerPlayer) {
-                        component = this.playerDisplayNameService.getDisplayName(((ServerPlayer) x).uniqueId());
-                    } else if (x instanceof Component) {
-                        component = (Component) x;
-                    } else if (x instanceof String) {
-                        final String s = (String) x;
-                        final Matcher matcher = STRING_LOCALISER.matcher(s);
-                        if (matcher.matches()) {
-                             return this.getText(matcher.group(1));
-                        }
-
-                        component = Component.text(s);
-                    } else {
-                        component = Component.text(x.toString());
-                    }
-                    return component;
-                }).collect(Collectors.toList()));
+        final Template template = this.getTextTemplate(key);
+        if (args.length == 0 || !template.hasTokens()) {
+            return template.create();
+        }
+
+        final List<Component> components = new ArrayList<>(args.length);
+        for (final Object x : args) {
+            final Component component;
+            if (x instanceof User) {
+                component = this.playerDisplayNameService.getDisplayName(((User) x).uniqueId());
+            } else if (x instanceof ServerPlayer) {
+                component = this.playerDisplayNameService.getDisplayName(((ServerPlayer) x).uniqueId());
+            } else if (x instanceof Component) {
+                component = (Component) x;
+            } else if (x instanceof String) {
+                final String s = (String) x;
+                if (AbstractMessageRepository.isLocalisationKey(s)) {
+                    component = this.getText(s.substring(LOCALISER_PREFIX.length()));
+                } else {
+                    component = Component.text(s);
+                }
+            } else {
+                component = Component.text(x.toString());
+            }
+            components.add(component);
+        }
+
+        return template.create(components);
     }
 
     @Override
     public String getString(final String key) {
-        return this.cachedStringMessages.computeIfAbsent(key, this::getStringEntry);
+        return this.getStringTemplate(key).format(new Object[0]);
     }
 
     @Override
     public String getString(final String key, final Object[] args) {
-        return MessageFormat.format(this.getString(key), args);
+        return this.getStringTemplate(key).format(args);
     }
 
-    private Component getTextMessageWithTextFormat(final String key, final List<? extends Component> textList) {
-        final Template template = this.getTextTemplate(key);
-        if (textList.isEmpty()) {
-            return template.create();
+    // Equivalent to matching loc:([a-z\-.]+)
+    private static boolean isLocalisationKey(final String s) {
+        if (s.length() <= LOCALISER_PREFIX.length() || !s.startsWith(LOCALISER_PREFIX)) {
+            return false;
         }
 
-        final Map<String, Component> objs = new HashMap<>();
-        for (int i = 0; i < textList.size(); i++) {
-            objs.put(String.valueOf(i), textList.get(i));
+        for (int i = LOCALISER_PREFIX.length(); i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (!(c >= 'a' && c <= 'z') && c != '-' && c != '.') {
+                return false;
+            }
         }
-
-        return template.create(objs);
+        return true;
     }
 
     final Template templateCreator(final String string) {
-        // regex!
-        final Matcher mat = Pattern.compile("\\{([\\d]+)}").matcher(string);
-        final List<Integer> map = new ArrayList<>();
-
-        while (mat.find()) {
-            map.add(Integer.parseInt(mat.group(1)));
-        }
-
-        final String[] s = string.split("\\{([\\d]+)}");
+        final StringTemplate parsed = StringTemplate.compile(string);
 
         final List<TextElement> objects = new ArrayList<>();
-        final Component t = this.textStyleService.oldLegacy(s[0]);
+        final Component t = this.textStyleService.oldLegacy(parsed.getLiteral(0));
         ITextStyleService.TextFormat tuple = this.textStyleService.getLastColourAndStyle(t, null);
         objects.add(input -> t);
-        int count = 1;
-        for (final Integer x : map) {
-            objects.add(new ArgumentElement(tuple, String.valueOf(x)));
-            if (s.length > count) {
-                final Component r = tuple.apply(this.textStyleService.oldLegacy(s[count])).build();
+        for (int slot = 0; slot < parsed.getArgumentCount(); slot++) {
+            objects.add(new ArgumentElement(tuple, parsed.getArgumentIndex(slot)));
+            final String literal = parsed.getLiteral(slot + 1);
+            if (!literal.isEmpty()) {
+                final Component r = tuple.apply(this.textStyleService.oldLegacy(literal)).build();
                 tuple = this.textStyleService.getLastColourAndStyle(t, null);
                 objects.add(element -> r);
             }
-
-            count++;
         }
 
         return new Template(objects);
@@ -0,0 +1,129 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.services.impl.messageprovider.template;
+
+import java.text.DateFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A compiled plain text message, made up of literal segments and argument
+ * indices. Arguments are formatted as {@link java.text.MessageFormat} would
+ * format them, without needing to parse the message each time.
+ */
+public final class StringTemplate {
+
+    // literals.length == indices.length + 1
+    private final String[] literals;
+    private final int[] indices;
+
+    private StringTemplate(final String[] literals, final int[] indices) {
+        this.literals = literals;
+        this.indices = indices;
+    }
+
+    /**
+     * Compiles a message, where any {@code {n}} token, n being a number, is
+     * an argument. All other text is literal.
+     *
+     * @param message The message
+     * @return The template
+     */
+    public static StringTemplate compile(final String message) {
+        final List<String> literals = new ArrayList<>();
+        final List<Integer> indices = new ArrayList<>();
+        final int length = message.length();
+        int literalStart = 0;
+        int i = 0;
+        while (i < length) {
+            if (message.charAt(i) == '{') {
+                int end = i + 1;
+                while (end < length && Character.isDigit(message.charAt(end))) {
+                    end++;
+                }
+
+                if (end > i + 1 && end < length && message.charAt(end) == '}') {
+                    literals.add(message.substring(literalStart, i));
+                    indices.add(Integer.parseInt(message.substring(i + 1, end)));
+                    i = end + 1;
+                    literalStart = i;
+                    continue;
+                }
+            }
+            i++;
+        }
+
+        literals.add(message.substring(literalStart));
+        final int[] indexArray = new int[indices.size()];
+        for (int j = 0; j < indexArray.length; j++) {
+            indexArray[j] = indices.get(j);
+        }
+        return new StringTemplate(literals.toArray(new String[0]), indexArray);
+    }
+
+    /**
+     * The number of argument slots in this template.
+     *
+     * @return The number of slots
+     */
+    public int getArgumentCount() {
+        return this.indices.length;
+    }
+
+    /**
+     * Gets the literal text that appears before the given argument slot, or
+     * after the last one if the {@link #getArgumentCount()} is given.
+     *
+     * @param slot The slot
+     * @return The literal text
+     */
+    public String getLiteral(final int slot) {
+        return this.literals[slot];
+    }
+
+    /**
+     * Gets the argument index that the given slot is filled with.
+     *
+     * @param slot The slot
+     * @return The argument index
+     */
+    public int getArgumentIndex(final int slot) {
+        return this.indices[slot];
+    }
+
+    public String format(final Object[] args) {
+        if (this.indices.length == 0) {
+            return this.literals[0];
+        }
+
+        final StringBuilder builder = new StringBuilder(this.literals[0]);
+        for (int i = 0; i < this.indices.length; i++) {
+            final int index = this.indices[i];
+            if (index < args.length) {
+                StringTemplate.appendArgument(builder, args[index]);
+            } else {
+                // as MessageFormat does
+                builder.append('{').append(index).append('}');
+            }
+            builder.append(this.literals[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    private static void appendArgument(final StringBuilder builder, final Object arg) {
+        if (arg instanceof String) {
+            builder.append((String) arg);
+        } else if (arg instanceof Number) {
+            builder.append(NumberFormat.getInstance().format(arg));
+        } else if (arg instanceof Date) {
+            builder.append(DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT).format(arg));
+        } else {
+            builder.append(arg);
+        }
+    }
+
+}
@@ -8,30 +8,51 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.ComponentLike;
 import net.kyori.adventure.text.TextComponent;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
+/**
+ * A compiled message, made up of static components and argument slots.
+ * Templates are immutable and may be used from any thread.
+ */
 public final class Template implements ComponentLike {
 
-    private final List<TextElement> elements;
-    private final Map<String, ArgumentElement> knownArgs;
+    private final TextElement[] elements;
+    private final boolean hasTokens;
+
+    // Messages without arguments always render to the same component.
+    @Nullable private final Component constant;
 
     public Template(final List<TextElement> elements) {
-        this.elements = elements;
-        this.knownArgs = elements.stream()
-                .filter(x -> x instanceof ArgumentElement)
-                .map(x -> (ArgumentElement) x)
-                .collect(Collectors.toMap(x -> x.key, x -> x));
+        this.elements = elements.toArray(new TextElement[0]);
+        boolean tokens = false;
+        for (final TextElement element : this.elements) {
+            if (element instanceof ArgumentElement) {
+                tokens = true;
+                break;
+            }
+        }
+        this.hasTokens = tokens;
+        this.constant = tokens ? null : this.build(Collections.emptyList());
     }
 
     public Component create() {
-        return this.create(Collections.emptyMap());
+        if (this.constant != null) {
+            return this.constant;
+        }
+        return this.build(Collections.emptyList());
     }
 
-    public Component create(final Map<String, Component> replacements) {
+    public Component create(final List<? extends Component> replacements) {
+        if (this.constant != null) {
+            return this.constant;
+        }
+        return this.build(replacements);
+    }
+
+    private Component build(final List<? extends Component> replacements) {
         final TextComponent.Builder builder = Component.text();
         for (final TextElement element : this.elements) {
             builder.append(element.retrieve(replacements));
@@ -39,12 +60,8 @@ public final class Template implements ComponentLike {
         return builder.build();
     }
 
-    public Map<String, ArgumentElement> getKnownArgs() {
-        return this.knownArgs;
-    }
-
     public boolean hasTokens() {
-        return !this.knownArgs.isEmpty();
+        return this.hasTokens;
     }
 
     @Override
@@ -6,11 +6,11 @@ package io.github.nucleuspowered.nucleus.core.services.impl.messageprovider.temp
 
 import net.kyori.adventure.text.Component;
 
-import java.util.Map;
+import java.util.List;
 
 @FunctionalInterface
 public interface TextElement {
 
-    Component retrieve(Map<String, Component> args);
+    Component retrieve(List<? extends Component> args);
 
 }
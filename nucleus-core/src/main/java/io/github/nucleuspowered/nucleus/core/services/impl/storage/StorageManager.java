@@ -16,6 +16,7 @@ import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.m
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.modular.IWorldDataObject;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.modular.UserDataObject;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.modular.WorldDataObject;
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.migration.DataMigrationJob;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.persistence.FlatFileStorageRepositoryFactory;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.queryobjects.IUserQueryObject;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.queryobjects.IWorldQueryObject;
@@ -46,6 +47,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
@@ -56,7 +58,9 @@ public final class StorageManager implements IStorageManager {
     private final FlatFileStorageRepositoryFactory flatFileStorageRepositoryFactory;
     private final IConfigurateHelper configurateHelper;
     private final IConfigProvider configProvider;
-    private final IStorageService.SingleCached<IGeneralDataObject> generalService;
+    private final IDataVersioning dataVersioning;
+    private final Logger logger;
+    private final SingleCachedService<IGeneralDataObject> generalService;
     private final UserService userService;
     private final WorldService worldService;
 
@@ -72,6 +76,8 @@ public final class StorageManager implements IStorageManager {
         this.flatFileStorageRepositoryFactory = new FlatFileStorageRepositoryFactory(dataDirectory, logger);
         this.configurateHelper = configurateHelper;
         this.configProvider = configProvider;
+        this.dataVersioning = dataVersioning;
+        this.logger = logger;
         this.userService = new UserService(this, pluginContainer, dataVersioning);
         this.worldService = new WorldService(this, pluginContainer, dataVersioning);
         this.generalService = new SingleCachedService<>(
@@ -219,6 +225,41 @@ public final class StorageManager implements IStorageManager {
         return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
     }
 
+    @Override
+    public int saveIncrementally(final double share, final int max, final Set<UUID> usersToKeep) {
+        final int dirtyUsers = this.userService.getDirtyCount();
+        final int dirtyWorlds = this.worldService.getDirtyCount();
+        final int dirty = dirtyUsers + dirtyWorlds;
+        int saved = 0;
+        if (dirty > 0) {
+            final int toSave = Math.min(max, Math.max(1, (int) Math.ceil(dirty * share)));
+            // split between users and worlds by how much each has to save.
+            final int worldsToSave = (int) Math.ceil(toSave * (double) dirtyWorlds / dirty);
+            saved += this.worldService.saveOldestOnThread(worldsToSave);
+            saved += this.userService.saveOldestOnThread(toSave - saved);
+        }
+
+        if (share >= 1) {
+            // everything else is saved once per round.
+            this.generalService.ensureSaved();
+            this.additionalStorageServices.values().forEach(x -> x.getService().ensureSaved());
+        }
+
+        this.userService.evictCleanUnless(usersToKeep);
+        return saved;
+    }
+
+    @Override
+    public DataMigrationJob createMigrationJob() {
+        final DataMigrationJob job = new DataMigrationJob(this.logger)
+                .addKeyed("user data", this.getUserRepository(), this.userDataAccess, this.dataVersioning::migrate,
+                        this.userService::runUnlessCached)
+                .addKeyed("world data", this.getWorldRepository(), this.worldDataAccess, this.dataVersioning::migrate,
+                        this.worldService::runUnlessCached);
+        return job.addSingle("general data", this.getGeneralRepository(), this.generalDataAccess, this.dataVersioning::migrate,
+                this.generalService::runUnlessCached);
+    }
+
     @Override
     public void attachAll() {
         this.detachAll();
@@ -0,0 +1,474 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.services.impl.storage.migration;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.github.nucleuspowered.storage.dataaccess.IDataTranslator;
+import io.github.nucleuspowered.storage.dataobjects.IDataObject;
+import io.github.nucleuspowered.storage.exceptions.DataLoadException;
+import io.github.nucleuspowered.storage.exceptions.DataSaveException;
+import io.github.nucleuspowered.storage.persistence.IStorageRepository;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Brings every stored object up to the current data version in one go,
+ * rather than as each one is loaded, and drops empty values from the objects
+ * as they are rewritten.
+ *
+ * <p>Objects are migrated in parallel, and are only rewritten if they have
+ * changed. An object that is in use is left alone, as it was brought up to
+ * date when it was loaded and will be saved as usual.</p>
+ */
+public final class DataMigrationJob {
+
+    public static final int MAX_DEFAULT_THREADS = 4;
+
+    private static final Gson GSON = new Gson();
+
+    private final Logger logger;
+    private final List<Part> parts = new ArrayList<>();
+
+    public DataMigrationJob(final Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Adds a repository with an object for each key to the job.
+     *
+     * @param name The name to report the repository under
+     * @param repository The repository
+     * @param translator The translator for the objects in the repository
+     * @param upgrader Brings an object up to the current data version
+     * @param guard Controls access to each object while it is migrated
+     * @param <K> The type of key
+     * @param <D> The type of object
+     * @return This job, for chaining
+     */
+    public <K, D extends IDataObject> DataMigrationJob addKeyed(
+            final String name,
+            final IStorageRepository.Keyed<K, ?, JsonObject> repository,
+            final IDataTranslator<D, JsonObject> translator,
+            final Consumer<D> upgrader,
+            final KeyGuard<K> guard) {
+        this.parts.add(new KeyedPart<>(name, repository, translator, upgrader, guard));
+        return this;
+    }
+
+    /**
+     * Adds a repository with a single object to the job.
+     *
+     * @param name The name to report the repository under
+     * @param repository The repository
+     * @param translator The translator for the object in the repository
+     * @param upgrader Brings the object up to the current data version
+     * @param guard Controls access to the object while it is migrated
+     * @param <D> The type of object
+     * @return This job, for chaining
+     */
+    public <D extends IDataObject> DataMigrationJob addSingle(
+            final String name,
+            final IStorageRepository.Single<JsonObject> repository,
+            final IDataTranslator<D, JsonObject> translator,
+            final Consumer<D> upgrader,
+            final Guard guard) {
+        this.parts.add(new SinglePart<>(name, repository, translator, upgrader, guard));
+        return this;
+    }
+
+    /**
+     * Runs the job on the calling thread, migrating as many objects at once
+     * as there are processors, up to {@link #MAX_DEFAULT_THREADS}, so that a
+     * running server is not starved.
+     *
+     * @return The report
+     * @throws InterruptedException if the calling thread was interrupted
+     */
+    public Report run() throws InterruptedException {
+        return this.run(Math.min(MAX_DEFAULT_THREADS, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Runs the job on the calling thread, which waits for all the objects to
+     * be migrated.
+     *
+     * @param threads The number of objects to migrate at once
+     * @return The report
+     * @throws InterruptedException if the calling thread was interrupted
+     */
+    public Report run(final int threads) throws InterruptedException {
+        final long start = System.nanoTime();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (final Part part : this.parts) {
+                try {
+                    part.submit(executor, futures);
+                } catch (final DataLoadException e) {
+                    part.failed.incrementAndGet();
+                    this.logger.error("Could not find the objects to migrate in {}", part.name, e);
+                }
+            }
+
+            for (final Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (final ExecutionException e) {
+                    // each object reports its own errors.
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final List<PartReport> reports = new ArrayList<>();
+        for (final Part part : this.parts) {
+            reports.add(new PartReport(part));
+        }
+        return new Report(Collections.unmodifiableList(reports), System.nanoTime() - start);
+    }
+
+    /**
+     * Migrates and compacts a stored object.
+     *
+     * @return The object to store, or null if it has not changed
+     */
+    private static <D extends IDataObject> @Nullable JsonObject migrate(
+            final Part part,
+            final JsonObject stored,
+            final IDataTranslator<D, JsonObject> translator,
+            final Consumer<D> upgrader) throws DataLoadException, DataSaveException {
+        part.examined.incrementAndGet();
+        final D object = translator.fromDataAccessObject(stored);
+        upgrader.accept(object);
+        final JsonObject migrated = translator.toDataAccessObject(object);
+        DataMigrationJob.compact(migrated);
+        if (migrated.equals(stored)) {
+            return null;
+        }
+
+        part.rewritten.incrementAndGet();
+        part.bytesBefore.addAndGet(DataMigrationJob.size(stored));
+        part.bytesAfter.addAndGet(DataMigrationJob.size(migrated));
+        return migrated;
+    }
+
+    /**
+     * Removes nulls, empty arrays and empty objects from an object, including
+     * any objects that only contained them. Arrays are otherwise left as they
+     * are, as the position of their elements may matter.
+     *
+     * @param object The object
+     */
+    static void compact(final JsonObject object) {
+        final Iterator<Map.Entry<String, JsonElement>> iterator = object.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (DataMigrationJob.isEmptyAfterCompacting(iterator.next().getValue())) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static boolean isEmptyAfterCompacting(final JsonElement element) {
+        if (element.isJsonNull()) {
+            return true;
+        } else if (element.isJsonArray()) {
+            return element.getAsJsonArray().size() == 0;
+        } else if (element.isJsonObject()) {
+            DataMigrationJob.compact(element.getAsJsonObject());
+            return element.getAsJsonObject().entrySet().isEmpty();
+        }
+        return false;
+    }
+
+    private static long size(final JsonObject object) {
+        return GSON.toJson(object).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Controls access to a keyed object while it is migrated.
+     *
+     * @param <K> The type of key
+     */
+    @FunctionalInterface
+    public interface KeyGuard<K> {
+
+        /**
+         * A guard for when nothing else can be using the data, such as when
+         * the server is not running.
+         *
+         * @param <K> The type of key
+         * @return The guard
+         */
+        static <K> KeyGuard<K> none() {
+            return (key, action) -> {
+                action.call();
+                return true;
+            };
+        }
+
+        /**
+         * Runs the action, unless the object with the given key is in use.
+         *
+         * @param key The key
+         * @param action The action
+         * @return Whether the action was run
+         * @throws Exception if the action failed
+         */
+        boolean runUnlessInUse(K key, Callable<?> action) throws Exception;
+
+    }
+
+    /**
+     * Controls access to the object in a single object repository while it is
+     * migrated.
+     */
+    @FunctionalInterface
+    public interface Guard {
+
+        /**
+         * A guard for when nothing else can be using the data, such as when
+         * the server is not running.
+         *
+         * @return The guard
+         */
+        static Guard none() {
+            return action -> {
+                action.call();
+                return true;
+            };
+        }
+
+        /**
+         * Runs the action, unless the object is in use.
+         *
+         * @param action The action
+         * @return Whether the action was run
+         * @throws Exception if the action failed
+         */
+        boolean runUnlessInUse(Callable<?> action) throws Exception;
+
+    }
+
+    /**
+     * The outcome of a migration.
+     */
+    public static final class Report {
+
+        private final List<PartReport> parts;
+        private final long timeTakenNanos;
+
+        private Report(final List<PartReport> parts, final long timeTakenNanos) {
+            this.parts = parts;
+            this.timeTakenNanos = timeTakenNanos;
+        }
+
+        public List<PartReport> getParts() {
+            return this.parts;
+        }
+
+        public long getTimeTakenMillis() {
+            return this.timeTakenNanos / 1_000_000;
+        }
+
+        public long getRewritten() {
+            return this.parts.stream().mapToLong(PartReport::getRewritten).sum();
+        }
+
+        public long getFailed() {
+            return this.parts.stream().mapToLong(PartReport::getFailed).sum();
+        }
+
+        public long getBytesSaved() {
+            return this.parts.stream().mapToLong(PartReport::getBytesSaved).sum();
+        }
+    }
+
+    /**
+     * The outcome of migrating one repository.
+     */
+    public static final class PartReport {
+
+        private final String name;
+        private final long examined;
+        private final long rewritten;
+        private final long inUse;
+        private final long failed;
+        private final long bytesSaved;
+
+        private PartReport(final Part part) {
+            this.name = part.name;
+            this.examined = part.examined.get();
+            this.rewritten = part.rewritten.get();
+            this.inUse = part.inUse.get();
+            this.failed = part.failed.get();
+            this.bytesSaved = part.bytesBefore.get() - part.bytesAfter.get();
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public long getExamined() {
+            return this.examined;
+        }
+
+        public long getRewritten() {
+            return this.rewritten;
+        }
+
+        public long getInUse() {
+            return this.inUse;
+        }
+
+        public long getFailed() {
+            return this.failed;
+        }
+
+        /**
+         * Gets the difference in the size of the rewritten objects, as
+         * compact JSON. This may be negative if migrating added more than
+         * compacting removed.
+         *
+         * @return The bytes saved
+         */
+        public long getBytesSaved() {
+            return this.bytesSaved;
+        }
+    }
+
+    private abstract static class Part {
+
+        final String name;
+        final AtomicLong examined = new AtomicLong();
+        final AtomicLong rewritten = new AtomicLong();
+        final AtomicLong inUse = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong bytesBefore = new AtomicLong();
+        final AtomicLong bytesAfter = new AtomicLong();
+
+        Part(final String name) {
+            this.name = name;
+        }
+
+        abstract void submit(ExecutorService executor, List<Future<?>> futures) throws DataLoadException;
+    }
+
+    private final class KeyedPart<K, D extends IDataObject> extends Part {
+
+        private final IStorageRepository.Keyed<K, ?, JsonObject> repository;
+        private final IDataTranslator<D, JsonObject> translator;
+        private final Consumer<D> upgrader;
+        private final KeyGuard<K> guard;
+
+        private KeyedPart(
+                final String name,
+                final IStorageRepository.Keyed<K, ?, JsonObject> repository,
+                final IDataTranslator<D, JsonObject> translator,
+                final Consumer<D> upgrader,
+                final KeyGuard<K> guard) {
+            super(name);
+            this.repository = repository;
+            this.translator = translator;
+            this.upgrader = upgrader;
+            this.guard = guard;
+        }
+
+        @Override
+        void submit(final ExecutorService executor, final List<Future<?>> futures) throws DataLoadException {
+            for (final K key : this.repository.getAllKeys()) {
+                futures.add(executor.submit(() -> this.migrate(key)));
+            }
+        }
+
+        private void migrate(final K key) {
+            try {
+                final boolean migrated = this.guard.runUnlessInUse(key, () -> {
+                    final Optional<JsonObject> stored = this.repository.get(key);
+                    if (stored.isPresent()) {
+                        final JsonObject result = DataMigrationJob.migrate(this, stored.get(), this.translator, this.upgrader);
+                        if (result != null) {
+                            this.repository.save(key, result);
+                        }
+                    }
+                    return null;
+                });
+                if (!migrated) {
+                    this.examined.incrementAndGet();
+                    this.inUse.incrementAndGet();
+                }
+            } catch (final Exception e) {
+                this.failed.incrementAndGet();
+                DataMigrationJob.this.logger.error("Could not migrate {} in {}", key, this.name, e);
+            }
+        }
+    }
+
+    private final class SinglePart<D extends IDataObject> extends Part {
+
+        private final IStorageRepository.Single<JsonObject> repository;
+        private final IDataTranslator<D, JsonObject> translator;
+        private final Consumer<D> upgrader;
+        private final Guard guard;
+
+        private SinglePart(
+                final String name,
+                final IStorageRepository.Single<JsonObject> repository,
+                final IDataTranslator<D, JsonObject> translator,
+                final Consumer<D> upgrader,
+                final Guard guard) {
+            super(name);
+            this.repository = repository;
+            this.translator = translator;
+            this.upgrader = upgrader;
+            this.guard = guard;
+        }
+
+        @Override
+        void submit(final ExecutorService executor, final List<Future<?>> futures) {
+            futures.add(executor.submit(this::migrate));
+        }
+
+        private void migrate() {
+            try {
+                final boolean migrated = this.guard.runUnlessInUse(() -> {
+                    final Optional<JsonObject> stored = this.repository.get();
+                    if (stored.isPresent()) {
+                        final JsonObject result = DataMigrationJob.migrate(this, stored.get(), this.translator, this.upgrader);
+                        if (result != null) {
+                            this.repository.save(result);
+                        }
+                    }
+                    return null;
+                });
+                if (!migrated) {
+                    this.examined.incrementAndGet();
+                    this.inUse.incrementAndGet();
+                }
+            } catch (final Exception e) {
+                this.failed.incrementAndGet();
+                DataMigrationJob.this.logger.error("Could not migrate {}", this.name, e);
+            }
+        }
+    }
+
+}
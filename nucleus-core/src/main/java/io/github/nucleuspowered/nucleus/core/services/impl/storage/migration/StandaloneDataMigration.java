@@ -0,0 +1,109 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.services.impl.storage.migration;
+
+import io.github.nucleuspowered.nucleus.core.services.impl.dataversioning.DataVersioning;
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataaccess.IConfigurateBackedDataTranslator;
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.configurate.IConfigurateBackedDataObject;
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.modular.GeneralDataObject;
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.modular.UserDataObject;
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.persistence.FlatFileStorageRepositoryFactory;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.IDataVersioning;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.spongepowered.configurate.CommentedConfigurationNode;
+import org.spongepowered.configurate.ConfigurationOptions;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.Supplier;
+
+/**
+ * Runs a {@link DataMigrationJob} against the data directory of a server
+ * that is not running, so that the data can be migrated after an upgrade
+ * during maintenance.
+ *
+ * <p>Run this with the server's libraries on the classpath, passing the
+ * Nucleus data directory, which is the one containing <code>general.json</code>
+ * and <code>userdata</code>, and optionally the number of objects to migrate
+ * at once.</p>
+ *
+ * <p>World data is not migrated here, as the keys of the worlds can only be
+ * read while the game is running. Each world is still migrated when it is
+ * loaded.</p>
+ */
+public final class StandaloneDataMigration {
+
+    private StandaloneDataMigration() {
+        throw new AssertionError("Nope");
+    }
+
+    public static void main(final String[] args) throws InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: " + StandaloneDataMigration.class.getName() + " <nucleus data directory> [threads]");
+            System.exit(1);
+            return;
+        }
+
+        final Path dataDirectory = Paths.get(args[0]).toAbsolutePath();
+        if (!Files.isRegularFile(dataDirectory.resolve("general.json")) && !Files.isDirectory(dataDirectory.resolve("userdata"))) {
+            System.err.println(dataDirectory + " is not a Nucleus data directory.");
+            System.exit(1);
+            return;
+        }
+
+        final int threads;
+        try {
+            threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        } catch (final NumberFormatException e) {
+            System.err.println(args[1] + " is not a number of threads.");
+            System.exit(1);
+            return;
+        }
+
+        final Logger logger = LogManager.getLogger("Nucleus Data Migration");
+        final FlatFileStorageRepositoryFactory factory = new FlatFileStorageRepositoryFactory(() -> dataDirectory, logger);
+        final IDataVersioning dataVersioning = new DataVersioning();
+        // nothing is read from the data other than the versions, so no serialisers are needed.
+        final ConfigurationOptions options = ConfigurationOptions.defaults().implicitInitialization(false);
+
+        logger.info("Migrating the data in {} with {} threads.", dataDirectory, threads);
+        final DataMigrationJob.Report report = new DataMigrationJob(logger)
+                .addKeyed("user data", factory.userRepository(), StandaloneDataMigration.translator(options, UserDataObject::new),
+                        dataVersioning::migrate, DataMigrationJob.KeyGuard.none())
+                .addSingle("general data", factory.generalRepository(), StandaloneDataMigration.translator(options, GeneralDataObject::new),
+                        dataVersioning::migrate, DataMigrationJob.Guard.none())
+                .run(threads);
+
+        for (final DataMigrationJob.PartReport part : report.getParts()) {
+            logger.info("{}: {} examined, {} rewritten, {} failed, {} bytes saved.", part.getName(), part.getExamined(),
+                    part.getRewritten(), part.getFailed(), part.getBytesSaved());
+        }
+        logger.info("Migrated the data in {} ms. {} objects were rewritten, saving {} bytes.", report.getTimeTakenMillis(),
+                report.getRewritten(), report.getBytesSaved());
+        if (report.getFailed() > 0) {
+            logger.error("{} objects could not be migrated.", report.getFailed());
+            System.exit(2);
+        }
+    }
+
+    private static <D extends IConfigurateBackedDataObject> IConfigurateBackedDataTranslator<D> translator(
+            final ConfigurationOptions options,
+            final Supplier<D> constructor) {
+        return new IConfigurateBackedDataTranslator<D>() {
+            @Override public ConfigurationOptions getOptions() {
+                return options;
+            }
+
+            @Override public D createNew() {
+                final D d = constructor.get();
+                d.setBackingNode(CommentedConfigurationNode.root(options));
+                return d;
+            }
+        };
+    }
+
+}
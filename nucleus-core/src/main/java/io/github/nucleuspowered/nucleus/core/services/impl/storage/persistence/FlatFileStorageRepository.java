@@ -263,9 +263,14 @@ abstract class FlatFileStorageRepository implements IStorageRepository {
 
         @Override
         protected Set<ResourceKey> getAllKeysInternal() throws DataLoadException {
-            final FileWalker u = new FileWalker();
+            final Path basePath = this.BASE_PATH.get();
+            if (!Files.isDirectory(basePath)) {
+                return new HashSet<>();
+            }
+
+            final FileWalker u = new FileWalker(basePath);
             try {
-                Files.walkFileTree(this.BASE_PATH.get(), u);
+                Files.walkFileTree(basePath, u);
                 return u.keys;
             } catch (final IOException e) {
                 throw new DataLoadException("Could not walk the file tree", e);
@@ -280,10 +285,20 @@ abstract class FlatFileStorageRepository implements IStorageRepository {
         private static class FileWalker extends SimpleFileVisitor<Path> {
 
             private final Set<ResourceKey> keys = new HashSet<>();
+            private final Path basePath;
             @Nullable private String inDirectory;
 
+            private FileWalker(final Path basePath) {
+                this.basePath = basePath;
+            }
+
             @Override
             public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) throws IOException {
+                if (dir.equals(this.basePath)) {
+                    return super.preVisitDirectory(dir, attrs);
+                }
+
+                // the namespace directories, which contain a file for each world.
                 if (this.inDirectory == null) {
                     final FileVisitResult result = super.preVisitDirectory(dir, attrs);
                     if (result == FileVisitResult.CONTINUE) {
@@ -297,7 +312,9 @@ abstract class FlatFileStorageRepository implements IStorageRepository {
 
             @Override
             public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
-                this.inDirectory = null;
+                if (!dir.equals(this.basePath)) {
+                    this.inDirectory = null;
+                }
                 return super.postVisitDirectory(dir, exc);
             }
 
@@ -305,9 +322,9 @@ abstract class FlatFileStorageRepository implements IStorageRepository {
             // each type of file.
             @Override
             public FileVisitResult visitFile(final Path file, final BasicFileAttributes attr) {
-                if (attr.isRegularFile()) {
-                    if (file.endsWith(".json")) {
-                        final String f = file.getFileName().toString();
+                if (attr.isRegularFile() && this.inDirectory != null) {
+                    final String f = file.getFileName().toString();
+                    if (f.endsWith(".json")) {
                         try {
                             this.keys.add(ResourceKey.of(this.inDirectory, f.replace(".json", "")));
                         } catch (final Exception e) {
@@ -334,9 +351,14 @@ abstract class FlatFileStorageRepository implements IStorageRepository {
 
         @Override
         protected Set<UUID> getAllKeysInternal() throws DataLoadException {
-            final UUIDFileWalker u = new UUIDFileWalker();
+            final Path basePath = this.BASE_PATH.get();
+            if (!Files.isDirectory(basePath)) {
+                return new HashSet<>();
+            }
+
+            final UUIDFileWalker u = new UUIDFileWalker(basePath);
             try {
-                Files.walkFileTree(this.BASE_PATH.get(), u);
+                Files.walkFileTree(basePath, u);
                 return u.uuidSet;
             } catch (final IOException e) {
                 throw new DataLoadException("Could not walk the file tree", e);
@@ -351,10 +373,16 @@ abstract class FlatFileStorageRepository implements IStorageRepository {
         private static class UUIDFileWalker extends SimpleFileVisitor<Path> {
 
             private final Set<UUID> uuidSet = new HashSet<>();
+            private final Path basePath;
+
+            private UUIDFileWalker(final Path basePath) {
+                this.basePath = basePath;
+            }
 
             @Override
             public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) throws IOException {
-                if (dir.getFileName().toString().length() == 2) {
+                // the base directory, and the directories named after the first two characters of the UUIDs in them.
+                if (dir.equals(this.basePath) || dir.getParent().equals(this.basePath) && dir.getFileName().toString().length() == 2) {
                     return super.preVisitDirectory(dir, attrs);
                 }
 
@@ -366,9 +394,9 @@ abstract class FlatFileStorageRepository implements IStorageRepository {
             @Override
             public FileVisitResult visitFile(final Path file, final BasicFileAttributes attr) {
                 if (attr.isRegularFile()) {
-                    if (file.endsWith(".json")) {
-                        final String f = file.getFileName().toString();
-                        if (f.length() == 41 && f.startsWith(file.getParent().toString().toLowerCase())) {
+                    final String f = file.getFileName().toString();
+                    if (f.endsWith(".json")) {
+                        if (f.length() == 41 && f.startsWith(file.getParent().getFileName().toString().toLowerCase())) {
                             try {
                                 this.uuidSet.add(UUID.fromString(f.substring(0, 36)));
                             } catch (final Exception e) {
@@ -14,6 +14,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.spongepowered.plugin.PluginContainer;
 
 import java.util.Optional;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -25,7 +26,9 @@ public class SingleCachedService<O extends IDataObject> implements IStorageServi
     private final Supplier<IDataTranslator<O, JsonObject>> dataAccessSupplier;
     private final PluginContainer pluginContainer;
     private final Consumer<O> dataMigrator;
-    private O cached = null;
+    // held while the object is read from or written to the repository.
+    private final Object dataLock = new Object();
+    private volatile O cached = null;
 
     public SingleCachedService(
             final Supplier<IStorageRepository.Single<JsonObject>> repositorySupplier,
@@ -97,14 +100,35 @@ public class SingleCachedService<O extends IDataObject> implements IStorageServi
     }
 
     private Optional<O> getFromRepo() throws Exception {
-        final Optional<JsonObject> gdo = this.repositorySupplier.get().get();
-        if (gdo.isPresent()) {
-            final O r = this.dataAccessSupplier.get().fromDataAccessObject(gdo.get());
-            this.dataMigrator.accept(r);
-            this.cached = r;
-            return Optional.of(r);
+        synchronized (this.dataLock) {
+            final Optional<JsonObject> gdo = this.repositorySupplier.get().get();
+            if (gdo.isPresent()) {
+                final O r = this.dataAccessSupplier.get().fromDataAccessObject(gdo.get());
+                this.dataMigrator.accept(r);
+                this.cached = r;
+                return Optional.of(r);
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Runs an action against the stored object, unless it has been loaded.
+     * The object can't be loaded or saved through this service while the
+     * action runs.
+     *
+     * @param action The action
+     * @return Whether the action was run
+     * @throws Exception if the action failed
+     */
+    public boolean runUnlessCached(final Callable<?> action) throws Exception {
+        synchronized (this.dataLock) {
+            if (this.cached != null) {
+                return false;
+            }
+            action.call();
+            return true;
         }
-        return Optional.empty();
     }
 
     @Override
@@ -121,8 +145,10 @@ public class SingleCachedService<O extends IDataObject> implements IStorageServi
     @Override
     public CompletableFuture<Void> save(@NonNull final O value) {
         return ServicesUtil.run(() -> {
-            this.repositorySupplier.get().save(this.dataAccessSupplier.get().toDataAccessObject(value));
-            this.cached = value;
+            synchronized (this.dataLock) {
+                this.repositorySupplier.get().save(this.dataAccessSupplier.get().toDataAccessObject(value));
+                this.cached = value;
+            }
             return null;
         }, this.pluginContainer);
     }
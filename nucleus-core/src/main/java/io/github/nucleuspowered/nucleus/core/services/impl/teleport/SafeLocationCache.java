@@ -0,0 +1,262 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.services.impl.teleport;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.github.nucleuspowered.nucleus.api.teleport.data.TeleportScanner;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.ResourceKey;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.util.Tristate;
+import org.spongepowered.api.world.server.ServerLocation;
+import org.spongepowered.api.world.server.ServerWorld;
+import org.spongepowered.api.world.teleport.TeleportHelperFilter;
+import org.spongepowered.math.vector.Vector3d;
+import org.spongepowered.math.vector.Vector3i;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded cache of the results of safe location scans.
+ *
+ * <p>Results are re-checked against their filters before they are handed out,
+ * so a hit costs a few block lookups rather than a full scan. Each entry also
+ * records the volume it covers, indexed by chunk, so that block changes within
+ * it drop the entry.</p>
+ */
+final class SafeLocationCache {
+
+    private final Cache<Key, Entry> cache;
+    private final Map<ResourceKey, Map<Long, Set<Key>>> chunkIndex = new ConcurrentHashMap<>();
+
+    SafeLocationCache(final int size) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(10, TimeUnit.MINUTES)
+                .executor(Runnable::run)
+                .removalListener((Key key, Entry entry, RemovalCause cause) -> {
+                    if (key != null && entry != null) {
+                        this.unindex(key, entry);
+                    }
+                })
+                .build();
+    }
+
+    @Nullable
+    ServerLocation get(
+            final ServerWorld world,
+            final Vector3i position,
+            final TeleportScanner scanner,
+            final int width,
+            final int height,
+            final int floorDistance,
+            final TeleportHelperFilter filter,
+            final TeleportHelperFilter[] filters) {
+        final Key key = new Key(world.key(), position, scanner, width, height, filter, filters);
+        final Entry entry = this.cache.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+
+        final Vector3i blockPosition = entry.resultBlock;
+        if (SafeLocationCache.isStillSafe(world, blockPosition, floorDistance, filter)) {
+            boolean safe = true;
+            for (final TeleportHelperFilter additional : filters) {
+                if (!SafeLocationCache.isStillSafe(world, blockPosition, floorDistance, additional)) {
+                    safe = false;
+                    break;
+                }
+            }
+            if (safe) {
+                // the world may have been reloaded since this was cached.
+                return ServerLocation.of(world, entry.result);
+            }
+        }
+
+        this.cache.invalidate(key);
+        return null;
+    }
+
+    void put(
+            final ServerWorld world,
+            final Vector3i position,
+            final TeleportScanner scanner,
+            final int width,
+            final int height,
+            final TeleportHelperFilter filter,
+            final TeleportHelperFilter[] filters,
+            final ServerLocation result) {
+        final Key key = new Key(world.key(), position, scanner, width, height, filter, filters);
+        final Vector3i resultPosition = result.blockPosition();
+        final Entry entry = new Entry(
+                result.position(),
+                resultPosition,
+                position.min(resultPosition).sub(width, height + 1, width),
+                position.max(resultPosition).add(width, height + 1, width));
+        // replacing an entry unindexes the old one straight away, so this must be indexed afterwards.
+        this.cache.put(key, entry);
+        final Map<Long, Set<Key>> index = this.chunkIndex.computeIfAbsent(key.world, x -> new ConcurrentHashMap<>());
+        for (int cx = entry.min.x() >> 4; cx <= entry.max.x() >> 4; cx++) {
+            for (int cz = entry.min.z() >> 4; cz <= entry.max.z() >> 4; cz++) {
+                index.computeIfAbsent(SafeLocationCache.chunkKey(cx, cz), x -> ConcurrentHashMap.newKeySet()).add(key);
+            }
+        }
+    }
+
+    /**
+     * Drops any cached results whose volume contains the given block.
+     *
+     * @param world The world the block is in
+     * @param position The position of the block
+     */
+    void blockChanged(final ResourceKey world, final Vector3i position) {
+        final Map<Long, Set<Key>> index = this.chunkIndex.get(world);
+        if (index == null) {
+            return;
+        }
+
+        final Set<Key> keys = index.get(SafeLocationCache.chunkKey(position.x() >> 4, position.z() >> 4));
+        if (keys == null) {
+            return;
+        }
+
+        for (final Key key : keys) {
+            final Entry entry = this.cache.getIfPresent(key);
+            if (entry == null || entry.contains(position)) {
+                this.cache.invalidate(key);
+                keys.remove(key);
+            }
+        }
+    }
+
+    void clear() {
+        this.cache.invalidateAll();
+        this.chunkIndex.clear();
+    }
+
+    private void unindex(final Key key, final Entry entry) {
+        final Map<Long, Set<Key>> index = this.chunkIndex.get(key.world);
+        if (index == null) {
+            return;
+        }
+
+        for (int cx = entry.min.x() >> 4; cx <= entry.max.x() >> 4; cx++) {
+            for (int cz = entry.min.z() >> 4; cz <= entry.max.z() >> 4; cz++) {
+                final long chunkKey = SafeLocationCache.chunkKey(cx, cz);
+                final Set<Key> keys = index.get(chunkKey);
+                if (keys != null) {
+                    keys.remove(key);
+                    if (keys.isEmpty()) {
+                        index.remove(chunkKey, keys);
+                    }
+                }
+            }
+        }
+    }
+
+    // Mirrors the checks the Sponge teleport helper makes for a single location.
+    private static boolean isStillSafe(final ServerWorld world, final Vector3i position, final int floorDistance,
+            final TeleportHelperFilter filter) {
+        final Tristate valid = filter.isValidLocation(world, position);
+        if (valid != Tristate.UNDEFINED) {
+            return valid.asBoolean();
+        }
+
+        if (!filter.isSafeBodyMaterial(world.block(position)) || !filter.isSafeBodyMaterial(world.block(position.add(0, 1, 0)))) {
+            return false;
+        }
+
+        for (int i = 1; i <= floorDistance; i++) {
+            final BlockState state = world.block(position.sub(0, i, 0));
+            if (filter.isSafeFloorMaterial(state)) {
+                return true;
+            }
+            if (!filter.isSafeBodyMaterial(state)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static long chunkKey(final int x, final int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    private static final class Entry {
+
+        private final Vector3d result;
+        private final Vector3i resultBlock;
+        private final Vector3i min;
+        private final Vector3i max;
+
+        private Entry(final Vector3d result, final Vector3i resultBlock, final Vector3i min, final Vector3i max) {
+            this.result = result;
+            this.resultBlock = resultBlock;
+            this.min = min;
+            this.max = max;
+        }
+
+        private boolean contains(final Vector3i position) {
+            return position.x() >= this.min.x() && position.x() <= this.max.x()
+                    && position.y() >= this.min.y() && position.y() <= this.max.y()
+                    && position.z() >= this.min.z() && position.z() <= this.max.z();
+        }
+    }
+
+    private static final class Key {
+
+        private final ResourceKey world;
+        private final Vector3i position;
+        private final TeleportScanner scanner;
+        private final int width;
+        private final int height;
+        private final TeleportHelperFilter filter;
+        private final TeleportHelperFilter[] filters;
+        private final int hashCode;
+
+        private Key(final ResourceKey world, final Vector3i position, final TeleportScanner scanner, final int width, final int height,
+                final TeleportHelperFilter filter, final TeleportHelperFilter[] filters) {
+            this.world = world;
+            this.position = position;
+            this.scanner = scanner;
+            this.width = width;
+            this.height = height;
+            this.filter = filter;
+            this.filters = filters.clone();
+            this.hashCode = Objects.hash(world, position, scanner, width, height, filter, Arrays.hashCode(filters));
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || this.getClass() != o.getClass()) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return this.width == key.width
+                    && this.height == key.height
+                    && this.world.equals(key.world)
+                    && this.position.equals(key.position)
+                    && this.scanner.equals(key.scanner)
+                    && this.filter.equals(key.filter)
+                    && Arrays.equals(this.filters, key.filters);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+
+}
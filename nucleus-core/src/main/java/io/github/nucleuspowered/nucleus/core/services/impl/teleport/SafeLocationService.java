@@ -16,6 +16,8 @@ import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.INucleusLocationService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
 import net.kyori.adventure.audience.Audience;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.ResourceKey;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.data.Keys;
 import org.spongepowered.api.entity.living.player.gamemode.GameModes;
@@ -29,6 +31,7 @@ import org.spongepowered.api.world.teleport.TeleportHelper;
 import org.spongepowered.api.world.teleport.TeleportHelperFilter;
 import org.spongepowered.api.world.teleport.TeleportHelperFilters;
 import org.spongepowered.math.vector.Vector3d;
+import org.spongepowered.math.vector.Vector3i;
 
 import java.lang.ref.WeakReference;
 import java.util.Optional;
@@ -38,6 +41,7 @@ public class SafeLocationService implements INucleusLocationService, IReloadable
 
     private static final BorderDisableSession DUMMY = new BorderDisableSession() {};
     private SafeTeleportConfig config = new SafeTeleportConfig();
+    @Nullable private SafeLocationCache cache = null;
 
     @Inject
     public SafeLocationService(final IReloadableService reloadable) {
@@ -136,15 +140,40 @@ public class SafeLocationService implements INucleusLocationService, IReloadable
             final TeleportScanner scanner,
             final TeleportHelperFilter filter,
             final TeleportHelperFilter... filters) {
-        return scanner.scanFrom(
-                location.world(),
-                location.blockPosition(),
-                this.config.getHeight(),
-                this.config.getWidth(),
+        final SafeLocationCache safeLocationCache = this.cache;
+        final ServerWorld world = location.world();
+        final Vector3i position = location.blockPosition();
+        final int height = this.config.getHeight();
+        final int width = this.config.getWidth();
+        if (safeLocationCache != null) {
+            final ServerLocation cached =
+                    safeLocationCache.get(world, position, scanner, width, height, TeleportHelper.DEFAULT_FLOOR_CHECK_DISTANCE, filter, filters);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+
+        final Optional<ServerLocation> result = scanner.scanFrom(
+                world,
+                position,
+                height,
+                width,
                 TeleportHelper.DEFAULT_FLOOR_CHECK_DISTANCE,
                 filter,
                 filters
         );
+        if (safeLocationCache != null) {
+            result.ifPresent(x -> safeLocationCache.put(world, position, scanner, width, height, filter, filters, x));
+        }
+        return result;
+    }
+
+    @Override
+    public void onBlockChange(final ResourceKey world, final Vector3i position) {
+        final SafeLocationCache safeLocationCache = this.cache;
+        if (safeLocationCache != null) {
+            safeLocationCache.blockChanged(world, position);
+        }
     }
 
     @Override
@@ -163,6 +192,10 @@ public class SafeLocationService implements INucleusLocationService, IReloadable
     @Override
     public void onReload(final INucleusServiceCollection serviceCollection) {
         this.config = serviceCollection.configProvider().getCoreConfig().getSafeTeleportConfig();
+        if (this.cache != null) {
+            this.cache.clear();
+        }
+        this.cache = this.config.getResultCacheSize() > 0 ? new SafeLocationCache(this.config.getResultCacheSize()) : null;
     }
 
     @Override
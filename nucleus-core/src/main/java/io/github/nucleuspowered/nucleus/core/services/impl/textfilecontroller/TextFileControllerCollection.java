@@ -7,6 +7,7 @@ package io.github.nucleuspowered.nucleus.core.services.impl.textfilecontroller;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.github.nucleuspowered.nucleus.core.io.TextFileController;
+import io.github.nucleuspowered.nucleus.core.io.TextFileWatcher;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.ITextFileControllerCollection;
@@ -20,9 +21,11 @@ import java.util.Optional;
 public class TextFileControllerCollection implements ITextFileControllerCollection, IReloadableService.Reloadable {
 
     private final Map<String, TextFileController> textFileControllers = new HashMap<>();
+    private final TextFileWatcher watcher;
 
     @Inject
     public TextFileControllerCollection(final INucleusServiceCollection serviceCollection) {
+        this.watcher = new TextFileWatcher(serviceCollection.logger());
         serviceCollection.reloadableService().registerReloadable(this);
     }
 
@@ -31,11 +34,26 @@ public class TextFileControllerCollection implements ITextFileControllerCollecti
     }
 
     @Override public void register(final String key, final TextFileController controller) {
-        this.textFileControllers.put(key, controller);
+        final TextFileController previous = this.textFileControllers.put(key, controller);
+        if (previous != null) {
+            this.watcher.unwatch(previous);
+        }
+        this.watcher.watch(controller);
     }
 
     @Override public void remove(final String key) {
-        this.textFileControllers.remove(key);
+        final TextFileController controller = this.textFileControllers.remove(key);
+        if (controller != null) {
+            this.watcher.unwatch(controller);
+        }
+    }
+
+    @Override public void watch(final TextFileController controller) {
+        this.watcher.watch(controller);
+    }
+
+    @Override public void unwatch(final TextFileController controller) {
+        this.watcher.unwatch(controller);
     }
 
     @Override public void onReload(final INucleusServiceCollection serviceCollection) {
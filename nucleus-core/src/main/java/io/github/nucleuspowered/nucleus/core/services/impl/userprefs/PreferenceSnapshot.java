@@ -0,0 +1,66 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.services.impl.userprefs;
+
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.modular.IUserDataObject;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * An immutable copy of a player's preferences, keyed by the identity of the
+ * {@link PreferenceKeyImpl}, so that reading a preference does not need to
+ * go to storage or deserialise anything.
+ */
+final class PreferenceSnapshot {
+
+    private static final Object UNSET = new Object();
+
+    private final Map<PreferenceKeyImpl<?>, Object> values;
+
+    static PreferenceSnapshot of(final IUserDataObject dataObject, final Collection<PreferenceKeyImpl<?>> keys) {
+        final Map<PreferenceKeyImpl<?>, Object> values = new IdentityHashMap<>(keys.size());
+        for (final PreferenceKeyImpl<?> key : keys) {
+            final Object value = dataObject.getOrDefault(key);
+            values.put(key, value == null ? UNSET : value);
+        }
+        return new PreferenceSnapshot(values);
+    }
+
+    private PreferenceSnapshot(final Map<PreferenceKeyImpl<?>, Object> values) {
+        this.values = values;
+    }
+
+    /**
+     * Whether this snapshot holds a value (or knows there is no value) for the
+     * given key.
+     *
+     * @param key The key
+     * @return Whether the snapshot can answer for the key
+     */
+    boolean contains(final PreferenceKeyImpl<?> key) {
+        return this.values.containsKey(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable <T> T get(final PreferenceKeyImpl<T> key) {
+        final Object value = this.values.get(key);
+        if (value == null) {
+            return key.getDefaultValue().orElse(null);
+        }
+        return value == UNSET ? null : (T) value;
+    }
+
+    <T> PreferenceSnapshot with(final PreferenceKeyImpl<T> key, @Nullable final T value) {
+        final Map<PreferenceKeyImpl<?>, Object> values = new IdentityHashMap<>(this.values);
+        // mirror what storage would give back once the value is removed.
+        final Object toStore = value == null ? key.getDefaultValue().orElse(null) : value;
+        values.put(key, toStore == null ? UNSET : toStore);
+        return new PreferenceSnapshot(values);
+    }
+
+}
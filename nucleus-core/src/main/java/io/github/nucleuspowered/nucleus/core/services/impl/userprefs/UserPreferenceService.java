@@ -4,10 +4,13 @@
  */
 package io.github.nucleuspowered.nucleus.core.services.impl.userprefs;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.github.nucleuspowered.nucleus.api.core.NucleusUserPreferenceService;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.modular.IUserDataObject;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IUserPreferenceService;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.api.ResourceKey;
@@ -18,12 +21,17 @@ import org.spongepowered.api.registry.RegistryRoots;
 import org.spongepowered.api.registry.RegistryType;
 import org.spongepowered.api.registry.RegistryTypes;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Singleton
 public class UserPreferenceService implements IUserPreferenceService {
@@ -33,6 +41,15 @@ public class UserPreferenceService implements IUserPreferenceService {
     private final NucleusKeysProvider provider;
     private final INucleusServiceCollection serviceCollection;
 
+    // Players who are online have their preferences held here, so that reading them never touches storage.
+    private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, PreferenceSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    // Snapshots created during authentication, waiting for the player to join.
+    private final Cache<UUID, PreferenceSnapshot> pendingSnapshots = Caffeine.newBuilder()
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .build();
+
     @Inject
     public UserPreferenceService(final INucleusServiceCollection serviceCollection) {
         this.serviceCollection = serviceCollection;
@@ -57,6 +74,9 @@ public class UserPreferenceService implements IUserPreferenceService {
 
     @Override
     public <T> void set(final UUID uuid, final PreferenceKeyImpl<T> key, @Nullable final T value) {
+        this.snapshots.computeIfPresent(uuid, (u, snapshot) -> snapshot.with(key, value));
+        // the player may be between logging in and joining, when their snapshot is not yet in use.
+        this.pendingSnapshots.asMap().computeIfPresent(uuid, (u, snapshot) -> snapshot.with(key, value));
         this.serviceCollection
                 .storageManager()
                 .getUserService()
@@ -79,15 +99,12 @@ public class UserPreferenceService implements IUserPreferenceService {
 
     @Override
     public <T> Optional<T> get(final UUID uuid, final NucleusUserPreferenceService.PreferenceKey<T> key) {
-        if (!this.registryType.get().findValueKey(key).isPresent()) {
-            throw new IllegalArgumentException("Key is not registered.");
+        final PreferenceSnapshot snapshot = this.snapshots.get(uuid);
+        if (snapshot != null && key instanceof PreferenceKeyImpl && snapshot.contains((PreferenceKeyImpl<T>) key)) {
+            return Optional.ofNullable(snapshot.get((PreferenceKeyImpl<T>) key));
         }
 
-        if (!(key instanceof PreferenceKeyImpl)) {
-            throw new IllegalArgumentException("Custom preference keys are not supported.");
-        }
-
-        final PreferenceKeyImpl<T> prefKey = (PreferenceKeyImpl<T>) key;
+        final PreferenceKeyImpl<T> prefKey = this.checkKey(key);
         Optional<T> ot = Optional.empty();
         try {
             ot = this.serviceCollection
@@ -102,6 +119,73 @@ public class UserPreferenceService implements IUserPreferenceService {
         return ot;
     }
 
+    @Override
+    public <T> CompletableFuture<Optional<T>> getAsync(final UUID uuid, final NucleusUserPreferenceService.PreferenceKey<T> key) {
+        final PreferenceSnapshot snapshot = this.snapshots.get(uuid);
+        if (snapshot != null && key instanceof PreferenceKeyImpl && snapshot.contains((PreferenceKeyImpl<T>) key)) {
+            return CompletableFuture.completedFuture(Optional.ofNullable(snapshot.get((PreferenceKeyImpl<T>) key)));
+        }
+
+        final PreferenceKeyImpl<T> prefKey = this.checkKey(key);
+        return this.serviceCollection
+                .storageManager()
+                .getUser(uuid)
+                .thenApply(x -> x.map(y -> y.getOrDefault(prefKey)));
+    }
+
+    @Override
+    public void createSnapshot(final UUID uuid, final IUserDataObject dataObject) {
+        this.pendingSnapshots.put(uuid, PreferenceSnapshot.of(dataObject, this.getRegisteredKeys()));
+    }
+
+    @Override
+    public void loadSnapshot(final UUID uuid) {
+        this.online.add(uuid);
+        final PreferenceSnapshot pending = this.pendingSnapshots.getIfPresent(uuid);
+        if (pending != null) {
+            this.pendingSnapshots.invalidate(uuid);
+            this.snapshots.put(uuid, pending);
+            return;
+        }
+
+        this.serviceCollection.storageManager().getUser(uuid).thenAccept(x -> x.ifPresent(dataObject -> {
+            final PreferenceSnapshot snapshot = PreferenceSnapshot.of(dataObject, this.getRegisteredKeys());
+            if (this.online.contains(uuid)) {
+                // don't replace anything that has been set in the meantime.
+                this.snapshots.putIfAbsent(uuid, snapshot);
+            }
+        }));
+    }
+
+    @Override
+    public void removeSnapshot(final UUID uuid) {
+        this.online.remove(uuid);
+        this.snapshots.remove(uuid);
+        this.pendingSnapshots.invalidate(uuid);
+    }
+
+    private <T> PreferenceKeyImpl<T> checkKey(final NucleusUserPreferenceService.PreferenceKey<T> key) {
+        if (!this.registryType.get().findValueKey(key).isPresent()) {
+            throw new IllegalArgumentException("Key is not registered.");
+        }
+
+        if (!(key instanceof PreferenceKeyImpl)) {
+            throw new IllegalArgumentException("Custom preference keys are not supported.");
+        }
+
+        return (PreferenceKeyImpl<T>) key;
+    }
+
+    private List<PreferenceKeyImpl<?>> getRegisteredKeys() {
+        final List<PreferenceKeyImpl<?>> keys = new ArrayList<>();
+        this.registryType.get().stream().forEach(key -> {
+            if (key instanceof PreferenceKeyImpl) {
+                keys.add((PreferenceKeyImpl<?>) key);
+            }
+        });
+        return keys;
+    }
+
     @Override
     public <T> T getUnwrapped(final UUID uuid, final NucleusUserPreferenceService.PreferenceKey<T> key) {
         return this.get(uuid, key).orElse(null);
@@ -127,6 +211,11 @@ public class UserPreferenceService implements IUserPreferenceService {
         return this.get(user, key);
     }
 
+    @Override
+    public <T> CompletableFuture<Optional<T>> getPreferenceForAsync(final UUID user, final NucleusUserPreferenceService.PreferenceKey<T> key) {
+        return this.getAsync(user, key);
+    }
+
     @Override
     public <T> void setPreferenceFor(final UUID user, final NucleusUserPreferenceService.PreferenceKey<T> key, final T value) {
         this.set(user, key, value);
@@ -4,8 +4,6 @@
  */
 package io.github.nucleuspowered.nucleus.core.services.impl.warmup;
 
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.github.nucleuspowered.nucleus.core.core.config.WarmupConfig;
@@ -13,36 +11,45 @@ import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IMessageProviderService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IWarmupService;
+import org.apache.logging.log4j.Logger;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.entity.living.player.Player;
-import org.spongepowered.api.scheduler.ScheduledTask;
 import org.spongepowered.api.scheduler.Task;
+import org.spongepowered.api.util.Ticks;
 import org.spongepowered.plugin.PluginContainer;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
-import java.util.function.Consumer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Warmups are held in a single {@link WarmupWheel}, which is advanced by one
+ * repeating main thread task, rather than scheduling a task per warmup.
+ */
 @Singleton
 public class WarmupService implements IWarmupService, IReloadableService.Reloadable {
 
-    private final Object lockingObject = new Object();
+    private static final long MILLIS_PER_TICK = 50;
 
     private final PluginContainer pluginContainer;
     private final IMessageProviderService messageProviderService;
+    private final Logger logger;
+    private final WarmupWheel wheel = new WarmupWheel();
+    private final AtomicBoolean tickerStarted = new AtomicBoolean(false);
     private WarmupConfig warmupConfig = new WarmupConfig();
 
-    // player to task
-    private final BiMap<UUID, UUID> tasks = HashBiMap.create();
-
-    // task to warmup
-    private final BiMap<UUID, WarmupTask> uuidToWarmup = HashBiMap.create();
+    // player to active warmup
+    private final Map<UUID, WarmupWheel.Entry> warmups = new ConcurrentHashMap<>();
 
     @Inject
-    public WarmupService(final PluginContainer pluginContainer, final IMessageProviderService messageProviderService, final IReloadableService reloadableService) {
+    public WarmupService(final PluginContainer pluginContainer, final IMessageProviderService messageProviderService,
+            final IReloadableService reloadableService, final Logger logger) {
         this.pluginContainer = pluginContainer;
         this.messageProviderService = messageProviderService;
+        this.logger = logger;
         reloadableService.registerReloadable(this);
     }
 
@@ -52,80 +59,77 @@ public class WarmupService implements IWarmupService, IReloadableService.Reloada
     }
 
     @Override public void executeAfter(final Player target, final Duration duration, final WarmupTask runnable, final boolean sendMessage) {
-         synchronized (this.lockingObject) {
-            this.cancelInternal(target);
-
-            if (sendMessage) {
-                this.messageProviderService.sendMessageTo(target, "warmup.start",
-                        this.messageProviderService.getTimeString(target.locale(), duration));
-                if (this.warmupConfig.isOnCommand() && this.warmupConfig.isOnMove()) {
-                    this.messageProviderService.sendMessageTo(target, "warmup.both");
-                } else if (this.warmupConfig.isOnCommand()) {
-                    this.messageProviderService.sendMessageTo(target, "warmup.onCommand");
-                } else if (this.warmupConfig.isOnMove()) {
-                    this.messageProviderService.sendMessageTo(target, "warmup.onMove");
-                }
+        this.cancelInternal(target.uniqueId());
+
+        if (sendMessage) {
+            this.messageProviderService.sendMessageTo(target, "warmup.start",
+                    this.messageProviderService.getTimeString(target.locale(), duration));
+            if (this.warmupConfig.isOnCommand() && this.warmupConfig.isOnMove()) {
+                this.messageProviderService.sendMessageTo(target, "warmup.both");
+            } else if (this.warmupConfig.isOnCommand()) {
+                this.messageProviderService.sendMessageTo(target, "warmup.onCommand");
+            } else if (this.warmupConfig.isOnMove()) {
+                this.messageProviderService.sendMessageTo(target, "warmup.onMove");
             }
+        }
 
-            // build the task
-            final UUID playerTarget = target.uniqueId();
-            final Consumer<ScheduledTask> taskToSubmit = (ScheduledTask task) -> {
-                this.tasks.remove(playerTarget);
-                this.uuidToWarmup.remove(task.uniqueId());
-
-                if (Sponge.server().player(playerTarget).isPresent()) {
-                    // Only run if the player is still on the server.
-                    runnable.run();
-                }
-            };
-
-            final Task t = Task.builder()
-                    .delay(duration.toMillis(), TimeUnit.MILLISECONDS)
-                    .name("Nucleus Warmup task: " + playerTarget.toString())
-                    .execute(taskToSubmit)
-                    .plugin(this.pluginContainer)
-                    .build();
-            final ScheduledTask scheduledTask = Sponge.server().scheduler().submit(t);
-            this.tasks.put(playerTarget, scheduledTask.uniqueId());
-            this.uuidToWarmup.put(scheduledTask.uniqueId(), runnable);
+        final long ticks = Math.max(1, (duration.toMillis() + MILLIS_PER_TICK - 1) / MILLIS_PER_TICK);
+        final WarmupWheel.Entry entry = new WarmupWheel.Entry(target.uniqueId(), runnable, ticks);
+        final WarmupWheel.Entry previous = this.warmups.put(target.uniqueId(), entry);
+        if (previous != null) {
+            // another warmup was started concurrently, this one wins.
+            previous.cancelled = true;
+            previous.task.onCancel();
         }
+        this.wheel.schedule(entry);
+        this.startTickerIfRequired();
     }
 
     @Override public boolean cancel(final Player player) {
-        synchronized (this.lockingObject) {
-            return this.cancelInternal(player);
+        return this.cancelInternal(player.uniqueId());
+    }
+
+    private boolean cancelInternal(final UUID player) {
+        final WarmupWheel.Entry entry = this.warmups.remove(player);
+        if (entry != null) {
+            entry.cancelled = true;
+            entry.task.onCancel();
+            return true;
         }
+        return false;
     }
 
-    private boolean cancelInternal(final Player player) {
-        final UUID taskUUID = this.tasks.get(player.uniqueId());
-        if (taskUUID != null) {
-            Sponge.server().scheduler().findTask(taskUUID).ifPresent(ScheduledTask::cancel);
-            final WarmupTask task = this.uuidToWarmup.get(taskUUID);
-            if (task != null) {
-                // if we get here, it was never cancelled.
-                task.onCancel();
-            }
+    @Override public boolean awaitingExecution(final Player player) {
+        return this.warmups.containsKey(player.uniqueId());
+    }
 
-            this.uuidToWarmup.remove(taskUUID);
+    private void startTickerIfRequired() {
+        if (this.tickerStarted.compareAndSet(false, true)) {
+            Sponge.server().scheduler().submit(
+                    Task.builder()
+                            .delay(Ticks.of(1))
+                            .interval(Ticks.of(1))
+                            .name("Nucleus Warmup task")
+                            .execute(this::tick)
+                            .plugin(this.pluginContainer)
+                            .build()
+            );
         }
-        this.tasks.remove(player.uniqueId());
-        return taskUUID != null;
     }
 
-    @Override public boolean awaitingExecution(final Player player) {
-        synchronized (this.lockingObject) {
-            final UUID taskUUID = this.tasks.get(player.uniqueId());
-            if (taskUUID != null) {
-                if (Sponge.server().scheduler().findTask(taskUUID).isPresent()) {
-                    // remove entries
-                    return true;
-                } else {
-                    this.uuidToWarmup.remove(taskUUID);
+    private void tick() {
+        final List<WarmupWheel.Entry> expired = this.wheel.advance();
+        for (final WarmupWheel.Entry entry : expired) {
+            // If this fails, the warmup was cancelled or replaced in the meantime.
+            if (this.warmups.remove(entry.player, entry) && Sponge.server().player(entry.player).isPresent()) {
+                // Only run if the player is still on the server.
+                try {
+                    entry.task.run();
+                } catch (final Exception e) {
+                    // don't let one failed warmup stop the rest of this tick's warmups from running.
+                    this.logger.error("A warmup for {} failed.", entry.player, e);
                 }
             }
-            this.tasks.remove(player.uniqueId());
-            return false;
         }
     }
 
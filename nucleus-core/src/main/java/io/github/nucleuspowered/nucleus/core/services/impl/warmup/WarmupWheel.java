@@ -0,0 +1,103 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.services.impl.warmup;
+
+import io.github.nucleuspowered.nucleus.api.core.NucleusWarmupManagerService;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A hashed timing wheel for warmups, advanced one slot per server tick.
+ *
+ * <p>Entries may be scheduled from any thread - they are placed on a pending
+ * queue and moved into their slot by {@link #advance()}, which must only be
+ * called from a single thread (the main thread). Cancellation is lazy: a
+ * cancelled entry is simply flagged and dropped when its slot is next
+ * visited.</p>
+ */
+final class WarmupWheel {
+
+    private static final int SLOTS = 512;
+    private static final int MASK = SLOTS - 1;
+
+    private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+
+    // only touched by the thread calling advance()
+    @SuppressWarnings("unchecked")
+    private final ArrayDeque<Entry>[] slots = new ArrayDeque[SLOTS];
+    private long tick = 0;
+
+    WarmupWheel() {
+        for (int i = 0; i < SLOTS; i++) {
+            this.slots[i] = new ArrayDeque<>();
+        }
+    }
+
+    void schedule(final Entry entry) {
+        this.pending.add(entry);
+    }
+
+    /**
+     * Moves the wheel on by one tick, returning the entries that have now
+     * expired and have not been cancelled.
+     *
+     * @return The expired entries, in the order they were scheduled.
+     */
+    List<Entry> advance() {
+        final long current = ++this.tick;
+        Entry toPlace;
+        while ((toPlace = this.pending.poll()) != null) {
+            if (!toPlace.cancelled) {
+                // entries are always at least one tick in the future.
+                toPlace.deadline = current + Math.max(0, toPlace.ticks - 1);
+                this.slots[(int) (toPlace.deadline & MASK)].add(toPlace);
+            }
+        }
+
+        final ArrayDeque<Entry> slot = this.slots[(int) (current & MASK)];
+        if (slot.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Entry> expired = Collections.emptyList();
+        final Iterator<Entry> iterator = slot.iterator();
+        while (iterator.hasNext()) {
+            final Entry entry = iterator.next();
+            if (entry.cancelled) {
+                iterator.remove();
+            } else if (entry.deadline <= current) {
+                iterator.remove();
+                if (expired.isEmpty()) {
+                    expired = new ArrayList<>();
+                }
+                expired.add(entry);
+            }
+        }
+        return expired;
+    }
+
+    static final class Entry {
+
+        final UUID player;
+        final NucleusWarmupManagerService.WarmupTask task;
+        final long ticks;
+        volatile boolean cancelled = false;
+        long deadline;
+
+        Entry(final UUID player, final NucleusWarmupManagerService.WarmupTask task, final long ticks) {
+            this.player = player;
+            this.task = task;
+            this.ticks = ticks;
+        }
+    }
+
+}
@@ -11,6 +11,8 @@ import io.github.nucleuspowered.nucleus.core.services.impl.messageprovider.repos
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 
 import java.time.Duration;
 import java.time.Instant;
@@ -29,7 +31,13 @@ public interface IMessageProviderService {
 
     Locale getDefaultLocale();
 
-    void invalidateLocaleCacheFor(UUID uuid);
+    void loadLocaleFor(ServerPlayer player);
+
+    void updateClientLocaleFor(ServerPlayer player, Locale clientLocale);
+
+    void updatePreferredLocaleFor(UUID uuid, @Nullable Locale preferredLocale);
+
+    void removeLocaleFor(UUID uuid);
 
     Optional<Locale> getLocaleFromName(String name);
 
@@ -9,11 +9,13 @@ import io.github.nucleuspowered.nucleus.api.teleport.NucleusSafeLocationService;
 import io.github.nucleuspowered.nucleus.api.teleport.data.TeleportResult;
 import io.github.nucleuspowered.nucleus.api.teleport.data.TeleportScanner;
 import io.github.nucleuspowered.nucleus.core.services.impl.teleport.SafeLocationService;
+import org.spongepowered.api.ResourceKey;
 import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 import org.spongepowered.api.world.server.ServerLocation;
 import org.spongepowered.api.world.server.ServerWorld;
 import org.spongepowered.api.world.teleport.TeleportHelperFilter;
 import org.spongepowered.math.vector.Vector3d;
+import org.spongepowered.math.vector.Vector3i;
 
 @ImplementedBy(SafeLocationService.class)
 public interface INucleusLocationService extends NucleusSafeLocationService {
@@ -43,6 +45,15 @@ public interface INucleusLocationService extends NucleusSafeLocationService {
 
     BorderDisableSession temporarilyDisableBorder(boolean reset, ServerWorld world);
 
+    /**
+     * Informs the service that a block has changed, so that any cached safe
+     * locations that depend on it can be discarded.
+     *
+     * @param world The world the block is in
+     * @param position The position of the block
+     */
+    void onBlockChange(ResourceKey world, Vector3i position);
+
     interface BorderDisableSession extends AutoCloseable {
 
         @Override default void close() { }
@@ -10,6 +10,7 @@ import io.github.nucleuspowered.nucleus.core.services.impl.storage.StorageManage
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.modular.IGeneralDataObject;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.modular.IUserDataObject;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.modular.IWorldDataObject;
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.migration.DataMigrationJob;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.queryobjects.IUserQueryObject;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.queryobjects.IWorldQueryObject;
 import io.github.nucleuspowered.storage.IStorageModule;
@@ -21,6 +22,7 @@ import io.github.nucleuspowered.storage.services.IStorageService;
 import org.spongepowered.api.ResourceKey;
 
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -93,6 +95,31 @@ public interface IStorageManager {
 
     CompletableFuture<Void> saveAll();
 
+    /**
+     * Saves some of the changed user and world data on the calling thread,
+     * those that have been waiting longest first, and then removes data that
+     * has been saved from the cache, unless it belongs to the given users.
+     *
+     * <p>This allows saving to be spread out over time, rather than saving
+     * everything at once with {@link #saveAll()}.</p>
+     *
+     * @param share The share of the changed data to save, between 0 and 1.
+     *              If anything has changed, at least one object is saved.
+     * @param max The most objects to save
+     * @param usersToKeep The users whose data should stay cached
+     * @return The number of objects that were saved
+     */
+    int saveIncrementally(double share, int max, Set<UUID> usersToKeep);
+
+    /**
+     * Creates a job that brings all stored user, world and general data up
+     * to the current data version and compacts it. Data that is in use is
+     * left alone.
+     *
+     * @return The job
+     */
+    DataMigrationJob createMigrationJob();
+
     void attachAll();
 
     void detachAll();
@@ -19,4 +19,19 @@ public interface ITextFileControllerCollection {
 
     void remove(String key);
 
+    /**
+     * Reloads the given controller in the background whenever its file
+     * changes, without registering it against a key.
+     *
+     * @param controller The controller
+     */
+    void watch(TextFileController controller);
+
+    /**
+     * Stops reloading the given controller when its file changes.
+     *
+     * @param controller The controller
+     */
+    void unwatch(TextFileController controller);
+
 }
@@ -6,6 +6,7 @@ package io.github.nucleuspowered.nucleus.core.services.interfaces;
 
 import com.google.inject.ImplementedBy;
 import io.github.nucleuspowered.nucleus.api.core.NucleusUserPreferenceService;
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.modular.IUserDataObject;
 import io.github.nucleuspowered.nucleus.core.services.impl.userprefs.NucleusKeysProvider;
 import io.github.nucleuspowered.nucleus.core.services.impl.userprefs.PreferenceKeyImpl;
 import io.github.nucleuspowered.nucleus.core.services.impl.userprefs.UserPreferenceService;
@@ -14,6 +15,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @ImplementedBy(UserPreferenceService.class)
 public interface IUserPreferenceService extends NucleusUserPreferenceService {
@@ -28,6 +30,27 @@ public interface IUserPreferenceService extends NucleusUserPreferenceService {
 
     <T> T getUnwrapped(UUID uuid, PreferenceKey<T> key);
 
+    <T> CompletableFuture<Optional<T>> getAsync(UUID uuid, PreferenceKey<T> key);
+
+    /**
+     * Creates a snapshot of the user's preferences from their data, ready for
+     * when they join. This may be called off the main thread.
+     *
+     * @param uuid The {@link UUID} of the user
+     * @param dataObject The user's data
+     */
+    void createSnapshot(UUID uuid, IUserDataObject dataObject);
+
+    /**
+     * Serves the user's preferences from memory until they leave, using the
+     * snapshot created when they authenticated if there is one.
+     *
+     * @param uuid The {@link UUID} of the user
+     */
+    void loadSnapshot(UUID uuid);
+
+    void removeSnapshot(UUID uuid);
+
     @Override NucleusKeysProvider keys();
 
 }
@@ -15,14 +15,18 @@ import java.util.Optional;
 public class AbstractKeyBasedDataObject<T extends IKeyedDataObject<T>> extends AbstractConfigurateBackedDataObject implements IKeyedDataObject<T> {
 
     private transient boolean isDirty = false;
+    private transient long dirtySince = 0;
 
     @Override
     public final void markDirty() {
-        this.isDirty = true;
+        this.markDirty(true);
     }
 
     @Override
     public final void markDirty(final boolean markDirty) {
+        if (markDirty && !this.isDirty) {
+            this.dirtySince = System.nanoTime();
+        }
         this.isDirty = markDirty;
     }
 
@@ -31,6 +35,11 @@ public class AbstractKeyBasedDataObject<T extends IKeyedDataObject<T>> extends A
         return this.isDirty;
     }
 
+    @Override
+    public final long dirtySince() {
+        return this.dirtySince;
+    }
+
     @Override
     public boolean has(final DataKey<?, ? extends T> dataKey) {
         return !this.getNode(dataKey.getDataPath()).virtual();
@@ -35,6 +35,15 @@ public interface IKeyedDataObject<T extends IKeyedDataObject<T>> extends IDataOb
 
     void markDirty(boolean dirty);
 
+    /**
+     * Gets the {@link System#nanoTime()} at which this object was first
+     * changed since it was last saved. Only meaningful if the object
+     * {@link #isDirty() is dirty}.
+     *
+     * @return The time
+     */
+    long dirtySince();
+
     interface Value<T> extends AutoCloseable {
 
         Optional<T> getValue();
@@ -26,11 +26,16 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.plugin.PluginContainer;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -42,6 +47,9 @@ import java.util.stream.Collectors;
 public abstract class AbstractKeyedService<K, Q extends IQueryObject<K, Q>, D extends IKeyedDataObject<D>, O>
         implements IStorageService.Keyed.KeyedData<K, Q, D> {
 
+    // how long a cached object has to go unused before evictCleanUnless will remove it.
+    private static final long EVICT_IDLE_SECONDS = 60;
+
     private final LoadingCache<K, ReentrantReadWriteLock> dataLocks =
             Caffeine.newBuilder().expireAfterAccess(5, TimeUnit.MINUTES).build(new CacheLoader<K, ReentrantReadWriteLock>() {
                 @NonNull
@@ -317,6 +325,132 @@ public abstract class AbstractKeyedService<K, Q extends IQueryObject<K, Q>, D ex
         }, this.pluginContainer);
     }
 
+    /**
+     * Gets the number of cached objects with unsaved changes.
+     *
+     * @return The number of objects
+     */
+    public int getDirtyCount() {
+        int count = 0;
+        for (final D value : this.cache.asMap().values()) {
+            if (value.isDirty()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Saves cached objects with unsaved changes on the calling thread, those
+     * that have been waiting the longest first.
+     *
+     * @param max The most objects to save
+     * @return The number of objects that were saved
+     */
+    public int saveOldestOnThread(final int max) {
+        if (max <= 0) {
+            return 0;
+        }
+
+        final List<DirtyEntry<K, D>> dirty = new ArrayList<>();
+        for (final Map.Entry<K, D> entry : this.cache.asMap().entrySet()) {
+            if (entry.getValue().isDirty()) {
+                dirty.add(new DirtyEntry<>(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        dirty.sort(Comparator.comparingLong(x -> x.dirtySince));
+        int saved = 0;
+        for (final DirtyEntry<K, D> entry : dirty) {
+            if (saved >= max) {
+                break;
+            }
+
+            try {
+                this.saveOnThread(entry.key, entry.value);
+                saved++;
+            } catch (final Exception e) {
+                e.printStackTrace();
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Removes cached objects that have no unsaved changes and have not been
+     * used for {@link #EVICT_IDLE_SECONDS} seconds, unless their keys are in
+     * the given set.
+     *
+     * <p>An object that was got recently may be about to be changed by
+     * whatever got it, so it is left in the cache until it has been idle for
+     * a while. Otherwise, the change would be made to an object that is no
+     * longer cached and would never be saved.</p>
+     *
+     * @param keysToKeep The keys to keep in the cache
+     * @return A future that completes when the repository cache has also been cleared
+     */
+    public CompletableFuture<Void> evictCleanUnless(final Set<K> keysToKeep) {
+        final Set<K> keysToRemove = new HashSet<>();
+        for (final K key : new ArrayList<>(this.cache.asMap().keySet())) {
+            if (keysToKeep.contains(key) || !this.isIdle(key)) {
+                continue;
+            }
+
+            // stops the object being got while we check it.
+            final ReentrantReadWriteLock.WriteLock lock = this.dataLocks.get(key).writeLock();
+            try {
+                lock.lock();
+                // it may have been got before we took the lock, so check again.
+                if (this.isIdle(key)) {
+                    final D value = this.cache.getIfPresent(key);
+                    if (value != null && !value.isDirty() && this.cache.asMap().remove(key, value)) {
+                        keysToRemove.add(key);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        if (keysToRemove.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return ServicesUtil.run(() -> {
+            this.storageRepositorySupplier.get().clearCache(keysToRemove);
+            return null;
+        }, this.pluginContainer);
+    }
+
+    private boolean isIdle(final K key) {
+        return this.cache.policy().expireAfterAccess()
+                .map(x -> x.ageOf(key, TimeUnit.SECONDS).orElse(0) >= EVICT_IDLE_SECONDS)
+                .orElse(false);
+    }
+
+    /**
+     * Runs an action against the stored copy of an object while nothing else
+     * can load or save it, unless the object is cached, as the cached copy is
+     * the one in use.
+     *
+     * @param key The key of the object
+     * @param action The action
+     * @return Whether the action was run
+     * @throws Exception if the action failed
+     */
+    public boolean runUnlessCached(final K key, final Callable<?> action) throws Exception {
+        final ReentrantReadWriteLock.WriteLock lock = this.dataLocks.get(key).writeLock();
+        try {
+            lock.lock();
+            if (this.cache.getIfPresent(key) != null) {
+                return false;
+            }
+            action.call();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     private void onRemoval(@Nullable final K key, @Nullable final D dataObject, @NonNull final RemovalCause removalCause) {
         // If evicted normally, make sure it's saved.
         if (removalCause.wasEvicted() && key != null && dataObject != null && dataObject.isDirty()) {
@@ -325,4 +459,18 @@ public abstract class AbstractKeyedService<K, Q extends IQueryObject<K, Q>, D ex
     }
 
     protected abstract void onEviction(final K key, final D dataObject, final BiConsumer<K, D> reAdd);
+
+    private static final class DirtyEntry<K, D extends IKeyedDataObject<D>> {
+
+        private final K key;
+        private final D value;
+        // taken now, so the order can't change while sorting.
+        private final long dirtySince;
+
+        private DirtyEntry(final K key, final D value) {
+            this.key = key;
+            this.value = value;
+            this.dirtySince = value.dirtySince();
+        }
+    }
 }
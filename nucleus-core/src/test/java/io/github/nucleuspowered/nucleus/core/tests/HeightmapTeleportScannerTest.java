@@ -0,0 +1,61 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.tests;
+
+import io.github.nucleuspowered.nucleus.core.core.teleport.scanners.HeightmapTeleportScanner;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+public class HeightmapTeleportScannerTest {
+
+    // solid from -64 to 0, a cave from 1 to 9, solid from 10 to 29, a one block gap at 30, solid to 59 and open above.
+    private static boolean isSolid(final int y) {
+        return y >= -64 && y < 60 && !(y >= 1 && y <= 9) && y != 30;
+    }
+
+    @Test
+    public void testAscendingFindsCaveFloorThenSurface() {
+        Assert.assertEquals(1, HeightmapTeleportScanner.findFloor(HeightmapTeleportScannerTest::isSolid, -63, 60, true));
+        Assert.assertEquals(60, HeightmapTeleportScanner.findFloor(HeightmapTeleportScannerTest::isSolid, 2, 60, true));
+    }
+
+    @Test
+    public void testDescendingFindsSurfaceThenCaveFloor() {
+        Assert.assertEquals(60, HeightmapTeleportScanner.findFloor(HeightmapTeleportScannerTest::isSolid, 60, -63, false));
+        Assert.assertEquals(1, HeightmapTeleportScanner.findFloor(HeightmapTeleportScannerTest::isSolid, 59, -63, false));
+    }
+
+    @Test
+    public void testOneBlockGapIsNotAFloor() {
+        Assert.assertEquals(HeightmapTeleportScanner.NO_FLOOR, HeightmapTeleportScanner.findFloor(HeightmapTeleportScannerTest::isSolid, 11, 59, true));
+    }
+
+    @Test
+    public void testStartPastTheEndHasNoFloor() {
+        Assert.assertEquals(HeightmapTeleportScanner.NO_FLOOR, HeightmapTeleportScanner.findFloor(HeightmapTeleportScannerTest::isSolid, 61, 60, true));
+        Assert.assertEquals(HeightmapTeleportScanner.NO_FLOOR, HeightmapTeleportScanner.findFloor(HeightmapTeleportScannerTest::isSolid, -63, 0, false));
+    }
+
+    @Test
+    public void testEachBlockIsReadOnce() {
+        final Set<Integer> read = new HashSet<>();
+        final int[] reads = new int[1];
+        final IntPredicate counting = y -> {
+            reads[0]++;
+            read.add(y);
+            return HeightmapTeleportScannerTest.isSolid(y);
+        };
+
+        Assert.assertEquals(60, HeightmapTeleportScanner.findFloor(counting, 10, 60, true));
+        Assert.assertEquals(read.size(), reads[0]);
+        // 10 to 60, and the blocks either side.
+        Assert.assertEquals(53, reads[0]);
+    }
+
+}
@@ -0,0 +1,16 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.back;
+
+import io.github.nucleuspowered.nucleus.core.configurate.datatypes.LocationNode;
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.modular.IUserDataObject;
+import io.github.nucleuspowered.nucleus.core.util.TypeTokens;
+import io.github.nucleuspowered.storage.dataobjects.keyed.DataKey;
+
+public final class BackKeys {
+
+    public static final DataKey<LocationNode, IUserDataObject> LAST_LOCATION = DataKey.of(TypeTokens.LOCATION_NODE, IUserDataObject.class, "lastLocation");
+
+}
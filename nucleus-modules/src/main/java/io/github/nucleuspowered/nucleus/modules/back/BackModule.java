@@ -27,7 +27,7 @@ public class BackModule implements IModule.Configurable<BackConfig> {
 
     @Override
     public void init(final INucleusServiceCollection serviceCollection) {
-        serviceCollection.registerService(BackHandler.class, new BackHandler(), false);
+        serviceCollection.registerService(BackHandler.class, new BackHandler(serviceCollection), false);
     }
 
     @Override
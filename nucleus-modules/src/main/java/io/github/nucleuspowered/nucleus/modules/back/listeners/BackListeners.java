@@ -4,19 +4,18 @@
  */
 package io.github.nucleuspowered.nucleus.modules.back.listeners;
 
-import io.github.nucleuspowered.nucleus.api.NucleusAPI;
-import io.github.nucleuspowered.nucleus.api.module.jail.NucleusJailService;
-import io.github.nucleuspowered.nucleus.modules.back.BackPermissions;
+import io.github.nucleuspowered.nucleus.api.module.jail.event.NucleusJailEvent;
 import io.github.nucleuspowered.nucleus.modules.back.config.BackConfig;
 import io.github.nucleuspowered.nucleus.modules.back.services.BackHandler;
 import io.github.nucleuspowered.nucleus.core.scaffold.listener.ListenerBase;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
-import io.github.nucleuspowered.nucleus.core.services.interfaces.IPermissionService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
-import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.cause.entity.MovementType;
+import org.spongepowered.api.event.cause.entity.MovementTypes;
+import org.spongepowered.api.event.EventContextKeys;
 import org.spongepowered.api.event.entity.ChangeEntityWorldEvent;
 import org.spongepowered.api.event.entity.DestructEntityEvent;
 import org.spongepowered.api.event.entity.MoveEntityEvent;
@@ -24,21 +23,22 @@ import org.spongepowered.api.event.filter.Getter;
 import org.spongepowered.api.event.filter.type.Exclude;
 
 import com.google.inject.Inject;
+import org.spongepowered.api.event.network.ServerSideConnectionEvent;
 import org.spongepowered.api.world.server.ServerLocation;
 
+import java.util.Optional;
+
 public class BackListeners implements IReloadableService.Reloadable, ListenerBase {
 
+    // Further than anyone can travel in a tick without being teleported.
+    private static final double TELEPORT_DISTANCE_SQUARED = 100;
+
     private final BackHandler handler;
-    private final IPermissionService permissionService;
     private BackConfig backConfig = new BackConfig();
-    @Nullable private final NucleusJailService jailService;
 
     @Inject
     public BackListeners(final INucleusServiceCollection serviceCollection) {
-        // TODO: Pluggable stuff.
-        this.jailService = NucleusAPI.getJailService().orElse(null);
         this.handler = serviceCollection.getServiceUnchecked(BackHandler.class);
-        this.permissionService = serviceCollection.permissionService();
     }
 
     @Override
@@ -46,35 +46,73 @@ public class BackListeners implements IReloadableService.Reloadable, ListenerBas
         this.backConfig = serviceCollection.configProvider().getModuleConfig(BackConfig.class);
     }
 
+    @Listener(order = Order.FIRST)
+    public void onJoin(final ServerSideConnectionEvent.Join event, @Getter("player") final ServerPlayer player) {
+        this.handler.loadPlayer(player);
+    }
+
+    @Listener(order = Order.LAST)
+    public void onDisconnect(final ServerSideConnectionEvent.Disconnect event, @Getter("player") final ServerPlayer player) {
+        this.handler.unloadPlayer(player.uniqueId());
+    }
+
+    @Listener
+    public void onJail(final NucleusJailEvent event) {
+        this.handler.invalidateState(event.getJailedUser());
+    }
+
     @Listener(order = Order.LAST)
     @Exclude(ChangeEntityWorldEvent.Reposition.class)
     public void onTeleportPlayer(final MoveEntityEvent event, @Getter("entity") final ServerPlayer pl) {
-        if (this.backConfig.isOnTeleport() && this.check(event) &&
-                this.getLogBack(pl) && this.permissionService.hasPermission(pl,
-                BackPermissions.BACK_ONTELEPORT)) {
+        if (!this.backConfig.isOnTeleport() || !this.isTeleport(event)) {
+            return;
+        }
+
+        final BackHandler.PlayerState state = this.handler.getState(pl);
+        if (state.canLogOnTeleport() && this.getLogBack(pl, state)) {
             this.handler.setLastLocation(pl.uniqueId(), ServerLocation.of(pl.world(), event.originalPosition()), pl.rotation());
         }
     }
 
     @Listener(order = Order.LAST)
     public void onWorldTransfer(final ChangeEntityWorldEvent.Reposition event, @Getter("entity") final ServerPlayer pl) {
-        if (this.backConfig.isOnPortal() && this.getLogBack(pl) && this.permissionService.hasPermission(pl, BackPermissions.BACK_ONPORTAL)) {
+        if (!this.backConfig.isOnPortal()) {
+            return;
+        }
+
+        final BackHandler.PlayerState state = this.handler.getState(pl);
+        if (state.canLogOnPortal() && this.getLogBack(pl, state)) {
             this.handler.setLastLocation(pl.uniqueId(), ServerLocation.of(event.originalWorld(), event.destinationPosition()), pl.rotation());
         }
     }
 
     @Listener
     public void onDeathEvent(final DestructEntityEvent.Death event, @Getter("entity") final ServerPlayer pl) {
-        if (this.backConfig.isOnDeath() && this.getLogBack(pl) && this.permissionService.hasPermission(pl, BackPermissions.BACK_ONDEATH)) {
+        if (!this.backConfig.isOnDeath()) {
+            return;
+        }
+
+        final BackHandler.PlayerState state = this.handler.getState(pl);
+        if (state.canLogOnDeath() && this.getLogBack(pl, state)) {
             this.handler.setLastLocation(pl.uniqueId(), pl.serverLocation(), pl.rotation());
         }
     }
 
-    private boolean check(final MoveEntityEvent event) {
-        return !event.originalPosition().equals(event.destinationPosition());
+    /**
+     * Movement that the server attributes to the player walking is ignored
+     * without looking any further. If the cause does not say how the player
+     * moved, only a jump further than they could have walked counts.
+     */
+    private boolean isTeleport(final MoveEntityEvent event) {
+        final Optional<MovementType> movementType = event.context().get(EventContextKeys.MOVEMENT_TYPE);
+        if (movementType.isPresent()) {
+            return movementType.get() != MovementTypes.NATURAL.get()
+                    && !event.originalPosition().equals(event.destinationPosition());
+        }
+        return event.originalPosition().distanceSquared(event.destinationPosition()) > TELEPORT_DISTANCE_SQUARED;
     }
 
-    private boolean getLogBack(final ServerPlayer player) {
-        return !(this.jailService != null && this.jailService.isPlayerJailed(player.uniqueId())) && this.handler.isLoggingLastLocation(player.uniqueId());
+    private boolean getLogBack(final ServerPlayer player, final BackHandler.PlayerState state) {
+        return !state.isJailed() && this.handler.isLoggingLastLocation(player.uniqueId());
     }
 }
@@ -4,40 +4,138 @@
  */
 package io.github.nucleuspowered.nucleus.modules.back.services;
 
+import io.github.nucleuspowered.nucleus.api.NucleusAPI;
 import io.github.nucleuspowered.nucleus.api.module.back.NucleusBackService;
+import io.github.nucleuspowered.nucleus.api.module.jail.NucleusJailService;
 import io.github.nucleuspowered.nucleus.api.util.WorldPositionRotation;
+import io.github.nucleuspowered.nucleus.core.configurate.datatypes.LocationNode;
 import io.github.nucleuspowered.nucleus.core.scaffold.service.ServiceBase;
 import io.github.nucleuspowered.nucleus.core.scaffold.service.annotations.APIService;
+import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.IPermissionService;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.IStorageManager;
 import io.github.nucleuspowered.nucleus.core.util.WorldPositionRotationImpl;
+import io.github.nucleuspowered.nucleus.modules.back.BackKeys;
+import io.github.nucleuspowered.nucleus.modules.back.BackPermissions;
+import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 import org.spongepowered.api.world.server.ServerLocation;
 import org.spongepowered.math.vector.Vector3d;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Holds the last location of each online player in memory. Locations are only
+ * written to storage when the player logs out, and read back when they next
+ * log in.
+ */
 @APIService(NucleusBackService.class)
 public class BackHandler implements NucleusBackService, ServiceBase {
 
-    private final Map<UUID, WorldPositionRotation> lastLocation = new HashMap<>();
-    private final Set<UUID> preventLogLastLocation = new HashSet<>();
+    private static final long STATE_LIFETIME = TimeUnit.SECONDS.toNanos(30);
+
+    private final IStorageManager storageManager;
+    private final IPermissionService permissionService;
+
+    private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, WorldPositionRotation> lastLocation = new ConcurrentHashMap<>();
+    private final Set<UUID> changed = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, PlayerState> states = new ConcurrentHashMap<>();
+    private final Set<UUID> preventLogLastLocation = ConcurrentHashMap.newKeySet();
+
+    public BackHandler(final INucleusServiceCollection serviceCollection) {
+        this.storageManager = serviceCollection.storageManager();
+        this.permissionService = serviceCollection.permissionService();
+    }
+
+    public void loadPlayer(final ServerPlayer player) {
+        final UUID uuid = player.uniqueId();
+        this.online.add(uuid);
+        this.states.put(uuid, this.createState(player));
+        this.storageManager.getUser(uuid).thenAccept(x -> x.flatMap(y -> y.get(BackKeys.LAST_LOCATION)).ifPresent(node -> {
+            // don't overwrite anything recorded since the player logged in.
+            if (this.online.contains(uuid)) {
+                this.lastLocation.putIfAbsent(uuid, BackHandler.toWorldPositionRotation(node));
+            }
+        }));
+    }
+
+    public void unloadPlayer(final UUID uuid) {
+        this.online.remove(uuid);
+        this.states.remove(uuid);
+        final WorldPositionRotation location = this.lastLocation.remove(uuid);
+        if (this.changed.remove(uuid)) {
+            if (location == null) {
+                this.storageManager.getUserService().removeAndSave(uuid, BackKeys.LAST_LOCATION);
+            } else {
+                this.storageManager.getUserService().setAndSave(uuid, BackKeys.LAST_LOCATION, BackHandler.toLocationNode(location));
+            }
+        }
+    }
+
+    /**
+     * Gets the cached jail and permission state for the player, recalculating
+     * it if it is out of date.
+     *
+     * @param player The player
+     * @return The state
+     */
+    public PlayerState getState(final ServerPlayer player) {
+        final PlayerState state = this.states.get(player.uniqueId());
+        if (state != null && System.nanoTime() - state.created < STATE_LIFETIME) {
+            return state;
+        }
+
+        final PlayerState newState = this.createState(player);
+        if (this.online.contains(player.uniqueId())) {
+            this.states.put(player.uniqueId(), newState);
+        }
+        return newState;
+    }
+
+    /**
+     * Marks the cached state for the player as out of date, such as when they
+     * are jailed or released.
+     *
+     * @param uuid The {@link UUID} of the player
+     */
+    public void invalidateState(final UUID uuid) {
+        this.states.remove(uuid);
+    }
 
     @Override
     public Optional<WorldPositionRotation> getLastLocation(final UUID uuid) {
-        return Optional.ofNullable(this.lastLocation.get(uuid));
+        if (this.online.contains(uuid)) {
+            return Optional.ofNullable(this.lastLocation.get(uuid));
+        }
+        return this.storageManager.getUserOnThread(uuid)
+                .flatMap(x -> x.get(BackKeys.LAST_LOCATION))
+                .map(BackHandler::toWorldPositionRotation);
     }
 
     @Override
     public void setLastLocation(final UUID user, final ServerLocation location, final Vector3d rotation) {
-        this.lastLocation.put(user, new WorldPositionRotationImpl(location.position(), rotation, location.worldKey()));
+        final WorldPositionRotation worldPositionRotation = new WorldPositionRotationImpl(location.position(), rotation, location.worldKey());
+        if (this.online.contains(user)) {
+            this.lastLocation.put(user, worldPositionRotation);
+            this.changed.add(user);
+        } else {
+            this.storageManager.getUserService().setAndSave(user, BackKeys.LAST_LOCATION, BackHandler.toLocationNode(worldPositionRotation));
+        }
     }
 
     @Override
     public void removeLastLocation(final UUID user) {
-        this.lastLocation.remove(user);
+        if (this.online.contains(user)) {
+            this.lastLocation.remove(user);
+            this.changed.add(user);
+        } else {
+            this.storageManager.getUserService().removeAndSave(user, BackKeys.LAST_LOCATION);
+        }
     }
 
     @Override
@@ -54,4 +152,57 @@ public class BackHandler implements NucleusBackService, ServiceBase {
         }
     }
 
+    private PlayerState createState(final ServerPlayer player) {
+        final NucleusJailService jailService = NucleusAPI.getJailService().orElse(null);
+        return new PlayerState(
+                jailService != null && jailService.isPlayerJailed(player.uniqueId()),
+                this.permissionService.hasPermission(player, BackPermissions.BACK_ONTELEPORT),
+                this.permissionService.hasPermission(player, BackPermissions.BACK_ONPORTAL),
+                this.permissionService.hasPermission(player, BackPermissions.BACK_ONDEATH)
+        );
+    }
+
+    private static WorldPositionRotation toWorldPositionRotation(final LocationNode node) {
+        return new WorldPositionRotationImpl(node.getPosition(), node.getRotation(), node.getWorld());
+    }
+
+    private static LocationNode toLocationNode(final WorldPositionRotation location) {
+        return new LocationNode(location.getResourceKey(), location.getPosition(), location.getRotation());
+    }
+
+    /**
+     * The jail and permission state of a player, as of when it was created.
+     */
+    public static final class PlayerState {
+
+        private final long created = System.nanoTime();
+        private final boolean jailed;
+        private final boolean onTeleport;
+        private final boolean onPortal;
+        private final boolean onDeath;
+
+        private PlayerState(final boolean jailed, final boolean onTeleport, final boolean onPortal, final boolean onDeath) {
+            this.jailed = jailed;
+            this.onTeleport = onTeleport;
+            this.onPortal = onPortal;
+            this.onDeath = onDeath;
+        }
+
+        public boolean isJailed() {
+            return this.jailed;
+        }
+
+        public boolean canLogOnTeleport() {
+            return this.onTeleport;
+        }
+
+        public boolean canLogOnPortal() {
+            return this.onPortal;
+        }
+
+        public boolean canLogOnDeath() {
+            return this.onDeath;
+        }
+    }
+
 }
@@ -9,29 +9,20 @@ import io.github.nucleuspowered.nucleus.api.placeholder.NucleusPlaceholderServic
 import io.github.nucleuspowered.nucleus.core.scaffold.listener.ListenerBase;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IChatMessageFormatterService;
-import io.github.nucleuspowered.nucleus.core.services.interfaces.IPermissionService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
-import io.github.nucleuspowered.nucleus.core.services.interfaces.ITextStyleService;
-import io.github.nucleuspowered.nucleus.core.util.AdventureUtils;
-import io.github.nucleuspowered.nucleus.modules.chat.ChatPermissions;
 import io.github.nucleuspowered.nucleus.modules.chat.config.ChatConfig;
-import io.github.nucleuspowered.nucleus.modules.chat.config.ChatTemplateConfig;
 import io.github.nucleuspowered.nucleus.modules.chat.services.ChatService;
-import net.kyori.adventure.audience.Audience;
-import net.kyori.adventure.audience.MessageType;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.LinearComponents;
-import net.kyori.adventure.text.TextComponent;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
-import org.spongepowered.api.Sponge;
 import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.filter.Getter;
 import org.spongepowered.api.event.filter.cause.Root;
 import org.spongepowered.api.event.message.PlayerChatEvent;
+import org.spongepowered.api.event.network.ServerSideConnectionEvent;
 
 import java.util.Optional;
-import java.util.regex.Pattern;
 
 /**
  * A listener that modifies all chat messages. Uses the
@@ -41,8 +32,7 @@ import java.util.regex.Pattern;
 public class ChatListener implements IReloadableService.Reloadable, ListenerBase.Conditional {
 
     private final ChatService chatService;
-    private final ITextStyleService textStyleService;
-    private final IPermissionService permissionService;
+    private final ChatMessageParser chatMessageParser;
     private final IChatMessageFormatterService chatMessageFormatterService;
 
     private ChatConfig chatConfig;
@@ -50,9 +40,8 @@ public class ChatListener implements IReloadableService.Reloadable, ListenerBase
     @Inject
     public ChatListener(final INucleusServiceCollection serviceCollection) {
         this.chatService = serviceCollection.getServiceUnchecked(ChatService.class);
-        this.textStyleService = serviceCollection.textStyleService();
+        this.chatMessageParser = new ChatMessageParser(serviceCollection.textStyleService());
         this.chatConfig = serviceCollection.configProvider().getModuleConfig(ChatConfig.class);
-        this.permissionService = serviceCollection.permissionService();
         this.chatMessageFormatterService = serviceCollection.chatMessageFormatter();
     }
 
@@ -71,6 +60,11 @@ public class ChatListener implements IReloadableService.Reloadable, ListenerBase
         }
     }
 
+    @Listener
+    public void onQuit(final ServerSideConnectionEvent.Disconnect event, @Getter("player") final ServerPlayer player) {
+        this.chatService.removeSenderProfile(player.uniqueId());
+    }
+
     private void onPlayerChatEvent(final PlayerChatEvent event, @Root final ServerPlayer player) {
         if (this.chatMessageFormatterService.getNucleusChannel(player.uniqueId())
                 .map(IChatMessageFormatterService.Channel::willFormat).orElse(false)) {
@@ -85,27 +79,16 @@ public class ChatListener implements IReloadableService.Reloadable, ListenerBase
         }
 
         if (this.chatConfig.isTryRemoveMinecraftPrefix()) {
-            final Pattern removal = Pattern.compile("<" + player.name() + ">");
-            baseMessage = baseMessage.replaceText(function -> function.match(removal).replacement(Component.empty()));
+            baseMessage = this.chatMessageParser.stripHeader(baseMessage, player.name());
         }
 
-        final ChatService.TemplateCache ctc;
-        if (this.chatConfig.isUseGroupTemplates()) {
-            ctc = this.chatService.getTemplateNow(player);
-        } else {
-            ctc = this.chatService.getDefaultTemplate();
-        }
+        final ChatService.SenderProfile profile = this.chatService.getSenderProfile(player);
+        final ChatService.TemplateCache ctc = this.chatConfig.isUseGroupTemplates() ?
+                profile.getTemplateCache() : this.chatService.getDefaultTemplate();
 
-        final TextComponent.Builder builder = Component.text();
         final Component header = ctc.getPrefix().getForObject(player);
         final Component footer = ctc.getSuffix().getForObject(player);
-        if (!AdventureUtils.isEmpty(header)) {
-            builder.append(header);
-        }
-        final Component body = this.chatConfig.isModifyMessage() ? this.useMessage(player, baseMessage, ctc) : baseMessage;
-        if (!AdventureUtils.isEmpty(footer)) {
-            builder.append(footer);
-        }
+        final Component body = this.chatConfig.isModifyMessage() ? this.useMessage(baseMessage, profile) : baseMessage;
         event.setMessage(body);
         event.setChatFormatter((sender, target, message, originalMessage) ->
                 Optional.of(LinearComponents.linear(header, message, footer)));
@@ -116,30 +99,12 @@ public class ChatListener implements IReloadableService.Reloadable, ListenerBase
         return serviceCollection.configProvider().getModuleConfig(ChatConfig.class).isModifychat();
     }
 
-    private TextComponent useMessage(final ServerPlayer player, final Component rawMessage, final ChatService.TemplateCache templateCache) {
-        final ChatTemplateConfig chatTemplateConfig = templateCache.getConfig();
-        String m = LegacyComponentSerializer.legacyAmpersand().serialize(rawMessage);
-        if (this.chatConfig.isRemoveBlueUnderline()) {
-            m = m.replaceAll("&9&n([A-Za-z0-9-.]+)(&r)?", "$1");
+    private Component useMessage(final Component rawMessage, final ChatService.SenderProfile profile) {
+        final Component result = this.chatMessageParser.parse(rawMessage, profile, this.chatConfig.isRemoveBlueUnderline());
+        if (profile.getMessageStyle().isEmpty()) {
+            return result;
         }
-
-        m = this.textStyleService.stripPermissionless(ChatPermissions.CHAT_COLOR, ChatPermissions.CHAT_STYLE, player, m);
-
-        final Component result;
-        if (this.permissionService.hasPermission(player, ChatPermissions.CHAT_URLS)) {
-            result = this.textStyleService.addUrls(m, !this.chatConfig.isRemoveBlueUnderline());
-        } else {
-            result = LegacyComponentSerializer.legacyAmpersand().deserialize(m);
-        }
-
-        final String chatcol = this.permissionService.getOptionFromSubject(player, "chatcolour", "chatcolor").orElseGet(chatTemplateConfig::getChatcolour);
-        final String chatstyle = this.permissionService.getOptionFromSubject(player, "chatstyle").orElseGet(chatTemplateConfig::getChatstyle);
-
-        return Component.text()
-                .color(this.textStyleService.getColourFromString(chatcol).orElse(null))
-                .style(this.textStyleService.getTextStyleFromString(chatstyle))
-                .append(result)
-                .build();
+        return Component.text().style(profile.getMessageStyle()).append(result).build();
     }
 
     @Override
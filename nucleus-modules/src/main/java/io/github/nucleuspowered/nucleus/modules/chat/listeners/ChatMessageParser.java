@@ -0,0 +1,296 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.chat.listeners;
+
+import io.github.nucleuspowered.nucleus.core.services.impl.textstyle.TextStyleService;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.ITextStyleService;
+import io.github.nucleuspowered.nucleus.modules.chat.services.ChatService;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import net.kyori.adventure.text.serializer.legacy.LegacyFormat;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Formats the body of a chat message in a single pass over its component
+ * tree, rather than serialising it to legacy text and back.
+ *
+ * <p>Ampersand codes the sender may use are applied, codes they may not use
+ * are removed, and URLs are made clickable if the sender is allowed to post
+ * them.</p>
+ */
+final class ChatMessageParser {
+
+    private static final String VANILLA_CHAT_KEY = "chat.type.text";
+    private static final ITextStyleService.TextFormat URL_FORMAT =
+            new TextStyleService.TextFormatImpl(NamedTextColor.BLUE, Style.style(TextDecoration.UNDERLINED));
+
+    private final ITextStyleService textStyleService;
+
+    ChatMessageParser(final ITextStyleService textStyleService) {
+        this.textStyleService = textStyleService;
+    }
+
+    /**
+     * Removes a vanilla style {@code <name>} header from the start of the
+     * message, if there is one.
+     *
+     * @param message The message
+     * @param name The name of the sender
+     * @return The message without the header
+     */
+    Component stripHeader(final Component message, final String name) {
+        if (message instanceof TranslatableComponent) {
+            final TranslatableComponent translatable = (TranslatableComponent) message;
+            if (VANILLA_CHAT_KEY.equals(translatable.key()) && translatable.args().size() == 2) {
+                return translatable.args().get(1);
+            }
+        } else if (message instanceof TextComponent) {
+            final TextComponent text = (TextComponent) message;
+            final String content = text.content();
+            if (ChatMessageParser.startsWithHeader(content, name)) {
+                return text.content(content.substring(name.length() + 2));
+            } else if (content.isEmpty() && !text.children().isEmpty()) {
+                final Component first = text.children().get(0);
+                final Component stripped = this.stripHeader(first, name);
+                if (stripped != first) {
+                    final List<Component> children = new ArrayList<>(text.children());
+                    children.set(0, stripped);
+                    return text.children(children);
+                }
+            }
+        }
+        return message;
+    }
+
+    Component parse(final Component message, final ChatService.SenderProfile profile, final boolean removeBlueUnderline) {
+        Style style = message.style();
+        if (removeBlueUnderline && style.color() == NamedTextColor.BLUE && style.decoration(TextDecoration.UNDERLINED) == TextDecoration.State.TRUE) {
+            style = style.color(null).decoration(TextDecoration.UNDERLINED, TextDecoration.State.NOT_SET);
+        }
+
+        boolean changed = style != message.style();
+        final List<Component> children = message.children();
+        final List<Component> parsedChildren;
+        if (children.isEmpty()) {
+            parsedChildren = Collections.emptyList();
+        } else {
+            parsedChildren = new ArrayList<>(children.size());
+            for (final Component child : children) {
+                final Component parsed = this.parse(child, profile, removeBlueUnderline);
+                changed |= parsed != child;
+                parsedChildren.add(parsed);
+            }
+        }
+
+        if (message instanceof TextComponent) {
+            final String content = ((TextComponent) message).content();
+            if (this.requiresParsing(content, profile)) {
+                return Component.text()
+                        .style(style)
+                        .append(this.parseContent(content, profile, removeBlueUnderline))
+                        .append(parsedChildren)
+                        .build();
+            }
+        }
+        if (!changed) {
+            return message;
+        }
+        return message.style(style).children(parsedChildren);
+    }
+
+    private boolean requiresParsing(final String content, final ChatService.SenderProfile profile) {
+        return content.indexOf('&') != -1 || (profile.canUseUrls() && content.indexOf('.') != -1);
+    }
+
+    private List<Component> parseContent(final String content, final ChatService.SenderProfile profile, final boolean removeBlueUnderline) {
+        final List<Component> segments = new ArrayList<>();
+        final StringBuilder current = new StringBuilder(content.length());
+        final int length = content.length();
+        Style style = Style.empty();
+        boolean tokenStart = true;
+        int i = 0;
+        while (i < length) {
+            final char c = content.charAt(i);
+            if (c == '&' && i + 1 < length) {
+                if (removeBlueUnderline && content.regionMatches(true, i, "&9&n", 0, 4)
+                        && i + 4 < length && ChatMessageParser.isLabelChar(content.charAt(i + 4))) {
+                    i += 4;
+                    continue;
+                }
+
+                final char code = content.charAt(i + 1);
+                final LegacyFormat format = LegacyComponentSerializer.parseChar(code);
+                if (format != null) {
+                    if (profile.canUseCode(code)) {
+                        ChatMessageParser.flush(segments, current, style);
+                        style = ChatMessageParser.apply(style, format);
+                    }
+                    i += 2;
+                    continue;
+                }
+            }
+
+            if (tokenStart && profile.canUseUrls()) {
+                final int end = this.appendUrl(segments, current, style, content, i, removeBlueUnderline);
+                if (end != -1) {
+                    i = end;
+                    tokenStart = false;
+                    continue;
+                }
+            }
+
+            tokenStart = Character.isWhitespace(c);
+            current.append(c);
+            i++;
+        }
+
+        ChatMessageParser.flush(segments, current, style);
+        return segments;
+    }
+
+    private int appendUrl(
+            final List<Component> segments,
+            final StringBuilder current,
+            final Style style,
+            final String content,
+            final int start,
+            final boolean removeBlueUnderline) {
+        @Nullable String options = null;
+        int urlStart = start;
+        if (content.charAt(start) == '{') {
+            final int close = ChatMessageParser.findOptionsEnd(content, start);
+            if (close == -1) {
+                return -1;
+            }
+            options = content.substring(start, close + 1);
+            urlStart = close + 1;
+        }
+
+        int end = ChatMessageParser.findUrlEnd(content, urlStart);
+        if (end == -1) {
+            return -1;
+        }
+        if (end - urlStart > 2 && content.regionMatches(true, end - 2, "&r", 0, 2)) {
+            end -= 2;
+        }
+
+        ChatMessageParser.flush(segments, current, style);
+        final String url = content.substring(urlStart, end);
+        final ITextStyleService.TextFormat format =
+                removeBlueUnderline ? new TextStyleService.TextFormatImpl(style.color(), style) : URL_FORMAT;
+        segments.add(this.textStyleService.getTextForUrl(url, url, "", format, options));
+        return end;
+    }
+
+    private static Style apply(final Style style, final LegacyFormat format) {
+        if (format.reset()) {
+            return Style.empty();
+        } else if (format.color() != null) {
+            // as with legacy text, a colour code clears any decorations.
+            return Style.style(format.color());
+        } else if (format.decoration() != null) {
+            return style.decoration(format.decoration(), TextDecoration.State.TRUE);
+        }
+        return style;
+    }
+
+    private static void flush(final List<Component> segments, final StringBuilder current, final Style style) {
+        if (current.length() > 0) {
+            segments.add(Component.text(current.toString(), style));
+            current.setLength(0);
+        }
+    }
+
+    private static boolean startsWithHeader(final String content, final String name) {
+        final int nameLength = name.length();
+        return content.length() >= nameLength + 2
+                && content.charAt(0) == '<'
+                && content.charAt(nameLength + 1) == '>'
+                && content.regionMatches(1, name, 0, nameLength);
+    }
+
+    private static int findOptionsEnd(final String content, final int start) {
+        int i = start + 1;
+        while (i < content.length() && Character.isLetter(content.charAt(i))) {
+            i++;
+        }
+        if (i == start + 1 || i >= content.length() || content.charAt(i) != '}') {
+            return -1;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the end of the URL that starts at the given index, or -1 if
+     * there isn't one. A URL is an optional {@code http(s)://} scheme, at
+     * least two dot separated labels, the last of which starts with two
+     * letters or digits, and then anything up to the next whitespace.
+     */
+    private static int findUrlEnd(final String content, final int start) {
+        final int length = content.length();
+        int i = start;
+        if (content.regionMatches(true, i, "https://", 0, 8)) {
+            i += 8;
+        } else if (content.regionMatches(true, i, "http://", 0, 7)) {
+            i += 7;
+        }
+
+        int labels = 0;
+        int previousStart = -1;
+        while (true) {
+            final int labelStart = i;
+            while (i < length && ChatMessageParser.isLabelChar(content.charAt(i))) {
+                i++;
+            }
+
+            if (i == labelStart) {
+                // trailing dot - the previous label has to be the top level one.
+                if (labels < 2 || !ChatMessageParser.isTopLevelLabel(content, previousStart, labelStart - 1)) {
+                    return -1;
+                }
+                break;
+            }
+
+            if (i < length && content.charAt(i) == '.') {
+                labels++;
+                previousStart = labelStart;
+                i++;
+            } else if (labels > 0 && ChatMessageParser.isTopLevelLabel(content, labelStart, i)) {
+                break;
+            } else {
+                return -1;
+            }
+        }
+
+        while (i < length && !Character.isWhitespace(content.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isTopLevelLabel(final String content, final int start, final int end) {
+        return end - start >= 2
+                && ChatMessageParser.isAlphanumeric(content.charAt(start))
+                && ChatMessageParser.isAlphanumeric(content.charAt(start + 1));
+    }
+
+    private static boolean isLabelChar(final char c) {
+        return c == '-' || ChatMessageParser.isAlphanumeric(c);
+    }
+
+    private static boolean isAlphanumeric(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+}
@@ -4,35 +4,68 @@
  */
 package io.github.nucleuspowered.nucleus.modules.chat.services;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.inject.Inject;
 import io.github.nucleuspowered.nucleus.api.text.NucleusTextTemplate;
+import io.github.nucleuspowered.nucleus.core.scaffold.service.ServiceBase;
+import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.impl.texttemplatefactory.NucleusTextTemplateImpl;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.INucleusTextTemplateFactory;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.IPermissionService;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.ITextStyleService;
+import io.github.nucleuspowered.nucleus.modules.chat.ChatPermissions;
 import io.github.nucleuspowered.nucleus.modules.chat.config.ChatConfig;
 import io.github.nucleuspowered.nucleus.modules.chat.config.ChatTemplateConfig;
-import io.github.nucleuspowered.nucleus.core.scaffold.service.ServiceBase;
-import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
-import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import net.kyori.adventure.text.serializer.legacy.LegacyFormat;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 import org.spongepowered.api.service.permission.Subject;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Contains the logic for caching templates and the template selection logic.
+ *
+ * <p>All group templates are compiled when the configuration is loaded, and the
+ * styling information for each sender (their template, chat colour and style,
+ * and which formatting codes they may use) is held in a short lived
+ * {@link SenderProfile} so that permission and option lookups are not performed
+ * for every message.</p>
  */
 public class ChatService implements IReloadableService.Reloadable, ServiceBase {
 
+    private static final String LEGACY_CODES = "0123456789abcdefklmnor";
+
     private final INucleusTextTemplateFactory textTemplateFactory;
+    private final IPermissionService permissionService;
+    private final ITextStyleService textStyleService;
+
+    // Options can change through a permission plugin without us being told,
+    // so profiles are only trusted for a short while.
+    private final Cache<UUID, SenderProfile> profiles = Caffeine.newBuilder()
+            .expireAfterWrite(30, TimeUnit.SECONDS)
+            .build();
+
     private ChatConfig config = new ChatConfig();
-    private final Map<String, TemplateCache> templateCacheMap = new HashMap<>();
+    private Map<String, TemplateCache> templateCacheMap = Collections.emptyMap();
     private TemplateCache defaultTemplate =
-            new TemplateCache(new ChatTemplateConfig(), NucleusTextTemplateImpl.empty(), NucleusTextTemplateImpl.empty());
+            new TemplateCache(new ChatTemplateConfig(), NucleusTextTemplateImpl.empty(), NucleusTextTemplateImpl.empty(), null, Style.empty());
 
     @Inject
-    public ChatService(final INucleusTextTemplateFactory textTemplateFactory) {
-        this.textTemplateFactory = textTemplateFactory;
+    public ChatService(final INucleusServiceCollection serviceCollection) {
+        this.textTemplateFactory = serviceCollection.textTemplateFactory();
+        this.permissionService = serviceCollection.permissionService();
+        this.textStyleService = serviceCollection.textStyleService();
     }
 
     public TemplateCache getTemplateNow(final Subject subject) {
@@ -41,34 +74,87 @@ public class ChatService implements IReloadableService.Reloadable, ServiceBase {
         }
 
         return subject.option("nucleus.chat.group")
-                .map(this::getTemplateCache)
+                .map(x -> this.templateCacheMap.getOrDefault(x, this.defaultTemplate))
                 .orElse(this.defaultTemplate);
     }
 
-    private TemplateCache getTemplateCache(final String cache) {
-        return this.templateCacheMap.computeIfAbsent(cache, key -> {
-            final ChatTemplateConfig config = this.config.getGroupTemplates().get(key);
-            if (config == null) {
-                return this.defaultTemplate;
-            }
-            return new TemplateCache(config,
-                    this.textTemplateFactory.createFromAmpersandStringIgnoringExceptions(config.getPrefix()).orElseGet(NucleusTextTemplateImpl::empty),
-                    this.textTemplateFactory.createFromAmpersandStringIgnoringExceptions(config.getSuffix()).orElseGet(NucleusTextTemplateImpl::empty)
-            );
-        });
+    /**
+     * Gets the cached styling information for the given player, resolving it
+     * if necessary.
+     *
+     * @param player The player
+     * @return The {@link SenderProfile}
+     */
+    public SenderProfile getSenderProfile(final ServerPlayer player) {
+        return this.profiles.get(player.uniqueId(), uuid -> this.createProfile(player));
+    }
+
+    public void removeSenderProfile(final UUID uuid) {
+        this.profiles.invalidate(uuid);
+    }
+
+    private SenderProfile createProfile(final ServerPlayer player) {
+        final TemplateCache templateCache = this.getTemplateNow(player);
+        final TextColor colour = this.permissionService.getOptionFromSubject(player, "chatcolour", "chatcolor")
+                .flatMap(this.textStyleService::getColourFromString)
+                .orElse(templateCache.getChatColour());
+        final Style style = this.permissionService.getOptionFromSubject(player, "chatstyle")
+                .map(this.textStyleService::getTextStyleFromString)
+                .orElse(templateCache.getChatStyle());
+
+        final boolean[] allowed = new boolean[128];
+        for (int i = 0; i < LEGACY_CODES.length(); i++) {
+            final char code = LEGACY_CODES.charAt(i);
+            allowed[code] = this.canUse(player, LegacyComponentSerializer.parseChar(code));
+            allowed[Character.toUpperCase(code)] = allowed[code];
+        }
+
+        return new SenderProfile(templateCache, style.color(colour), allowed, this.permissionService.hasPermission(player, ChatPermissions.CHAT_URLS));
+    }
+
+    private boolean canUse(final Subject subject, @Nullable final LegacyFormat format) {
+        if (format == null) {
+            return false;
+        }
+        if (format.reset()) {
+            return true;
+        }
+        final TextColor colour = format.color();
+        if (colour != null) {
+            return this.textStyleService.getPermissionFor(ChatPermissions.CHAT_COLOR, colour)
+                    .map(x -> this.permissionService.hasPermission(subject, x))
+                    .orElse(true);
+        }
+        final TextDecoration decoration = format.decoration();
+        if (decoration != null) {
+            return this.textStyleService.getPermissionsFor(ChatPermissions.CHAT_STYLE, decoration)
+                    .stream()
+                    .allMatch(x -> this.permissionService.hasPermission(subject, x));
+        }
+        return false;
+    }
+
+    private TemplateCache compile(final ChatTemplateConfig config) {
+        return new TemplateCache(config,
+                this.textTemplateFactory.createFromAmpersandStringIgnoringExceptions(config.getPrefix()).orElseGet(NucleusTextTemplateImpl::empty),
+                this.textTemplateFactory.createFromAmpersandStringIgnoringExceptions(config.getSuffix()).orElseGet(NucleusTextTemplateImpl::empty),
+                this.textStyleService.getColourFromString(config.getChatcolour()).orElse(null),
+                this.textStyleService.getTextStyleFromString(config.getChatstyle())
+        );
     }
 
     @Override
     public void onReload(final INucleusServiceCollection serviceCollection) {
         this.config = serviceCollection.configProvider().getModuleConfig(ChatConfig.class);
-        this.templateCacheMap.clear();
-        this.defaultTemplate = new TemplateCache(
-                this.config.getDefaultTemplate(),
-                serviceCollection.textTemplateFactory().createFromAmpersandStringIgnoringExceptions(this.config.getDefaultTemplate().getPrefix())
-                    .orElseGet(NucleusTextTemplateImpl::empty),
-                serviceCollection.textTemplateFactory().createFromAmpersandStringIgnoringExceptions(this.config.getDefaultTemplate().getSuffix())
-                    .orElseGet(NucleusTextTemplateImpl::empty)
-                );
+        this.defaultTemplate = this.compile(this.config.getDefaultTemplate());
+        final Map<String, TemplateCache> templates = new HashMap<>();
+        for (final Map.Entry<String, ChatTemplateConfig> entry : this.config.getGroupTemplates().entrySet()) {
+            if (entry.getValue() != null) {
+                templates.put(entry.getKey(), this.compile(entry.getValue()));
+            }
+        }
+        this.templateCacheMap = Collections.unmodifiableMap(templates);
+        this.profiles.invalidateAll();
     }
 
     public TemplateCache getDefaultTemplate() {
@@ -79,11 +165,16 @@ public class ChatService implements IReloadableService.Reloadable, ServiceBase {
         private final ChatTemplateConfig config;
         private final NucleusTextTemplate prefix;
         private final NucleusTextTemplate suffix;
+        @Nullable private final TextColor chatColour;
+        private final Style chatStyle;
 
-        public TemplateCache(final ChatTemplateConfig config, final NucleusTextTemplate prefix, final NucleusTextTemplate suffix) {
+        public TemplateCache(final ChatTemplateConfig config, final NucleusTextTemplate prefix, final NucleusTextTemplate suffix,
+                @Nullable final TextColor chatColour, final Style chatStyle) {
             this.config = config;
             this.prefix = prefix;
             this.suffix = suffix;
+            this.chatColour = chatColour;
+            this.chatStyle = chatStyle;
         }
 
         public ChatTemplateConfig getConfig() {
@@ -97,5 +188,50 @@ public class ChatService implements IReloadableService.Reloadable, ServiceBase {
         public NucleusTextTemplate getSuffix() {
             return this.suffix;
         }
+
+        @Nullable
+        public TextColor getChatColour() {
+            return this.chatColour;
+        }
+
+        public Style getChatStyle() {
+            return this.chatStyle;
+        }
+    }
+
+    public static final class SenderProfile {
+        private final TemplateCache templateCache;
+        private final Style messageStyle;
+        private final boolean[] allowedCodes;
+        private final boolean urls;
+
+        SenderProfile(final TemplateCache templateCache, final Style messageStyle, final boolean[] allowedCodes, final boolean urls) {
+            this.templateCache = templateCache;
+            this.messageStyle = messageStyle;
+            this.allowedCodes = allowedCodes;
+            this.urls = urls;
+        }
+
+        public TemplateCache getTemplateCache() {
+            return this.templateCache;
+        }
+
+        /**
+         * The base {@link Style} of the sender's message, combining their chat
+         * colour and chat style.
+         *
+         * @return The {@link Style}
+         */
+        public Style getMessageStyle() {
+            return this.messageStyle;
+        }
+
+        public boolean canUseCode(final char code) {
+            return code < this.allowedCodes.length && this.allowedCodes[code];
+        }
+
+        public boolean canUseUrls() {
+            return this.urls;
+        }
     }
 }
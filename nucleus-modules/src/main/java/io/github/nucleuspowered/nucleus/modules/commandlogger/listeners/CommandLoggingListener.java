@@ -12,13 +12,14 @@ import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IMessageProviderService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IPlayerDisplayNameService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
-import io.github.nucleuspowered.nucleus.core.util.CommandNameCache;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.plain.PlainComponentSerializer;
 import org.apache.logging.log4j.Logger;
 import org.spongepowered.api.Server;
+import org.spongepowered.api.Sponge;
 import org.spongepowered.api.SystemSubject;
 import org.spongepowered.api.block.entity.CommandBlock;
+import org.spongepowered.api.command.manager.CommandMapping;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.entity.vehicle.minecart.CommandBlockMinecart;
 import org.spongepowered.api.event.Listener;
@@ -31,26 +32,26 @@ import org.spongepowered.plugin.PluginContainer;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
-import javax.naming.Name;
-
 public class CommandLoggingListener implements IReloadableService.Reloadable, ListenerBase {
 
     private final CommandLoggerHandler handler;
     private final IMessageProviderService messageProvider;
     private final IPlayerDisplayNameService displayNameProvider;
     private final Logger logger;
-    private CommandLoggerConfig c;
-    private Set<String> commandsToFilter = new HashSet<>();
+    private volatile Filter filter;
 
     @Inject
     public CommandLoggingListener(final INucleusServiceCollection serviceCollection) {
         this.handler = serviceCollection.getServiceUnchecked(CommandLoggerHandler.class);
-        this.c = serviceCollection.configProvider().getModuleConfig(CommandLoggerConfig.class);
+        this.filter = new Filter(serviceCollection.configProvider().getModuleConfig(CommandLoggerConfig.class));
         this.messageProvider = serviceCollection.messageProvider();
         this.logger = serviceCollection.logger();
         this.displayNameProvider = serviceCollection.playerDisplayNameService();
@@ -58,63 +59,46 @@ public class CommandLoggingListener implements IReloadableService.Reloadable, Li
 
     @Listener(order = Order.LAST)
     public void onCommand(final ExecuteCommandEvent.Pre event) {
+        final Filter currentFilter = this.filter;
         final Object source = event.cause().root();
-        // Check source.
-        final boolean accept;
-        if (source instanceof Player) {
-            accept = this.c.getLoggerTarget().isLogPlayer();
-        } else if (source instanceof CommandBlock || source instanceof CommandBlockMinecart) {
-            accept = this.c.getLoggerTarget().isLogCommandBlock();
-        } else if (source instanceof SystemSubject) {
-            accept = this.c.getLoggerTarget().isLogConsole();
-        } else {
-            accept = this.c.getLoggerTarget().isLogOther();
-        }
-        if (!accept) {
+        if (!currentFilter.acceptsSource(source) || !currentFilter.accepts(event)) {
             // We're not logging this!
             return;
         }
+
         final String name = PlainComponentSerializer.plain().serialize(this.displayNameProvider.getName(source, Component.text("unknown")));
+        final String cause;
+        if (currentFilter.causeEnhanced) {
+            final List<String> stack = new ArrayList<>();
+            for (final Object x : event.cause().all()) {
+                if (x == source) {
+                    continue;
+                }
 
-        final String command = event.command().toLowerCase();
-        final Set<String> commands = CommandNameCache.INSTANCE.getFromCommandAndSource(command, event.commandCause());
-        commands.retainAll(this.commandsToFilter);
-
-        // If whitelist, and we have the command, or if not blacklist, and we do not have the command.
-        if (this.c.isWhitelist() == !commands.isEmpty()) {
-            final String cause;
-            if (this.c.isCauseEnhanced()) {
-                final List<String> l = event.cause()
-                        .all()
-                        .stream()
-                        .filter(x -> (x instanceof PluginContainer || x instanceof Nameable || x instanceof SystemSubject) && x != source)
-                        .map(x -> {
-                            if (x instanceof Nameable) {
-                                return ((Nameable) x).name();
-                            } else if (x instanceof SystemSubject) {
-                                return "Server";
-                            } else {
-                                return "(plugin) " + ((PluginContainer) x).metadata().name();
-                            }
-                        })
-                        .collect(Collectors.toList());
-                if (l.isEmpty()) {
-                    cause = name;
-                } else {
-                    final List<String> stack = new ArrayList<>(l);
-                    Collections.reverse(stack);
-                    cause = String.format("[ %s -> ] %s", String.join(" -> ", stack), name);
+                if (x instanceof Nameable) {
+                    stack.add(((Nameable) x).name());
+                } else if (x instanceof SystemSubject) {
+                    stack.add("Server");
+                } else if (x instanceof PluginContainer) {
+                    stack.add("(plugin) " + ((PluginContainer) x).metadata().name());
                 }
-            } else {
+            }
+
+            if (stack.isEmpty()) {
                 cause = name;
+            } else {
+                Collections.reverse(stack);
+                cause = String.format("[ %s -> ] %s", String.join(" -> ", stack), name);
             }
-            final String message = this.messageProvider.getMessageString("commandlog.message",
-                    cause,
-                    event.command(),
-                    event.arguments());
-            this.logger.info(message);
-            this.handler.queueEntry(message);
+        } else {
+            cause = name;
         }
+        final String message = this.messageProvider.getMessageString("commandlog.message",
+                cause,
+                event.command(),
+                event.arguments());
+        this.logger.info(message);
+        this.handler.queueEntry(message);
     }
 
     @Listener
@@ -127,7 +111,69 @@ public class CommandLoggingListener implements IReloadableService.Reloadable, Li
     }
 
     @Override public void onReload(final INucleusServiceCollection serviceCollection) {
-        this.c = serviceCollection.configProvider().getModuleConfig(CommandLoggerConfig.class);
-        this.commandsToFilter = this.c.getCommandsToFilter().stream().map(String::toLowerCase).collect(Collectors.toSet());
+        this.filter = new Filter(serviceCollection.configProvider().getModuleConfig(CommandLoggerConfig.class));
+    }
+
+    /**
+     * The command logger config, compiled so that deciding whether to log a
+     * command is a single lookup for the command that was run.
+     */
+    private static final class Filter {
+
+        private final boolean logPlayer;
+        private final boolean logCommandBlock;
+        private final boolean logConsole;
+        private final boolean logOther;
+        private final boolean isWhitelist;
+        private final boolean causeEnhanced;
+        private final Set<String> commandsToFilter;
+
+        // Whether any alias of a command is in the filter list. This is
+        // rebuilt along with the filter, so a reload picks up new aliases.
+        private final Map<CommandMapping, Boolean> inFilter = new ConcurrentHashMap<>();
+
+        private Filter(final CommandLoggerConfig config) {
+            this.logPlayer = config.getLoggerTarget().isLogPlayer();
+            this.logCommandBlock = config.getLoggerTarget().isLogCommandBlock();
+            this.logConsole = config.getLoggerTarget().isLogConsole();
+            this.logOther = config.getLoggerTarget().isLogOther();
+            this.isWhitelist = config.isWhitelist();
+            this.causeEnhanced = config.isCauseEnhanced();
+            this.commandsToFilter = config.getCommandsToFilter().stream().map(x -> x.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+        }
+
+        private boolean acceptsSource(final Object source) {
+            if (source instanceof Player) {
+                return this.logPlayer;
+            } else if (source instanceof CommandBlock || source instanceof CommandBlockMinecart) {
+                return this.logCommandBlock;
+            } else if (source instanceof SystemSubject) {
+                return this.logConsole;
+            }
+            return this.logOther;
+        }
+
+        private boolean accepts(final ExecuteCommandEvent.Pre event) {
+            // Log if whitelist, and we have the command, or if not blacklist, and we do not have the command.
+            return this.isWhitelist == this.isFiltered(event);
+        }
+
+        private boolean isFiltered(final ExecuteCommandEvent.Pre event) {
+            final Optional<? extends CommandMapping> mapping =
+                    Sponge.server().commandManager().commandMapping(event.command().toLowerCase(Locale.ROOT));
+            if (!mapping.isPresent()) {
+                return false;
+            }
+
+            Boolean result = this.inFilter.get(mapping.get());
+            if (result == null) {
+                result = mapping.get().allAliases().stream().anyMatch(x -> this.commandsToFilter.contains(x.toLowerCase(Locale.ROOT)));
+                this.inFilter.put(mapping.get(), result);
+            }
+
+            // Commands the source can't run don't count as that command, as before. Only
+            // check this if it can make a difference.
+            return result && mapping.get().registrar().canExecute(event.commandCause(), mapping.get());
+        }
     }
 }
@@ -11,6 +11,7 @@ import io.github.nucleuspowered.nucleus.core.scaffold.listener.ListenerBase;
 import io.github.nucleuspowered.nucleus.core.scaffold.task.TaskBase;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.modules.connection.listeners.ConnectionListener;
+import io.github.nucleuspowered.nucleus.modules.connection.services.LoginCheckService;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -21,7 +22,7 @@ public class ConnectionModule implements IModule.Configurable<ConnectionConfig>
     public static final String ID = "connection";
 
     @Override public void init(final INucleusServiceCollection serviceCollection) {
-
+        serviceCollection.registerService(LoginCheckService.class, new LoginCheckService(serviceCollection), false);
     }
 
     @Override public Collection<Class<? extends ICommandExecutor>> getCommands() {
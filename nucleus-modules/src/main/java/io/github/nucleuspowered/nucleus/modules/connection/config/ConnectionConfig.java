@@ -27,6 +27,10 @@ public class ConnectionConfig {
     @LocalisedComment("config.connection.serverfullmessage")
     private String serverFullMessage = "";
 
+    @Setting(value = "login-check-timeout-millis")
+    @LocalisedComment("config.connection.logincheck.timeout")
+    private long loginCheckTimeoutMillis = 500;
+
     public int getReservedSlots() {
         return this.reservedSlots;
     }
@@ -39,6 +43,10 @@ public class ConnectionConfig {
         return this.getMessageFrom(this.serverFullMessage);
     }
 
+    public long getLoginCheckTimeoutMillis() {
+        return this.loginCheckTimeoutMillis;
+    }
+
     private Optional<Component> getMessageFrom(final String text) {
         if (text == null || text.isEmpty()) {
             return Optional.empty();
@@ -7,6 +7,7 @@ package io.github.nucleuspowered.nucleus.modules.connection.listeners;
 import com.google.inject.Inject;
 import io.github.nucleuspowered.nucleus.modules.connection.ConnectionPermissions;
 import io.github.nucleuspowered.nucleus.modules.connection.config.ConnectionConfig;
+import io.github.nucleuspowered.nucleus.modules.connection.services.LoginCheckService;
 import io.github.nucleuspowered.nucleus.core.scaffold.listener.ListenerBase;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IPermissionService;
@@ -20,8 +21,6 @@ import org.spongepowered.api.event.Order;
 import org.spongepowered.api.event.filter.Getter;
 import org.spongepowered.api.event.filter.IsCancelled;
 import org.spongepowered.api.event.network.ServerSideConnectionEvent;
-import org.spongepowered.api.service.ban.Ban;
-import org.spongepowered.api.service.ban.BanService;
 import org.spongepowered.api.util.Tristate;
 
 import java.util.Optional;
@@ -29,14 +28,27 @@ import java.util.Optional;
 public class ConnectionListener implements IReloadableService.Reloadable, ListenerBase {
 
     private final IPermissionService permissionService;
+    private final LoginCheckService loginCheckService;
 
     private int reservedSlots = 0;
     @Nullable private Component whitelistMessage;
     @Nullable private Component fullMessage;
 
     @Inject
-    public ConnectionListener(final IPermissionService permissionService) {
-        this.permissionService = permissionService;
+    public ConnectionListener(final INucleusServiceCollection serviceCollection) {
+        this.permissionService = serviceCollection.permissionService();
+        this.loginCheckService = serviceCollection.getServiceUnchecked(LoginCheckService.class);
+    }
+
+    /**
+     * Start checking bans and the whitelist while the player authenticates,
+     * so that the login does not have to wait for them.
+     *
+     * @param event The event.
+     */
+    @Listener(order = Order.LATE)
+    public void onPlayerAuth(final ServerSideConnectionEvent.Auth event) {
+        this.loginCheckService.prefetch(event.profile(), event.connection().address().getAddress());
     }
 
     /**
@@ -47,22 +59,16 @@ public class ConnectionListener implements IReloadableService.Reloadable, Listen
     @Listener(order = Order.FIRST)
     @IsCancelled(Tristate.TRUE)
     public void onPlayerJoinAndCancelled(final ServerSideConnectionEvent.Login event, @Getter("user") final User user) {
-        // Don't affect the banned.
-        // Have to join - we need to handle this event
+        // Don't affect the banned. If we couldn't find out in time, don't
+        // let them in either.
         // TODO: Maybe look into getting Sponge to report a ban in this event if there is one.
-        final BanService banService = Sponge.server().serviceProvider().banService();
-        final Optional<Ban.Profile> profileBan = banService.find(user.profile()).join();
-        if (profileBan.isPresent()) {
-            return;
-        }
-
-        final Optional<Ban.IP> ipBan = banService.find(event.connection().address().getAddress()).join();
-        if (ipBan.isPresent()) {
+        final Optional<LoginCheckService.LoginChecks> checks =
+                this.loginCheckService.getChecks(user.profile(), event.connection().address().getAddress());
+        if (!checks.isPresent() || checks.get().isBanned() || checks.get().isIpBanned()) {
             return;
         }
 
-        if (Sponge.server().isWhitelistEnabled()
-            && !Sponge.server().serviceProvider().whitelistService().isWhitelisted(user.profile()).join()) {
+        if (Sponge.server().isWhitelistEnabled() && !checks.get().isWhitelisted()) {
             if (this.whitelistMessage != null) {
                 event.setMessage(this.whitelistMessage);
                 event.setCancelled(true);
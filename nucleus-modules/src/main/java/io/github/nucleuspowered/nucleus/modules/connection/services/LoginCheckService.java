@@ -0,0 +1,179 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.connection.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.inject.Inject;
+import io.github.nucleuspowered.nucleus.core.scaffold.service.IStatisticsReporter;
+import io.github.nucleuspowered.nucleus.core.scaffold.service.ServiceBase;
+import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
+import io.github.nucleuspowered.nucleus.modules.connection.config.ConnectionConfig;
+import org.apache.logging.log4j.Logger;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.profile.GameProfile;
+import org.spongepowered.api.service.ban.BanService;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Looks up whether a connecting player is banned, IP banned or whitelisted
+ * while they are authenticating, so that the result is ready by the time
+ * they log in and the login does not have to wait on the ban or whitelist
+ * services.
+ */
+public class LoginCheckService implements ServiceBase, IReloadableService.Reloadable, IStatisticsReporter {
+
+    private final Logger logger;
+    private final Cache<UUID, CompletableFuture<LoginChecks>> checks = Caffeine.newBuilder()
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .maximumSize(10_000)
+            .build();
+
+    private final AtomicLong resolutions = new AtomicLong();
+    private final AtomicLong resolutionNanos = new AtomicLong();
+    private final AtomicLong slowestResolutionNanos = new AtomicLong();
+    private final AtomicLong prefetched = new AtomicLong();
+    private final AtomicLong notPrefetched = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    private long timeoutMillis = 500;
+
+    @Inject
+    public LoginCheckService(final INucleusServiceCollection serviceCollection) {
+        this.logger = serviceCollection.logger();
+    }
+
+    @Override
+    public void onReload(final INucleusServiceCollection serviceCollection) {
+        this.timeoutMillis = Math.max(0, serviceCollection.configProvider().getModuleConfig(ConnectionConfig.class).getLoginCheckTimeoutMillis());
+    }
+
+    /**
+     * Starts looking up the checks for a connecting player.
+     *
+     * @param profile The {@link GameProfile} of the player
+     * @param address The address they are connecting from
+     */
+    public void prefetch(final GameProfile profile, final InetAddress address) {
+        this.checks.put(profile.uniqueId(), this.resolve(profile, address));
+    }
+
+    /**
+     * Gets the checks for a player who is logging in, waiting a short time
+     * for them if they are not ready.
+     *
+     * @param profile The {@link GameProfile} of the player
+     * @param address The address they are connecting from
+     * @return The checks, or {@link Optional#empty()} if they could not be
+     *      resolved in time
+     */
+    public Optional<LoginChecks> getChecks(final GameProfile profile, final InetAddress address) {
+        CompletableFuture<LoginChecks> future = this.checks.asMap().remove(profile.uniqueId());
+        if (future != null && future.isDone() && !future.isCompletedExceptionally() && future.join().address.equals(address)) {
+            this.prefetched.incrementAndGet();
+            return Optional.of(future.join());
+        }
+
+        this.notPrefetched.incrementAndGet();
+        if (future == null || future.isDone()) {
+            // missing, failed or for another address.
+            future = this.resolve(profile, address);
+        }
+
+        try {
+            return Optional.of(future.get(this.timeoutMillis, TimeUnit.MILLISECONDS));
+        } catch (final TimeoutException e) {
+            this.timeouts.incrementAndGet();
+            this.logger.warn("Ban and whitelist checks for {} took longer than {} ms (average {} ms), so the login has not been "
+                    + "processed further.", profile.uniqueId(), this.timeoutMillis, String.format("%.2f", this.getAverageResolutionMillis()));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            this.logger.error("Could not check the ban or whitelist status of {}", profile.uniqueId(), e.getCause());
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public String getStatisticsHeading() {
+        return "Login ban and whitelist checks";
+    }
+
+    @Override
+    public List<String> getStatistics() {
+        return Arrays.asList(
+                "Resolved: " + this.resolutions.get(),
+                "Average resolution time: " + String.format("%.2f", this.getAverageResolutionMillis()) + " ms",
+                "Slowest resolution time: " + String.format("%.2f", this.slowestResolutionNanos.get() / 1_000_000.0) + " ms",
+                "Ready at login: " + this.prefetched.get(),
+                "Not ready at login: " + this.notPrefetched.get(),
+                "Timed out: " + this.timeouts.get());
+    }
+
+    private double getAverageResolutionMillis() {
+        final long count = this.resolutions.get();
+        if (count == 0) {
+            return 0;
+        }
+        return this.resolutionNanos.get() / (count * 1_000_000.0);
+    }
+
+    private CompletableFuture<LoginChecks> resolve(final GameProfile profile, final InetAddress address) {
+        final long start = System.nanoTime();
+        final BanService banService = Sponge.server().serviceProvider().banService();
+        final CompletableFuture<Boolean> profileBan = banService.find(profile).thenApply(Optional::isPresent);
+        final CompletableFuture<Boolean> ipBan = banService.find(address).thenApply(Optional::isPresent);
+        final CompletableFuture<Boolean> whitelisted = Sponge.server().serviceProvider().whitelistService().isWhitelisted(profile);
+        return CompletableFuture.allOf(profileBan, ipBan, whitelisted).thenApply(x -> {
+            final long taken = System.nanoTime() - start;
+            this.resolutions.incrementAndGet();
+            this.resolutionNanos.addAndGet(taken);
+            this.slowestResolutionNanos.accumulateAndGet(taken, Math::max);
+            return new LoginChecks(address, profileBan.join(), ipBan.join(), whitelisted.join());
+        });
+    }
+
+    /**
+     * The ban and whitelist status of a player, as of when they connected.
+     */
+    public static final class LoginChecks {
+
+        private final InetAddress address;
+        private final boolean banned;
+        private final boolean ipBanned;
+        private final boolean whitelisted;
+
+        private LoginChecks(final InetAddress address, final boolean banned, final boolean ipBanned, final boolean whitelisted) {
+            this.address = address;
+            this.banned = banned;
+            this.ipBanned = ipBanned;
+            this.whitelisted = whitelisted;
+        }
+
+        public boolean isBanned() {
+            return this.banned;
+        }
+
+        public boolean isIpBanned() {
+            return this.ipBanned;
+        }
+
+        public boolean isWhitelisted() {
+            return this.whitelisted;
+        }
+    }
+
+}
@@ -150,7 +150,7 @@ public class FlyListener implements IReloadableService.Reloadable, ListenerBase
                             pl.serverLocation(),
                             false,
                             true,
-                            TeleportScanners.DESCENDING_SCAN.get()
+                            TeleportScanners.HEIGHTMAP_DESCENDING_SCAN.get()
                     );
         }
     }
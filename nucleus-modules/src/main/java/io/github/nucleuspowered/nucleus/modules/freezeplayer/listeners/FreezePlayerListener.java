@@ -4,6 +4,8 @@
  */
 package io.github.nucleuspowered.nucleus.modules.freezeplayer.listeners;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.inject.Inject;
 import io.github.nucleuspowered.nucleus.modules.freezeplayer.services.FreezePlayerService;
 import io.github.nucleuspowered.nucleus.core.scaffold.listener.ListenerBase;
@@ -14,6 +16,7 @@ import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 import org.spongepowered.api.event.Cancellable;
 import org.spongepowered.api.event.Event;
 import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.Order;
 import org.spongepowered.api.event.action.InteractEvent;
 import org.spongepowered.api.event.block.InteractBlockEvent;
 import org.spongepowered.api.event.entity.MoveEntityEvent;
@@ -21,18 +24,19 @@ import org.spongepowered.api.event.filter.Getter;
 import org.spongepowered.api.event.filter.cause.Root;
 import org.spongepowered.api.event.network.ServerSideConnectionEvent;
 
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 public class FreezePlayerListener implements ListenerBase {
 
     private final IMessageProviderService messageProviderService;
     private final FreezePlayerService service;
 
-    private final Map<UUID, Instant> lastFreezeNotification = new HashMap<>();
+    // Players who have been told they are frozen recently, so they are not spammed.
+    private final Cache<UUID, Boolean> recentlyNotified = Caffeine.newBuilder()
+            .expireAfterWrite(2, TimeUnit.SECONDS)
+            .maximumSize(1000)
+            .build();
 
     @Inject
     public FreezePlayerListener(final INucleusServiceCollection serviceCollection) {
@@ -55,17 +59,21 @@ public class FreezePlayerListener implements ListenerBase {
         this.checkForFrozen(event, player, "freeze.cancelinteractblock");
     }
 
-    @Listener
+    @Listener(order = Order.FIRST)
+    public void onPlayerJoin(final ServerSideConnectionEvent.Join event, @Getter("player") final ServerPlayer player) {
+        this.service.loadPlayer(player.uniqueId());
+    }
+
+    @Listener(order = Order.LAST)
     public void onPlayerDisconnect(final ServerSideConnectionEvent.Disconnect event, @Getter("player") final ServerPlayer player) {
-        this.service.invalidate(player.uniqueId());
+        this.service.unloadPlayer(player.uniqueId());
+        this.recentlyNotified.invalidate(player.uniqueId());
     }
 
     private boolean checkForFrozen(final Event event, final Player player, final String message) {
-        if (this.service.getFromUUID(player.uniqueId())) {
-            final Instant now = Instant.now();
-            if (this.lastFreezeNotification.getOrDefault(player.uniqueId(), now).isBefore(now)) {
+        if (this.service.isOnlinePlayerFrozen(player.uniqueId())) {
+            if (this.recentlyNotified.asMap().putIfAbsent(player.uniqueId(), true) == null) {
                 this.messageProviderService.sendMessageTo(player, message);
-                this.lastFreezeNotification.put(player.uniqueId(), now.plus(2, ChronoUnit.SECONDS));
             }
 
             if (event instanceof Cancellable) {
@@ -4,8 +4,6 @@
  */
 package io.github.nucleuspowered.nucleus.modules.freezeplayer.services;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
 import io.github.nucleuspowered.nucleus.api.module.freezeplayer.NucleusFreezePlayerService;
 import io.github.nucleuspowered.nucleus.modules.freezeplayer.FreezePlayerKeys;
 import io.github.nucleuspowered.nucleus.core.scaffold.service.ServiceBase;
@@ -14,32 +12,79 @@ import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.modular.IUserDataObject;
 import io.github.nucleuspowered.storage.dataobjects.keyed.IKeyedDataObject;
 
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.inject.Inject;
 
+/**
+ * Keeps the set of online players who are frozen in memory, so checking
+ * whether a player is frozen never has to go to storage.
+ */
 @APIService(NucleusFreezePlayerService.class)
 public class FreezePlayerService implements ServiceBase, NucleusFreezePlayerService {
 
     private final INucleusServiceCollection serviceCollection;
-    private final LoadingCache<UUID, Boolean> cache;
+
+    private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> loading = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> frozen = ConcurrentHashMap.newKeySet();
 
     @Inject
     public FreezePlayerService(final INucleusServiceCollection serviceCollection) {
         this.serviceCollection = serviceCollection;
-        this.cache = Caffeine.newBuilder().expireAfterAccess(2, TimeUnit.MINUTES)
-                .build(uuid -> this.serviceCollection.storageManager().getUserService().getOnThread(uuid)
-                        .flatMap(x -> x.get(FreezePlayerKeys.FREEZE_PLAYER)).orElse(false));
     }
 
+    public synchronized void loadPlayer(final UUID uuid) {
+        this.online.add(uuid);
+        this.loading.add(uuid);
+        this.serviceCollection.storageManager().getUser(uuid).thenAccept(x -> {
+            final boolean isFrozen = x.flatMap(y -> y.get(FreezePlayerKeys.FREEZE_PLAYER)).orElse(false);
+            synchronized (this) {
+                // if the player has been frozen or unfrozen since they logged in, that wins.
+                if (this.online.contains(uuid) && this.loading.remove(uuid) && isFrozen) {
+                    this.frozen.add(uuid);
+                }
+            }
+        });
+    }
+
+    public synchronized void unloadPlayer(final UUID uuid) {
+        this.online.remove(uuid);
+        this.loading.remove(uuid);
+        this.frozen.remove(uuid);
+    }
+
+    /**
+     * Gets whether the player is frozen. For online players, this only
+     * checks memory.
+     *
+     * @param uuid The {@link UUID} of the player
+     * @return Whether they are frozen
+     */
     public boolean getFromUUID(final UUID uuid) {
-        final Boolean b = this.cache.get(uuid);
-        return b != null ? b : false;
+        if (this.frozen.contains(uuid)) {
+            return true;
+        }
+
+        if (this.online.contains(uuid) && !this.loading.contains(uuid)) {
+            return false;
+        }
+
+        return this.serviceCollection.storageManager().getUserService().getOnThread(uuid)
+                .flatMap(x -> x.get(FreezePlayerKeys.FREEZE_PLAYER)).orElse(false);
     }
 
-    public void invalidate(final UUID uuid) {
-        this.cache.invalidate(uuid);
+    /**
+     * Gets whether an online player is frozen, without going to storage. A
+     * player whose data is still being loaded is treated as not frozen.
+     *
+     * @param uuid The {@link UUID} of the player
+     * @return Whether they are frozen
+     */
+    public boolean isOnlinePlayerFrozen(final UUID uuid) {
+        return this.frozen.contains(uuid);
     }
 
     @Override
@@ -52,7 +97,14 @@ public class FreezePlayerService implements ServiceBase, NucleusFreezePlayerServ
         final IUserDataObject x = this.serviceCollection.storageManager().getUserService().getOrNewOnThread(uuid);
         try (final IKeyedDataObject.Value<Boolean> v = x.getAndSet(FreezePlayerKeys.FREEZE_PLAYER)) {
             v.setValue(freeze);
-            this.cache.put(uuid, freeze);
+            synchronized (this) {
+                this.loading.remove(uuid);
+                if (freeze && this.online.contains(uuid)) {
+                    this.frozen.add(uuid);
+                } else {
+                    this.frozen.remove(uuid);
+                }
+            }
         }
     }
 
@@ -11,6 +11,7 @@ import io.github.nucleuspowered.nucleus.modules.home.commands.HomeLimitCommand;
 import io.github.nucleuspowered.nucleus.modules.home.commands.ListHomeCommand;
 import io.github.nucleuspowered.nucleus.modules.home.commands.SetHomeCommand;
 import io.github.nucleuspowered.nucleus.modules.home.config.HomeConfig;
+import io.github.nucleuspowered.nucleus.modules.home.listeners.HomeListener;
 import io.github.nucleuspowered.nucleus.modules.home.listeners.RespawnConditionalListener;
 import io.github.nucleuspowered.nucleus.modules.home.services.HomeService;
 import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandExecutor;
@@ -19,7 +20,6 @@ import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Optional;
 
 public class HomeModule implements IModule.Configurable<HomeConfig> {
@@ -47,7 +47,7 @@ public class HomeModule implements IModule.Configurable<HomeConfig> {
     }
 
     @Override public Collection<Class<? extends ListenerBase>> getListeners() {
-        return Collections.singleton(RespawnConditionalListener.class);
+        return Arrays.asList(HomeListener.class, RespawnConditionalListener.class);
     }
 
     @Override public Class<HomeConfig> getConfigClass() {
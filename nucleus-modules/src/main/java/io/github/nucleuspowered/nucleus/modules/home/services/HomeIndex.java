@@ -0,0 +1,98 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.home.services;
+
+import io.github.nucleuspowered.nucleus.api.module.home.data.Home;
+import io.github.nucleuspowered.nucleus.core.configurate.datatypes.LocationNode;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * An immutable view of a player's homes, keyed by lower case name so that
+ * lookups do not have to scan the stored map.
+ */
+final class HomeIndex {
+
+    private final UUID owner;
+    private final Map<String, NucleusHome> homes;
+    private final List<Home> homeList;
+    private final Collection<String> names;
+
+    static HomeIndex of(final UUID owner, @Nullable final Map<String, LocationNode> nodes) {
+        if (nodes == null || nodes.isEmpty()) {
+            return new HomeIndex(owner, Collections.emptyMap());
+        }
+
+        final Map<String, NucleusHome> homes = new LinkedHashMap<>();
+        for (final Map.Entry<String, LocationNode> entry : nodes.entrySet()) {
+            homes.put(entry.getKey().toLowerCase(Locale.ROOT), new NucleusHome(entry.getKey(), owner, entry.getValue()));
+        }
+        return new HomeIndex(owner, homes);
+    }
+
+    private HomeIndex(final UUID owner, final Map<String, NucleusHome> homes) {
+        this.owner = owner;
+        this.homes = homes;
+        final List<Home> homeList = new ArrayList<>(homes.size());
+        final List<String> names = new ArrayList<>(homes.size());
+        for (final NucleusHome home : homes.values()) {
+            homeList.add(home);
+            names.add(home.getName());
+        }
+        this.homeList = Collections.unmodifiableList(homeList);
+        this.names = Collections.unmodifiableList(names);
+    }
+
+    Optional<Home> get(final String name) {
+        return Optional.ofNullable(this.homes.get(name.toLowerCase(Locale.ROOT)));
+    }
+
+    boolean contains(final String name) {
+        return this.homes.containsKey(name.toLowerCase(Locale.ROOT));
+    }
+
+    List<Home> getHomes() {
+        return this.homeList;
+    }
+
+    Collection<String> getNames() {
+        return this.names;
+    }
+
+    int size() {
+        return this.homes.size();
+    }
+
+    HomeIndex with(final NucleusHome home) {
+        final Map<String, NucleusHome> homes = new LinkedHashMap<>(this.homes);
+        homes.put(home.getName().toLowerCase(Locale.ROOT), home);
+        return new HomeIndex(this.owner, homes);
+    }
+
+    HomeIndex without(final String name) {
+        final Map<String, NucleusHome> homes = new LinkedHashMap<>(this.homes);
+        homes.remove(name.toLowerCase(Locale.ROOT));
+        return new HomeIndex(this.owner, homes);
+    }
+
+    Map<String, LocationNode> toNodes() {
+        final Map<String, LocationNode> nodes = new HashMap<>();
+        for (final NucleusHome home : this.homes.values()) {
+            nodes.put(home.getName(), new LocationNode(home.getResourceKey(), home.getPosition(), home.getRotation()));
+        }
+        return nodes;
+    }
+
+}
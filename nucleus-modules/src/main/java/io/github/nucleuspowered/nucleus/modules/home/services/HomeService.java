@@ -4,14 +4,14 @@
  */
 package io.github.nucleuspowered.nucleus.modules.home.services;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.inject.Inject;
-import io.github.nucleuspowered.nucleus.core.Util;
 import io.github.nucleuspowered.nucleus.api.module.home.NucleusHomeService;
 import io.github.nucleuspowered.nucleus.api.module.home.data.Home;
 import io.github.nucleuspowered.nucleus.api.module.home.exception.HomeException;
 import io.github.nucleuspowered.nucleus.api.teleport.data.TeleportResult;
 import io.github.nucleuspowered.nucleus.api.teleport.data.TeleportScanners;
-import io.github.nucleuspowered.nucleus.core.configurate.datatypes.LocationNode;
 import io.github.nucleuspowered.nucleus.modules.home.HomeKeys;
 import io.github.nucleuspowered.nucleus.modules.home.HomePermissions;
 import io.github.nucleuspowered.nucleus.modules.home.events.AbstractHomeEvent;
@@ -37,46 +37,141 @@ import org.spongepowered.api.world.server.ServerLocation;
 import org.spongepowered.api.world.teleport.TeleportHelperFilter;
 import org.spongepowered.math.vector.Vector3d;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.regex.Pattern;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manages player homes.
+ *
+ * <p>Each player's homes are held in an immutable {@link HomeIndex}. Indexes
+ * for online players are loaded when they join and dropped when they leave,
+ * offline players' indexes are loaded on demand and held in a small cache.
+ * The index is replaced whenever a home is created, moved or removed.</p>
+ */
 @APIService(NucleusHomeService.class)
 public class HomeService implements NucleusHomeService, ServiceBase {
 
     private final INucleusServiceCollection serviceCollection;
+    private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, HomeIndex> onlineHomes = new ConcurrentHashMap<>();
+    private final Cache<UUID, HomeIndex> offlineHomes = Caffeine.newBuilder()
+            .maximumSize(250)
+            .expireAfterAccess(5, TimeUnit.MINUTES)
+            .build();
+
+    // We are not told when permissions change, so limits are only held briefly.
+    private final Cache<UUID, Integer> maximumHomes = Caffeine.newBuilder()
+            .expireAfterWrite(30, TimeUnit.SECONDS)
+            .build();
 
     @Inject
     public HomeService(final INucleusServiceCollection serviceCollection) {
         this.serviceCollection = serviceCollection;
     }
 
+    /**
+     * Loads the homes for a player who has just joined the server.
+     *
+     * @param uuid The {@link UUID} of the player
+     */
+    public void loadHomes(final UUID uuid) {
+        this.online.add(uuid);
+        final HomeIndex offline = this.offlineHomes.getIfPresent(uuid);
+        if (offline != null) {
+            this.onlineHomes.putIfAbsent(uuid, offline);
+            this.offlineHomes.invalidate(uuid);
+            return;
+        }
+
+        this.serviceCollection.storageManager().getUser(uuid).thenAccept(x -> {
+            // only store it if the player is still around and nothing has been written in the meantime.
+            if (this.online.contains(uuid)) {
+                this.onlineHomes.putIfAbsent(uuid, this.createIndex(uuid, x.orElse(null)));
+            }
+        });
+    }
+
+    public void unloadHomes(final UUID uuid) {
+        this.online.remove(uuid);
+        this.onlineHomes.remove(uuid);
+        this.offlineHomes.invalidate(uuid);
+        this.maximumHomes.invalidate(uuid);
+    }
+
     @Override
     public List<Home> getHomes(final UUID user) {
-        final Optional<IUserDataObject> service = this.serviceCollection.storageManager().getUserOnThread(user); //.get().getHome;
-        return service.map(modularUserService -> this.getHomes(user, modularUserService)).orElseGet(Collections::emptyList);
+        return this.getIndex(user).getHomes();
+    }
 
+    @Override
+    public CompletableFuture<List<Home>> getHomesAsync(final UUID user) {
+        return this.getIndexAsync(user).thenApply(HomeIndex::getHomes);
     }
 
-    private List<Home> getHomes(final UUID user, final IUserDataObject userDataObject) {
-        return this.getHomesFrom(user, userDataObject.get(HomeKeys.HOMES).orElseGet(Collections::emptyMap));
+    @Override
+    public int getHomeCount(final UUID user) {
+        return this.getIndex(user).size();
     }
 
     public Collection<String> getHomeNames(final UUID user) {
-        return this.serviceCollection.storageManager()
-                .getUserOnThread(user).flatMap(x -> x.get(HomeKeys.HOMES).map(Map::keySet)).orElseGet(Collections::emptySet);
+        return this.getIndex(user).getNames();
     }
 
     @Override public Optional<Home> getHome(final UUID user, final String name) {
-        final Optional<IUserDataObject> service = this.serviceCollection.storageManager().getUser(user).join();
-        return service.flatMap(modularUserService -> this.getHome(name, user, modularUserService.get(HomeKeys.HOMES).orElse(null)));
+        return this.getIndex(user).get(name);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Home>> getHomeAsync(final UUID user, final String name) {
+        return this.getIndexAsync(user).thenApply(x -> x.get(name));
+    }
+
+    private HomeIndex getIndex(final UUID uuid) {
+        final HomeIndex index = this.getCachedIndex(uuid);
+        if (index != null) {
+            return index;
+        }
+        return this.offlineHomes.get(uuid,
+                key -> this.createIndex(key, this.serviceCollection.storageManager().getUserOnThread(key).orElse(null)));
+    }
+
+    private CompletableFuture<HomeIndex> getIndexAsync(final UUID uuid) {
+        final HomeIndex index = this.getCachedIndex(uuid);
+        if (index != null) {
+            return CompletableFuture.completedFuture(index);
+        }
+        return this.serviceCollection.storageManager().getUser(uuid).thenApply(x -> {
+            final HomeIndex created = this.createIndex(uuid, x.orElse(null));
+            final HomeIndex existing = this.getCachedIndex(uuid);
+            if (existing != null) {
+                return existing;
+            }
+            this.offlineHomes.put(uuid, created);
+            return created;
+        });
+    }
+
+    @Nullable
+    private HomeIndex getCachedIndex(final UUID uuid) {
+        final HomeIndex index = this.onlineHomes.get(uuid);
+        if (index != null) {
+            return index;
+        }
+        return this.offlineHomes.getIfPresent(uuid);
+    }
 
+    private HomeIndex createIndex(final UUID uuid, @Nullable final IUserDataObject userDataObject) {
+        if (userDataObject == null) {
+            return HomeIndex.of(uuid, null);
+        }
+        return HomeIndex.of(uuid, userDataObject.get(HomeKeys.HOMES).orElse(null));
     }
 
     @Override public void createHome(final UUID user, final String name, final ServerLocation location, final Vector3d rotation)
@@ -94,9 +189,8 @@ public class HomeService implements NucleusHomeService, ServiceBase {
         }
 
         final int max = this.getMaximumHomes(user);
-        final IUserDataObject udo = this.serviceCollection.storageManager().getOrCreateUserOnThread(user);
-        final Map<String, LocationNode> m = udo.get(HomeKeys.HOMES).orElseGet(Collections::emptyMap);
-        if (m.size() >= max) {
+        final HomeIndex index = this.getIndex(user);
+        if (index.size() >= max) {
             throw new HomeException(
                     this.serviceCollection.messageProvider().getMessageFor(cause.first(Audience.class).orElseGet(Sponge::systemSubject),
                             "command.sethome.limit", String.valueOf(max)),
@@ -106,7 +200,7 @@ public class HomeService implements NucleusHomeService, ServiceBase {
         final CreateHomeEvent event = new CreateHomeEvent(name, user, cause, location);
         this.postEvent(event);
 
-        if (!this.setHome(user, m, name, location, rotation, false)) {
+        if (!this.setHome(user, index, name, location, rotation, false)) {
             throw new HomeException(
                     this.serviceCollection.messageProvider().getMessageFor(
                         cause.first(Audience.class).orElseGet(Sponge::systemSubject),
@@ -137,9 +231,8 @@ public class HomeService implements NucleusHomeService, ServiceBase {
         final ModifyHomeEvent event = new ModifyHomeEvent(cause, home, location);
         this.postEvent(event);
 
-        final IUserDataObject udo = this.serviceCollection.storageManager().getOrCreateUserOnThread(home.getOwnersUniqueId());
-        final Map<String, LocationNode> m = udo.get(HomeKeys.HOMES).orElseGet(Collections::emptyMap);
-        if (!this.setHome(home.getOwnersUniqueId(), m, home.getName(), location, rotation, true)) {
+        final HomeIndex index = this.getIndex(home.getOwnersUniqueId());
+        if (!this.setHome(home.getOwnersUniqueId(), index, home.getName(), location, rotation, true)) {
             throw new HomeException(
                     this.serviceCollection.messageProvider().getMessageFor(
                             cause.first(Audience.class).orElseGet(Sponge::systemSubject),
@@ -161,9 +254,8 @@ public class HomeService implements NucleusHomeService, ServiceBase {
             final DeleteHomeEvent event = new DeleteHomeEvent(cause, home);
             this.postEvent(event);
 
-            final IUserDataObject udo = this.serviceCollection.storageManager().getOrCreateUserOnThread(home.getOwnersUniqueId());
-            final Map<String, LocationNode> m = udo.get(HomeKeys.HOMES).orElseGet(Collections::emptyMap);
-            if (!this.deleteHome(home.getOwnersUniqueId(), m, home.getName())) {
+            final HomeIndex index = this.getIndex(home.getOwnersUniqueId());
+            if (!this.deleteHome(home.getOwnersUniqueId(), index, home.getName())) {
                 throw new HomeException(
                         this.serviceCollection.messageProvider().getMessageFor(
                                 cause.first(Audience.class).orElseGet(Sponge::systemSubject),
@@ -186,13 +278,15 @@ public class HomeService implements NucleusHomeService, ServiceBase {
 
     @Override
     public int getMaximumHomes(final User src) {
-        final IPermissionService permissionService = this.serviceCollection.permissionService();
-        if (permissionService.hasPermission(src, HomePermissions.HOMES_UNLIMITED)) {
-            return Integer.MAX_VALUE;
-        }
+        return this.maximumHomes.get(src.uniqueId(), uuid -> {
+            final IPermissionService permissionService = this.serviceCollection.permissionService();
+            if (permissionService.hasPermission(src, HomePermissions.HOMES_UNLIMITED)) {
+                return Integer.MAX_VALUE;
+            }
 
-        return Math.max(permissionService.getPositiveIntOptionFromSubject(src, NucleusHomeService.HOME_COUNT_OPTION)
-                .orElse(1), 1);
+            return Math.max(permissionService.getPositiveIntOptionFromSubject(src, NucleusHomeService.HOME_COUNT_OPTION)
+                    .orElse(1), 1);
+        });
     }
 
     public TeleportResult warpToHome(final ServerPlayer src, final Home home, final boolean safeTeleport) throws HomeException {
@@ -239,79 +333,36 @@ public class HomeService implements NucleusHomeService, ServiceBase {
         }
     }
 
-    private List<Home> getHomesFrom(final UUID uuid, final Map<String, LocationNode> msln) {
-        final List<Home> i = new ArrayList<>();
-        for (final Map.Entry<String, LocationNode> entry : msln.entrySet()) {
-            i.add(this.getHomeFrom(entry.getKey(), uuid, entry.getValue()));
-        }
-
-        return Collections.unmodifiableList(i);
-    }
-
-    private Home getHomeFrom(final String string, final UUID user, final LocationNode node) {
-        return new NucleusHome(string, user, node);
-    }
-
-    private Optional<Home> getHome(final String home, final UUID uuid, @Nullable final Map<String, LocationNode> homeData) {
-        if (homeData == null) {
-            return Optional.empty();
-        }
-        return Util.getValueIgnoreCase(homeData, home).map(x -> this.getHomeFrom(home, uuid, x));
-    }
-
-    private boolean setHome(final UUID uuid, Map<String, LocationNode> m, final String home, final ServerLocation location, final Vector3d rotation,
+    private boolean setHome(final UUID uuid, final HomeIndex index, final String home, final ServerLocation location, final Vector3d rotation,
             final boolean overwrite) {
-        final Pattern warpName = Pattern.compile("^[a-zA-Z][a-zA-Z0-9]{1,15}$");
-
-        if (m == null) {
-            m = new HashMap<>();
-        } else {
-            m = new HashMap<>(m);
-        }
-
-        final Optional<String> os = Util.getKeyIgnoreCase(m, home);
-        if (os.isPresent() || !warpName.matcher(home).matches()) {
-            if (!overwrite || !this.deleteHome(m, home)) {
+        HomeIndex updated = index;
+        if (index.contains(home) || !NucleusHomeService.HOME_NAME_PATTERN.matcher(home).matches()) {
+            if (!overwrite || !index.contains(home)) {
                 return false;
             }
+            updated = index.without(home);
         }
 
-        m.put(home, new LocationNode(location, rotation));
-        this.setAndSave(uuid, m);
+        this.setAndSave(uuid, updated.with(new NucleusHome(home, uuid, location.worldKey(), location.position(), rotation)));
         return true;
     }
 
-    private boolean deleteHome(final Map<String, LocationNode> m, final String home) {
-        if (m == null || m.isEmpty()) {
+    private boolean deleteHome(final UUID uuid, final HomeIndex index, final String home) {
+        if (!index.contains(home)) {
             return false;
         }
 
-        final Optional<String> os = Util.getKeyIgnoreCase(m, home);
-        if (os.isPresent()) {
-            m.remove(os.get());
-            return true;
-        }
-
-        return false;
+        this.setAndSave(uuid, index.without(home));
+        return true;
     }
 
-    private boolean deleteHome(final UUID uuid, Map<String, LocationNode> m, final String home) {
-        if (m == null || m.isEmpty()) {
-            return false;
-        }
-
-        final Optional<String> os = Util.getKeyIgnoreCase(m, home);
-        if (os.isPresent()) {
-            m = new HashMap<>(m);
-            m.remove(os.get());
-            this.setAndSave(uuid, m);
-            return true;
+    private void setAndSave(final UUID uuid, final HomeIndex index) {
+        if (this.online.contains(uuid)) {
+            this.onlineHomes.put(uuid, index);
+            this.offlineHomes.invalidate(uuid);
+        } else {
+            this.offlineHomes.put(uuid, index);
         }
-
-        return false;
-    }
-
-    private void setAndSave(final UUID uuid, final Map<String, LocationNode> map) {
-        this.serviceCollection.storageManager().getUserService().setAndSave(uuid, HomeKeys.HOMES, map);
+        this.serviceCollection.storageManager().getUserService().setAndSave(uuid, HomeKeys.HOMES, index.toNodes());
     }
 }
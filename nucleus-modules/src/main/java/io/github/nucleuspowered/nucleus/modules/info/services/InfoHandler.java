@@ -8,6 +8,7 @@ import io.github.nucleuspowered.nucleus.core.io.TextFileController;
 import io.github.nucleuspowered.nucleus.core.scaffold.service.ServiceBase;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.ITextFileControllerCollection;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.asset.AssetManager;
 import org.spongepowered.plugin.PluginContainer;
@@ -103,8 +104,11 @@ public class InfoHandler implements IReloadableService.Reloadable, ServiceBase {
             }
         });
 
-        // All good - replace it all!
+        // All good - replace it all, and pick up any edits to the new files as they happen.
+        final ITextFileControllerCollection textFileControllerCollection = serviceCollection.textFileControllerCollection();
+        this.infoFiles.values().forEach(textFileControllerCollection::unwatch);
         this.infoFiles.clear();
         this.infoFiles.putAll(mst);
+        mst.values().forEach(textFileControllerCollection::watch);
     }
 }
@@ -11,6 +11,7 @@ import io.github.nucleuspowered.storage.dataobjects.keyed.DataKey;
 
 public final class MailKeys {
 
+    // Mail is now kept in its own store, this is only read to move old mail into it.
     public static final DataKey.ListKey<MailMessage, IUserDataObject> MAIL_DATA =
             DataKey.ofList(TypeTokens.MAIL_MESSAGE, IUserDataObject.class, "mailData");
 
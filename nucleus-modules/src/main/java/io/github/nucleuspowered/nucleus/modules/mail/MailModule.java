@@ -12,9 +12,11 @@ import io.github.nucleuspowered.nucleus.modules.mail.commands.MailOtherCommand;
 import io.github.nucleuspowered.nucleus.modules.mail.commands.SendMailCommand;
 import io.github.nucleuspowered.nucleus.modules.mail.data.MailMessageSerialiser;
 import io.github.nucleuspowered.nucleus.modules.mail.listeners.MailListener;
+import io.github.nucleuspowered.nucleus.modules.mail.runnables.MailCompactionTask;
 import io.github.nucleuspowered.nucleus.modules.mail.services.MailHandler;
 import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandExecutor;
 import io.github.nucleuspowered.nucleus.core.scaffold.listener.ListenerBase;
+import io.github.nucleuspowered.nucleus.core.scaffold.task.TaskBase;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import org.spongepowered.configurate.serialize.TypeSerializerCollection;
 
@@ -53,4 +55,9 @@ public final class MailModule implements IModule {
     @Override public Collection<Class<? extends ListenerBase>> getListeners() {
         return Collections.singleton(MailListener.class);
     }
+
+    @Override
+    public Collection<Class<? extends TaskBase>> getAsyncTasks() {
+        return Collections.singleton(MailCompactionTask.class);
+    }
 }
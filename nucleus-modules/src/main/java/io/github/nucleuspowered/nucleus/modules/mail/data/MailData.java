@@ -26,14 +26,26 @@ public class MailData implements MailMessage {
     @Setting
     private String message;
 
+    // The ID of the message in the mailbox it was read from, zero if it has not been stored.
+    private transient long id;
+
     public MailData() { }
 
     public MailData(final UUID uuid, final Instant date, final String message) {
+        this(0, uuid, date, message);
+    }
+
+    public MailData(final long id, @Nullable final UUID uuid, final Instant date, final String message) {
+        this.id = id;
         this.uuid = uuid;
         this.date = date.toEpochMilli();
         this.message = message;
     }
 
+    public long getId() {
+        return this.id;
+    }
+
     @Override public String getMessage() {
         return this.message;
     }
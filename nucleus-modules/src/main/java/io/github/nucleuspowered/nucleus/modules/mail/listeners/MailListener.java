@@ -4,6 +4,7 @@
  */
 package io.github.nucleuspowered.nucleus.modules.mail.listeners;
 
+import io.github.nucleuspowered.nucleus.core.core.services.LoginPrefetchService;
 import io.github.nucleuspowered.nucleus.modules.mail.services.MailHandler;
 import io.github.nucleuspowered.nucleus.core.scaffold.listener.ListenerBase;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
@@ -21,6 +22,7 @@ import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.filter.Getter;
 
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -33,19 +35,24 @@ public class MailListener implements ListenerBase {
     private final PluginContainer pluginContainer;
     private final MailHandler handler;
     private final IMessageProviderService messageProvider;
+    private final LoginPrefetchService loginPrefetchService;
+    private final LoginPrefetchService.Key<Integer> mailCount;
 
     @Inject
     public MailListener(final INucleusServiceCollection serviceCollection) {
         this.messageProvider = serviceCollection.messageProvider();
         this.handler = serviceCollection.getServiceUnchecked(MailHandler.class);
         this.pluginContainer = serviceCollection.pluginContainer();
+        this.loginPrefetchService = serviceCollection.getServiceUnchecked(LoginPrefetchService.class);
+        this.mailCount = this.loginPrefetchService.register("mail count", this.handler::getMailCountForLogin);
     }
 
     @Listener
     public void onPlayerJoin(final ServerSideConnectionEvent.Join event, @Getter("player") final ServerPlayer player) {
         final UUID uuid = player.uniqueId();
+        final Optional<Integer> prefetched = this.loginPrefetchService.get(uuid, this.mailCount);
         Sponge.asyncScheduler().createExecutor(this.pluginContainer).schedule(() -> {
-            final int mailCount = this.handler.getMailInternal(uuid).size();
+            final int mailCount = prefetched.orElseGet(() -> this.handler.getMailCount(uuid));
             if (mailCount > 0) {
                 this.messageProvider.sendMessageTo(player, "mail.login", String.valueOf(mailCount));
                 player.sendMessage(
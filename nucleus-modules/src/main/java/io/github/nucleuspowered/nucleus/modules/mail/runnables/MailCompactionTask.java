@@ -0,0 +1,37 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.mail.runnables;
+
+import com.google.inject.Inject;
+import io.github.nucleuspowered.nucleus.core.scaffold.task.TaskBase;
+import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.modules.mail.services.MailHandler;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Rewrites mailboxes that have built up a lot of deleted mail.
+ */
+public class MailCompactionTask implements TaskBase {
+
+    private final MailHandler handler;
+
+    @Inject
+    public MailCompactionTask(final INucleusServiceCollection serviceCollection) {
+        this.handler = serviceCollection.getServiceUnchecked(MailHandler.class);
+    }
+
+    @Override
+    public Duration interval() {
+        return Duration.of(5, ChronoUnit.MINUTES);
+    }
+
+    @Override
+    public void run() {
+        this.handler.compactMailboxes();
+    }
+
+}
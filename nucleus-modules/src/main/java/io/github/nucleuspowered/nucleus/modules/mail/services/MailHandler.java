@@ -4,11 +4,11 @@
  */
 package io.github.nucleuspowered.nucleus.modules.mail.services;
 
+import com.google.common.base.Preconditions;
 import com.google.inject.Inject;
 import io.github.nucleuspowered.nucleus.core.Util;
 import io.github.nucleuspowered.nucleus.api.module.mail.NucleusMailService;
 import io.github.nucleuspowered.nucleus.api.module.mail.data.MailMessage;
-import io.github.nucleuspowered.nucleus.modules.mail.MailKeys;
 import io.github.nucleuspowered.nucleus.modules.mail.data.MailData;
 import io.github.nucleuspowered.nucleus.modules.mail.events.InternalNucleusSendMailEvent;
 import io.github.nucleuspowered.nucleus.modules.mail.parameter.MailFilterParameter;
@@ -17,7 +17,7 @@ import io.github.nucleuspowered.nucleus.core.scaffold.service.annotations.APISer
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.modular.IUserDataObject;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IMessageProviderService;
-import io.github.nucleuspowered.nucleus.core.services.interfaces.IStorageManager;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.LinearComponents;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -25,25 +25,26 @@ import org.spongepowered.api.Sponge;
 import org.spongepowered.api.command.parameter.Parameter;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 @APIService(NucleusMailService.class)
-public class MailHandler implements NucleusMailService, ServiceBase {
+public class MailHandler implements NucleusMailService, ServiceBase, IReloadableService.DataLocationReloadable {
 
     private final INucleusServiceCollection serviceCollection;
     private final Parameter.Value<MailFilter> mailFilterParameter;
+    private final MailboxStore store;
 
     @Inject
     public MailHandler(final INucleusServiceCollection serviceCollection) {
         this.serviceCollection = serviceCollection;
+        this.store = new MailboxStore(
+                () -> serviceCollection.dataDir().get().resolve("mail"),
+                serviceCollection.storageManager(),
+                serviceCollection.logger());
         this.mailFilterParameter = Parameter.builder(MailFilter.class)
                 .consumeAllRemaining()
                 .optional()
@@ -52,56 +53,63 @@ public class MailHandler implements NucleusMailService, ServiceBase {
                 .build();
     }
 
+    @Override
+    public void onDataFileLocationChange(final INucleusServiceCollection serviceCollection) {
+        this.store.clearCache();
+    }
+
     public Parameter.Value<MailFilter> getMailFilterParameter() {
         return this.mailFilterParameter;
     }
 
     @Override
     public final List<MailMessage> getMail(final UUID player, final MailFilter... filters) {
-        return new ArrayList<>(this.getMailInternal(player, filters));
+        return this.getMailInternal(player, filters);
     }
 
-    public final List<MailMessage> getMailInternal(final UUID player, final MailFilter... filters) {
-        final List<MailMessage> data = this.serviceCollection.storageManager().getUserService()
-                .getOrNewOnThread(player)
-                .getNullable(MailKeys.MAIL_DATA);
-        if (data == null || data.isEmpty()) {
-            return Collections.emptyList();
-        }
+    @Override
+    public List<MailMessage> getMailPage(final UUID player, final int offset, final int limit, final MailFilter... filters) {
+        Preconditions.checkArgument(offset >= 0, "offset must not be negative");
+        Preconditions.checkArgument(limit >= 0, "limit must not be negative");
+        return this.store.get(player, MailHandler.combine(filters), offset, limit);
+    }
 
-        if (filters.length == 0) {
-            return Collections.unmodifiableList(data);
-        }
+    @Override
+    public int getMailCount(final UUID player) {
+        return this.store.count(player);
+    }
 
-        final Predicate<MailMessage> lmf = Arrays.stream(filters).map(x -> (Predicate<MailMessage>)x).reduce(Predicate::and).orElse(x -> true);
-        return data.stream().filter(lmf).collect(Collectors.toList());
+    /**
+     * Counts the player's mail while they are logging in, without changing
+     * their data.
+     *
+     * @param player The player
+     * @param dataObject The player's data
+     * @return The number of messages
+     */
+    public int getMailCountForLogin(final UUID player, final IUserDataObject dataObject) {
+        return this.store.countWithoutMigrating(player, dataObject);
+    }
+
+    public final List<MailMessage> getMailInternal(final UUID player, final MailFilter... filters) {
+        return this.store.get(player, MailHandler.combine(filters), 0, Integer.MAX_VALUE);
     }
 
     @Override
     public boolean removeMail(final UUID player, final MailMessage mailData) {
-        final Optional<IUserDataObject> o = this.serviceCollection.storageManager().getUserService().getOnThread(player);
-        if (!o.isPresent()) {
-            return false;
+        if (mailData instanceof MailData && ((MailData) mailData).getId() != 0) {
+            final long id = ((MailData) mailData).getId();
+            return this.store.remove(player, x -> x.getId() == id);
         }
-        final IUserDataObject dataObject = o.get();
-        final List<MailMessage> data = dataObject.get(MailKeys.MAIL_DATA).orElseGet(ArrayList::new);
-        final boolean result = data.removeIf(x ->
+
+        return this.store.remove(player, x ->
                 mailData.getDate().equals(x.getDate()) &&
                 mailData.getMessage().equalsIgnoreCase(x.getMessage()) &&
                 Objects.equals(mailData.getSender().orElse(null), x.getSender().orElse(null)));
-
-        if (result) {
-            dataObject.set(MailKeys.MAIL_DATA, data);
-            this.serviceCollection.storageManager().getUserService().save(player, dataObject);
-        }
-
-        return result;
     }
 
     @Override
     public void sendMail(@Nullable final UUID playerFrom, final UUID playerTo, final String message) {
-        final IUserDataObject dataObject = this.serviceCollection.storageManager().getUserService().getOrNewOnThread(playerTo);
-
         // Message is about to be sent. Send the event out. If canceled, then
         // that's that.
         final IMessageProviderService messageProvider = this.serviceCollection.messageProvider();
@@ -117,15 +125,34 @@ public class MailHandler implements NucleusMailService, ServiceBase {
             return;
         }
 
-        final List<MailMessage> messages = dataObject.get(MailKeys.MAIL_DATA).orElseGet(ArrayList::new);
-        final MailData md = new MailData(playerFrom == null ? Util.CONSOLE_FAKE_UUID : playerFrom, Instant.now(), message);
-        messages.add(md);
-        dataObject.set(MailKeys.MAIL_DATA, messages);
-        this.serviceCollection.storageManager().getUserService().save(playerTo, dataObject);
+        final UUID sender = playerFrom == null ? Util.CONSOLE_FAKE_UUID : playerFrom;
+        final Instant date = Instant.now();
+        if (Sponge.server().onMainThread()) {
+            // writing to the mailbox, and moving the recipient's old mail over if it is the first time, hits the disk.
+            Sponge.asyncScheduler().createExecutor(this.serviceCollection.pluginContainer())
+                    .execute(() -> this.appendMail(sender, playerTo, date, message));
+        } else {
+            this.appendMail(sender, playerTo, date, message);
+        }
+    }
 
-        final Component from = this.serviceCollection.playerDisplayNameService().getDisplayName(md.getUuid());
-        Sponge.server().player(playerTo).ifPresent(x ->
-                x.sendMessage(LinearComponents.linear(messageProvider.getMessageFor(x, "mail.youvegotmail"), Component.space(), from)));
+    private void appendMail(final UUID sender, final UUID playerTo, final Instant date, final String message) {
+        final MailData md;
+        try {
+            md = this.store.append(playerTo, sender, date, message);
+        } catch (final RuntimeException e) {
+            this.serviceCollection.logger().error("Could not send mail from {} to {}", sender, playerTo, e);
+            this.serviceCollection.schedulerService().runOnMainThread(() -> Sponge.server().player(sender)
+                    .ifPresent(x -> this.serviceCollection.messageProvider().sendMessageTo(x, "mail.send.failed")));
+            return;
+        }
+
+        this.serviceCollection.schedulerService().runOnMainThread(() -> {
+            final IMessageProviderService messageProvider = this.serviceCollection.messageProvider();
+            final Component from = this.serviceCollection.playerDisplayNameService().getDisplayName(md.getUuid());
+            Sponge.server().player(playerTo).ifPresent(x ->
+                    x.sendMessage(LinearComponents.linear(messageProvider.getMessageFor(x, "mail.youvegotmail"), Component.space(), from)));
+        });
     }
 
     @Override
@@ -135,15 +162,19 @@ public class MailHandler implements NucleusMailService, ServiceBase {
 
     @Override
     public boolean clearUserMail(final UUID player) {
-        final IStorageManager storageManager = this.serviceCollection.storageManager();
-        final IUserDataObject dataObject = storageManager.getUserService().getOnThread(player).orElse(null);
-        if (dataObject != null && dataObject.getNullable(MailKeys.MAIL_DATA) != null) {
-            dataObject.remove(MailKeys.MAIL_DATA);
-            storageManager.getUserService().save(player, dataObject);
-            return true;
-        }
+        return this.store.clear(player);
+    }
 
-        return false;
+    public void compactMailboxes() {
+        this.store.compact();
+    }
+
+    @Nullable
+    private static Predicate<MailMessage> combine(final MailFilter... filters) {
+        if (filters.length == 0) {
+            return null;
+        }
+        return Arrays.stream(filters).map(x -> (Predicate<MailMessage>) x).reduce(Predicate::and).orElse(null);
     }
 
 }
@@ -0,0 +1,465 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.mail.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.nucleuspowered.nucleus.api.module.mail.data.MailMessage;
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.modular.IUserDataObject;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.IStorageManager;
+import io.github.nucleuspowered.nucleus.modules.mail.MailKeys;
+import io.github.nucleuspowered.nucleus.modules.mail.data.MailData;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Stores each player's mail in its own append-only file, separate from the
+ * rest of their data.
+ *
+ * <p>Each line of a mailbox file is a record. Sending mail appends an
+ * {@code A} record with the message ID, and deleting mail appends a {@code D}
+ * tombstone for that ID, so neither needs the rest of the mailbox to be read
+ * or written. Mailboxes that build up more tombstones than messages are queued
+ * to be compacted, which rewrites them with only the live messages.</p>
+ *
+ * <p>Mailboxes that have been read are cached, and kept up to date as mail is
+ * sent and deleted. All access to a mailbox's file is done under a lock for
+ * that player.</p>
+ *
+ * <p>This does not go through the {@link IStorageManager}, as its
+ * repositories only read and write whole data objects, so adding a message
+ * would still mean loading and rewriting the whole mailbox. The files live
+ * under the Nucleus data directory, so they move with it, but they are not
+ * stored by any other storage repository that is in use.</p>
+ *
+ * <p>Reads and writes here block on the disk, so they should not be done on
+ * the main thread where it can be avoided.</p>
+ */
+final class MailboxStore {
+
+    private static final String EXTENSION = ".mail";
+    private static final String ADD = "A";
+    private static final String DELETE = "D";
+    private static final String NO_SENDER = "-";
+    private static final int COMPACTION_THRESHOLD = 32;
+    private static final int TRUNCATE_BUFFER_SIZE = 1024;
+
+    private final Supplier<Path> directory;
+    private final IStorageManager storageManager;
+    private final Logger logger;
+
+    private final Object[] locks = new Object[64];
+    private final Cache<UUID, Mailbox> mailboxes = Caffeine.newBuilder()
+            .maximumSize(500)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+    private final Set<UUID> migrated = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> toCompact = ConcurrentHashMap.newKeySet();
+    private final AtomicLong lastId = new AtomicLong();
+
+    MailboxStore(final Supplier<Path> directory, final IStorageManager storageManager, final Logger logger) {
+        this.directory = directory;
+        this.storageManager = storageManager;
+        this.logger = logger;
+        for (int i = 0; i < this.locks.length; i++) {
+            this.locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Adds a message to the end of the player's mailbox.
+     *
+     * @param player The player
+     * @param sender The sender, or {@code null} for the server
+     * @param date The date the message was sent
+     * @param message The message
+     * @return The stored message
+     */
+    MailData append(final UUID player, @Nullable final UUID sender, final Instant date, final String message) {
+        final MailData mailData = new MailData(this.nextId(), sender, date, message);
+        synchronized (this.lock(player)) {
+            this.ensureMigrated(player);
+            this.write(player, Collections.singletonList(MailboxStore.toRecord(mailData)), StandardOpenOption.APPEND);
+            final Mailbox mailbox = this.mailboxes.getIfPresent(player);
+            if (mailbox != null) {
+                mailbox.messages.put(mailData.getId(), mailData);
+            }
+        }
+        return mailData;
+    }
+
+    /**
+     * Gets the messages in the player's mailbox that match the filter, oldest
+     * first.
+     *
+     * @param player The player
+     * @param filter The filter
+     * @param offset The number of matching messages to skip
+     * @param limit The maximum number of messages to return
+     * @return The messages
+     */
+    List<MailMessage> get(final UUID player, @Nullable final Predicate<MailMessage> filter, final int offset, final int limit) {
+        synchronized (this.lock(player)) {
+            final Collection<MailData> messages = this.load(player).messages.values();
+            final List<MailMessage> result = new ArrayList<>(Math.min(limit, messages.size()));
+            int skipped = 0;
+            for (final MailData message : messages) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (filter == null || filter.test(message)) {
+                    if (skipped < offset) {
+                        skipped++;
+                    } else {
+                        result.add(message);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    int count(final UUID player) {
+        synchronized (this.lock(player)) {
+            return this.load(player).messages.size();
+        }
+    }
+
+    /**
+     * Counts the messages in the player's mailbox without moving any mail
+     * that is still held with the rest of their data, so that the data is
+     * only read.
+     *
+     * @param player The player
+     * @param dataObject The player's data
+     * @return The number of messages
+     */
+    int countWithoutMigrating(final UUID player, final IUserDataObject dataObject) {
+        synchronized (this.lock(player)) {
+            if (!this.migrated.contains(player) && !Files.exists(this.getFile(player))) {
+                // the mail will be moved over when the mailbox is next used.
+                return dataObject.get(MailKeys.MAIL_DATA).map(List::size).orElse(0);
+            }
+            return this.count(player);
+        }
+    }
+
+    /**
+     * Removes the messages that match the predicate.
+     *
+     * @param player The player
+     * @param predicate The predicate
+     * @return Whether any messages were removed
+     */
+    boolean remove(final UUID player, final Predicate<MailData> predicate) {
+        synchronized (this.lock(player)) {
+            final Mailbox mailbox = this.load(player);
+            final List<Long> ids = new ArrayList<>();
+            final List<String> records = new ArrayList<>();
+            for (final MailData message : mailbox.messages.values()) {
+                if (predicate.test(message)) {
+                    ids.add(message.getId());
+                    records.add(DELETE + " " + message.getId());
+                }
+            }
+
+            if (records.isEmpty()) {
+                return false;
+            }
+
+            this.write(player, records, StandardOpenOption.APPEND);
+            ids.forEach(mailbox.messages::remove);
+            // each deletion leaves both the original record and its tombstone behind.
+            mailbox.deadRecords += records.size() * 2;
+            this.checkCompaction(player, mailbox);
+            return true;
+        }
+    }
+
+    boolean clear(final UUID player) {
+        synchronized (this.lock(player)) {
+            final Mailbox mailbox = this.load(player);
+            if (mailbox.messages.isEmpty()) {
+                return false;
+            }
+
+            this.rewrite(player, Collections.emptyList());
+            mailbox.messages.clear();
+            mailbox.deadRecords = 0;
+            this.toCompact.remove(player);
+            return true;
+        }
+    }
+
+    /**
+     * Forgets all cached mailboxes and which players have had their mail
+     * moved over, for when the data directory changes.
+     */
+    void clearCache() {
+        this.mailboxes.invalidateAll();
+        this.migrated.clear();
+        this.toCompact.clear();
+    }
+
+    /**
+     * Rewrites any mailboxes that have built up too many deleted messages.
+     */
+    void compact() {
+        final Iterator<UUID> iterator = this.toCompact.iterator();
+        while (iterator.hasNext()) {
+            final UUID player = iterator.next();
+            iterator.remove();
+            synchronized (this.lock(player)) {
+                try {
+                    final Mailbox mailbox = this.load(player);
+                    this.rewrite(player, mailbox.messages.values());
+                    mailbox.deadRecords = 0;
+                } catch (final UncheckedIOException e) {
+                    this.logger.warn("Could not compact the mailbox for {}.", player, e);
+                }
+            }
+        }
+    }
+
+    private Mailbox load(final UUID player) {
+        Mailbox mailbox = this.mailboxes.getIfPresent(player);
+        if (mailbox == null) {
+            this.ensureMigrated(player);
+            mailbox = this.read(player);
+            this.mailboxes.put(player, mailbox);
+            this.checkCompaction(player, mailbox);
+        }
+        return mailbox;
+    }
+
+    private Mailbox read(final UUID player) {
+        final Mailbox mailbox = new Mailbox();
+        final Path file = this.getFile(player);
+        if (!Files.exists(file)) {
+            return mailbox;
+        }
+
+        long maxId = 0;
+        try (final BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                try {
+                    final String[] parts = line.split(" ");
+                    final long id = Long.parseLong(parts[1]);
+                    if (parts[0].equals(ADD) && parts.length == 5) {
+                        mailbox.messages.put(id, new MailData(
+                                id,
+                                parts[2].equals(NO_SENDER) ? null : UUID.fromString(parts[2]),
+                                Instant.ofEpochMilli(Long.parseLong(parts[3])),
+                                new String(Base64.getDecoder().decode(parts[4]), StandardCharsets.UTF_8)));
+                        maxId = Math.max(maxId, id);
+                    } else if (parts[0].equals(DELETE)) {
+                        mailbox.messages.remove(id);
+                        mailbox.deadRecords += 2;
+                    } else {
+                        throw new IllegalArgumentException(parts[0]);
+                    }
+                } catch (final IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                    this.logger.warn("Ignoring malformed mail record for {}: {}", player, line);
+                    mailbox.deadRecords++;
+                }
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // make sure new messages sort after anything already stored.
+        this.lastId.accumulateAndGet(maxId, Math::max);
+        return mailbox;
+    }
+
+    /**
+     * Moves any mail that is still held with the rest of the player's data
+     * into their mailbox. This only needs to be done once for each player.
+     */
+    private void ensureMigrated(final UUID player) {
+        if (this.migrated.contains(player)) {
+            return;
+        }
+
+        final Path file = this.getFile(player);
+        if (!Files.exists(file)) {
+            final Optional<IUserDataObject> dataObject = this.storageManager.getUserOnThread(player);
+            final List<MailMessage> legacy = dataObject.flatMap(x -> x.get(MailKeys.MAIL_DATA)).orElseGet(Collections::emptyList);
+            if (!legacy.isEmpty()) {
+                final List<MailData> toWrite = new ArrayList<>(legacy.size());
+                for (final MailMessage message : legacy) {
+                    toWrite.add(new MailData(this.nextId(), message.getSender().orElse(null), message.getDate(), message.getMessage()));
+                }
+                this.rewrite(player, toWrite);
+
+                // Only remove the old copy once the new one is safely written.
+                final IUserDataObject userDataObject = dataObject.get();
+                userDataObject.remove(MailKeys.MAIL_DATA);
+                this.storageManager.saveUser(player, userDataObject);
+            }
+        }
+
+        this.migrated.add(player);
+    }
+
+    private void checkCompaction(final UUID player, final Mailbox mailbox) {
+        if (mailbox.deadRecords >= COMPACTION_THRESHOLD && mailbox.deadRecords > mailbox.messages.size()) {
+            this.toCompact.add(player);
+        }
+    }
+
+    private void rewrite(final UUID player, final Collection<MailData> messages) {
+        final List<String> records = new ArrayList<>(messages.size());
+        for (final MailData message : messages) {
+            records.add(MailboxStore.toRecord(message));
+        }
+
+        final Path file = this.getFile(player);
+        final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        this.write(temp, records, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(final UUID player, final List<String> records, final StandardOpenOption option) {
+        final Path file = this.getFile(player);
+        if (option == StandardOpenOption.APPEND) {
+            this.truncatePartialRecord(file);
+        }
+        this.write(file, records, option);
+    }
+
+    /**
+     * Removes anything after the last full line of the file, which is left
+     * behind if a write failed part way through. Otherwise, the next record
+     * would be joined onto it and both would be ignored as malformed.
+     */
+    private void truncatePartialRecord(final Path file) {
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final long size = channel.size();
+            final ByteBuffer buffer = ByteBuffer.allocate(TRUNCATE_BUFFER_SIZE);
+            long end = size;
+            while (end > 0) {
+                final long start = Math.max(0, end - TRUNCATE_BUFFER_SIZE);
+                buffer.clear();
+                buffer.limit((int) (end - start));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, start + buffer.position()) < 0) {
+                        break;
+                    }
+                }
+
+                for (int i = buffer.position() - 1; i >= 0; i--) {
+                    if (buffer.get(i) == '\n') {
+                        final long lineEnd = start + i + 1;
+                        if (lineEnd < size) {
+                            this.logger.warn("Removing a partly written mail record for {}.", file.getFileName());
+                            channel.truncate(lineEnd);
+                        }
+                        return;
+                    }
+                }
+                end = start;
+            }
+
+            // no full lines at all.
+            if (size > 0) {
+                this.logger.warn("Removing a partly written mail record for {}.", file.getFileName());
+                channel.truncate(0);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(final Path file, final List<String> records, final StandardOpenOption option) {
+        try {
+            Files.createDirectories(file.getParent());
+            try (final BufferedWriter writer =
+                    Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.WRITE, option)) {
+                for (final String record : records) {
+                    writer.write(record);
+                    writer.newLine();
+                }
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long nextId() {
+        final long now = System.currentTimeMillis();
+        return this.lastId.updateAndGet(x -> Math.max(x + 1, now));
+    }
+
+    private Path getFile(final UUID player) {
+        return this.directory.get().resolve(player.toString() + EXTENSION);
+    }
+
+    private Object lock(final UUID player) {
+        return this.locks[(player.hashCode() & 0x7FFFFFFF) % this.locks.length];
+    }
+
+    private static String toRecord(final MailData mailData) {
+        return ADD + " " + mailData.getId()
+                + " " + mailData.getSender().map(UUID::toString).orElse(NO_SENDER)
+                + " " + mailData.getDate().toEpochMilli()
+                + " " + Base64.getEncoder().encodeToString(mailData.getMessage().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class Mailbox {
+
+        private final Map<Long, MailData> messages = new LinkedHashMap<>();
+        private int deadRecords;
+
+    }
+
+}
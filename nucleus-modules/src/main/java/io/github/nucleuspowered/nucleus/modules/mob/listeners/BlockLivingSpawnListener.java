@@ -4,7 +4,6 @@
  */
 package io.github.nucleuspowered.nucleus.modules.mob.listeners;
 
-import io.github.nucleuspowered.nucleus.core.Registry;
 import io.github.nucleuspowered.nucleus.modules.mob.config.BlockSpawnsConfig;
 import io.github.nucleuspowered.nucleus.modules.mob.config.MobConfig;
 import io.github.nucleuspowered.nucleus.core.scaffold.listener.ListenerBase;
@@ -19,22 +18,32 @@ import org.spongepowered.api.entity.living.Living;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.entity.SpawnEntityEvent;
+import org.spongepowered.api.registry.RegistryEntry;
 import org.spongepowered.api.registry.RegistryTypes;
-import org.spongepowered.api.world.server.ServerWorld;
 
-import java.util.List;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class BlockLivingSpawnListener implements IReloadableService.Reloadable, ListenerBase.Conditional {
 
-    private MobConfig config = new MobConfig();
+    // World key to the entity types that are blocked in that world. Worlds with nothing blocked are absent.
+    private Map<ResourceKey, Set<EntityType<?>>> blockedTypes = Collections.emptyMap();
 
     @Listener
     public void onSpawn(final SpawnEntityEvent event) {
+        final Map<ResourceKey, Set<EntityType<?>>> blocked = this.blockedTypes;
+        if (blocked.isEmpty()) {
+            return;
+        }
+
         event.filterEntities(x -> {
             final Class<? extends Entity> entityType = x.getClass();
-            return this.checkIsValid(entityType) || this.isSpawnable(x.type(), x.serverLocation().world());
+            return this.checkIsValid(entityType) || this.isSpawnable(blocked, x);
         });
     }
 
@@ -44,32 +53,40 @@ public class BlockLivingSpawnListener implements IReloadableService.Reloadable,
                 ArmorStand.class.isAssignableFrom(entityType);
     }
 
-    private boolean isSpawnable(final EntityType<?> type, final ServerWorld world) {
-        final Optional<BlockSpawnsConfig> bsco = this.config.getBlockSpawnsConfigForWorld(world);
-        return bsco.flatMap(blockSpawnsConfig -> RegistryTypes.ENTITY_TYPE.get().findValueKey(type).map(x -> {
-            final String id = x.asString().toLowerCase();
-            return !(blockSpawnsConfig.isBlockVanillaMobs() && id.startsWith("minecraft:") || blockSpawnsConfig.getIdsToBlock().contains(id));
-        })).orElse(true);
-
+    private boolean isSpawnable(final Map<ResourceKey, Set<EntityType<?>>> blocked, final Entity entity) {
+        final Set<EntityType<?>> blockedInWorld = blocked.get(entity.serverLocation().world().key());
+        return blockedInWorld == null || !blockedInWorld.contains(entity.type());
     }
 
     @Override
     public void onReload(final INucleusServiceCollection serviceCollection) {
-        this.config = serviceCollection.configProvider().getModuleConfig(MobConfig.class);
+        this.blockedTypes = this.compile(serviceCollection.configProvider().getModuleConfig(MobConfig.class));
     }
 
     @Override
     public boolean shouldEnable(final INucleusServiceCollection serviceCollection) {
-            final Map<String, BlockSpawnsConfig> conf = serviceCollection.configProvider().getModuleConfig(MobConfig.class).getBlockSpawnsConfig();
-            if (conf.entrySet().stream().anyMatch(x -> Sponge.server().worldManager().world(ResourceKey.resolve(x.getKey().toLowerCase())).isPresent())) {
-                for (final BlockSpawnsConfig s : conf.values()) {
-                    final List<String> idsToBlock = s.getIdsToBlock();
-                    if (s.isBlockVanillaMobs() || RegistryTypes.ENTITY_TYPE.get().streamEntries().anyMatch(x -> idsToBlock.contains(x.key().asString()))) {
-                        return true;
-                    }
-                }
-            }
+        return this.compile(serviceCollection.configProvider().getModuleConfig(MobConfig.class))
+                .keySet()
+                .stream()
+                .anyMatch(x -> Sponge.server().worldManager().world(x).isPresent());
+    }
 
-            return false;
+    private Map<ResourceKey, Set<EntityType<?>>> compile(final MobConfig config) {
+        final Map<ResourceKey, Set<EntityType<?>>> result = new HashMap<>();
+        for (final Map.Entry<String, BlockSpawnsConfig> entry : config.getBlockSpawnsConfig().entrySet()) {
+            final BlockSpawnsConfig blockSpawnsConfig = entry.getValue();
+            final Set<String> idsToBlock = new HashSet<>(blockSpawnsConfig.getIdsToBlock());
+            final Set<EntityType<?>> types = RegistryTypes.ENTITY_TYPE.get().streamEntries()
+                    .filter(x -> {
+                        final String id = x.key().asString().toLowerCase();
+                        return blockSpawnsConfig.isBlockVanillaMobs() && id.startsWith("minecraft:") || idsToBlock.contains(id);
+                    })
+                    .map(RegistryEntry::value)
+                    .collect(Collectors.toCollection(() -> Collections.newSetFromMap(new IdentityHashMap<>())));
+            if (!types.isEmpty()) {
+                result.put(ResourceKey.resolve(entry.getKey().toLowerCase()), types);
+            }
+        }
+        return result;
     }
 }
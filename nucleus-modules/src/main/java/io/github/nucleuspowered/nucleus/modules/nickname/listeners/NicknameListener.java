@@ -30,7 +30,7 @@ public class NicknameListener implements ListenerBase {
     @Listener(order = Order.FIRST)
     public void onPlayerJoin(final ServerSideConnectionEvent.Join event, @Getter("player") final ServerPlayer player) {
         final Optional<Component> nickname = this.nicknameService.getNickname(player.uniqueId());
-        this.nicknameService.markRead(player.uniqueId());
+        this.nicknameService.markRead(player);
         if (nickname.isPresent()) {
             this.nicknameService.updateCache(player.uniqueId(), nickname.get());
             player.offer(Keys.CUSTOM_NAME, nickname.get());
@@ -41,7 +41,7 @@ public class NicknameListener implements ListenerBase {
 
     @Listener(order = Order.LAST)
     public void onPlayerQuit(final ServerSideConnectionEvent.Disconnect event, @Getter("player") final ServerPlayer player) {
-        this.nicknameService.removeFromCache(player.uniqueId());
+        this.nicknameService.removeFromCache(player);
     }
 
 }
@@ -0,0 +1,121 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.nickname.services;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A case insensitive prefix tree of names, so that finding every name that
+ * starts with some text only visits the nodes for that text and the names
+ * that match it.
+ *
+ * <p>Changes are serialised, but lookups take no locks and may be made from
+ * any thread. A lookup that runs alongside a change will see the names either
+ * before or after that change.</p>
+ */
+public final class NameTrie {
+
+    private final Node root = new Node();
+
+    /**
+     * Adds a name for the given player.
+     *
+     * @param uuid The {@link UUID} of the player
+     * @param name The name
+     */
+    public synchronized void put(final UUID uuid, final String name) {
+        Node node = this.root;
+        final String key = NameTrie.fold(name);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), x -> new Node());
+        }
+        node.names.put(uuid, name);
+    }
+
+    /**
+     * Removes a name from the given player.
+     *
+     * @param uuid The {@link UUID} of the player
+     * @param name The name
+     */
+    public synchronized void remove(final UUID uuid, final String name) {
+        final String key = NameTrie.fold(name);
+        final Deque<Node> path = new ArrayDeque<>(key.length() + 1);
+        Node node = this.root;
+        path.push(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.get(key.charAt(i));
+            if (node == null) {
+                return;
+            }
+            path.push(node);
+        }
+
+        if (node.names.remove(uuid) == null) {
+            return;
+        }
+
+        // Remove any nodes that no longer lead to a name.
+        int i = key.length() - 1;
+        Node child = path.pop();
+        while (!path.isEmpty() && child.isEmpty()) {
+            final Node parent = path.pop();
+            parent.children.remove(key.charAt(i--), child);
+            child = parent;
+        }
+    }
+
+    /**
+     * Gets the players with a name that starts with the given text, ignoring
+     * case.
+     *
+     * @param prefix The text
+     * @return The matching players and their names
+     */
+    public Map<UUID, String> startsWith(final String prefix) {
+        Node node = this.root;
+        final String key = NameTrie.fold(prefix);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.get(key.charAt(i));
+            if (node == null) {
+                return Collections.emptyMap();
+            }
+        }
+
+        final Map<UUID, String> result = new HashMap<>();
+        final Deque<Node> toVisit = new ArrayDeque<>();
+        toVisit.push(node);
+        while (!toVisit.isEmpty()) {
+            final Node current = toVisit.pop();
+            result.putAll(current.names);
+            for (final Node child : current.children.values()) {
+                toVisit.push(child);
+            }
+        }
+        return result;
+    }
+
+    private static String fold(final String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+
+        private final Map<Character, Node> children = new ConcurrentHashMap<>(4);
+        private final Map<UUID, String> names = new ConcurrentHashMap<>(1);
+
+        private boolean isEmpty() {
+            return this.children.isEmpty() && this.names.isEmpty();
+        }
+    }
+
+}
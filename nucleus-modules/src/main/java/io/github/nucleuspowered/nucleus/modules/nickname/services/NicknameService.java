@@ -4,8 +4,6 @@
  */
 package io.github.nucleuspowered.nucleus.modules.nickname.services;
 
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
 import com.google.inject.Inject;
 import io.github.nucleuspowered.nucleus.api.module.nickname.NucleusNicknameService;
 import io.github.nucleuspowered.nucleus.api.module.nickname.exception.NicknameException;
@@ -45,10 +43,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.TreeMap;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 @APIService(NucleusNicknameService.class)
 public class NicknameService implements NucleusNicknameService, IReloadableService.Reloadable, ServiceBase {
@@ -70,10 +68,13 @@ public class NicknameService implements NucleusNicknameService, IReloadableServi
     private Pattern pattern;
     private int min = 3;
     private int max = 16;
-    private final List<UUID> cached = new ArrayList<>();
-    private final BiMap<UUID, String> cache = HashBiMap.create();
-    private final BiMap<UUID, Component> textCache = HashBiMap.create();
-    private final TreeMap<String, UUID> reverseLowerCaseCache = new TreeMap<>();
+    private final Set<UUID> cached = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, String> cache = new ConcurrentHashMap<>();
+    private final Map<String, UUID> reverseCache = new ConcurrentHashMap<>();
+    private final Map<UUID, Component> textCache = new ConcurrentHashMap<>();
+    private final NameTrie nicknameIndex = new NameTrie();
+    private final NameTrie realNameIndex = new NameTrie();
+    private final Map<UUID, String> realNames = new ConcurrentHashMap<>();
 
     public void injectResolver(final INucleusServiceCollection serviceCollection) {
         serviceCollection.playerDisplayNameService().provideDisplayNameResolver(this::getNicknameWithPrefix);
@@ -94,17 +95,33 @@ public class NicknameService implements NucleusNicknameService, IReloadableServi
         this.cached.add(player);
     }
 
-    public void updateCache(final UUID player, final Component text) {
-        this.cache.put(player, text.toString());
+    public void markRead(final ServerPlayer player) {
+        this.markRead(player.uniqueId());
+        final String oldName = this.realNames.put(player.uniqueId(), player.name());
+        if (oldName != null) {
+            this.realNameIndex.remove(player.uniqueId(), oldName);
+        }
+        this.realNameIndex.put(player.uniqueId(), player.name());
+    }
+
+    public synchronized void updateCache(final UUID player, final Component text) {
+        final String plain = PlainComponentSerializer.plain().serialize(text);
+        final String old = this.cache.put(player, plain);
+        if (old != null) {
+            this.reverseCache.remove(old, player);
+            this.nicknameIndex.remove(player, old);
+        }
+        this.reverseCache.put(plain, player);
+        this.nicknameIndex.put(player, plain);
         this.textCache.put(player, text);
     }
 
     public Optional<ServerPlayer> getFromCache(final String text) {
-        final UUID u = this.cache.inverse().get(text);
+        final UUID u = this.reverseCache.get(text);
         if (u != null) {
             final Optional<ServerPlayer> ret = Sponge.server().player(u);
             if (!ret.isPresent()) {
-                this.cache.remove(u);
+                this.removeFromCache(u);
             }
 
             return ret;
@@ -114,58 +131,60 @@ public class NicknameService implements NucleusNicknameService, IReloadableServi
     }
 
     public Map<String, UUID> getAllCached() {
-        return new HashMap<>(this.cache.inverse());
+        return new HashMap<>(this.reverseCache);
     }
 
     public Map<Player, Component> getFromSubstring(final String search) {
-        final String prefix = search.toLowerCase();
-        final Collection<UUID> uuidCollection;
-        if (prefix.length() > 0) {
-            final char nextLetter = (char) (prefix.charAt(prefix.length() -1) + 1);
-            final String end = prefix.substring(0, prefix.length()-1) + nextLetter;
-            uuidCollection = this.reverseLowerCaseCache.subMap(prefix, end).values();
-        } else {
-            uuidCollection = this.reverseLowerCaseCache.values();
-        }
-
         final Map<Player, Component> mapToReturn = new HashMap<>();
-        Sponge.server().onlinePlayers().stream()
-                .filter(x -> !this.cache.containsKey(x.uniqueId()))
-                .filter(x -> x.name().toLowerCase().startsWith(prefix))
-                .forEach(player -> mapToReturn.put(player, player.get(Keys.CUSTOM_NAME).orElseGet(
+        for (final UUID uuid : this.realNameIndex.startsWith(search).keySet()) {
+            if (!this.cache.containsKey(uuid)) {
+                Sponge.server().player(uuid).ifPresent(player -> mapToReturn.put(player, player.get(Keys.CUSTOM_NAME).orElseGet(
                         () -> Component.text(player.name() + "*"))));
+            }
+        }
 
-        for (final UUID uuid : uuidCollection) {
-            final Optional<ServerPlayer> op = Sponge.server().player(uuid);
-            op.ifPresent(player -> mapToReturn.put(player, this.textCache.get(uuid)));
+        for (final UUID uuid : this.nicknameIndex.startsWith(search).keySet()) {
+            final Component text = this.textCache.get(uuid);
+            if (text != null) {
+                Sponge.server().player(uuid).ifPresent(player -> mapToReturn.put(player, text));
+            }
         }
 
         return Collections.unmodifiableMap(mapToReturn);
     }
 
     public Map<String, UUID> startsWithGetMap(final String text) {
-        return this.cache.inverse().entrySet().stream().filter(x -> x.getKey().startsWith(text.toLowerCase()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        final Map<String, UUID> result = new HashMap<>();
+        this.nicknameIndex.startsWith(text).forEach((uuid, name) -> result.put(name, uuid));
+        return result;
     }
 
     public Map<UUID, String> startsWithUUIDStringMap(final String text) {
-        return this.cache.inverse().entrySet().stream().filter(x -> x.getKey().startsWith(text.toLowerCase()))
-                .collect(Collectors.toMap(Map.Entry::getValue, Map.Entry::getKey));
+        return this.nicknameIndex.startsWith(text);
     }
 
-
     public List<UUID> startsWith(final String text) {
-        return this.cache.inverse().entrySet().stream().filter(x -> x.getKey().startsWith(text.toLowerCase()))
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toList());
+        return new ArrayList<>(this.nicknameIndex.startsWith(text).keySet());
     }
 
-    public void removeFromCache(final UUID player) {
-        this.cache.remove(player);
+    public synchronized void removeFromCache(final UUID player) {
+        final String old = this.cache.remove(player);
+        if (old != null) {
+            this.reverseCache.remove(old, player);
+            this.nicknameIndex.remove(player, old);
+        }
         this.textCache.remove(player);
         this.cached.remove(player);
     }
 
+    public void removeFromCache(final ServerPlayer player) {
+        this.removeFromCache(player.uniqueId());
+        final String realName = this.realNames.remove(player.uniqueId());
+        if (realName != null) {
+            this.realNameIndex.remove(player.uniqueId(), realName);
+        }
+    }
+
     @Override
     public Optional<Component> getNicknameWithPrefix(final UUID user) {
         return this.getNickname(user).map(x -> Component.join(this.prefix, x));
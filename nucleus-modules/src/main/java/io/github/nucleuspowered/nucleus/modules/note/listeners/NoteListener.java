@@ -5,6 +5,8 @@
 package io.github.nucleuspowered.nucleus.modules.note.listeners;
 
 import com.google.inject.Inject;
+import io.github.nucleuspowered.nucleus.core.core.services.LoginPrefetchService;
+import io.github.nucleuspowered.nucleus.modules.note.NoteKeys;
 import io.github.nucleuspowered.nucleus.modules.note.NotePermissions;
 import io.github.nucleuspowered.nucleus.modules.note.config.NoteConfig;
 import io.github.nucleuspowered.nucleus.modules.note.services.NoteHandler;
@@ -12,9 +14,11 @@ import io.github.nucleuspowered.nucleus.core.scaffold.listener.ListenerBase;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IMessageProviderService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IPermissionService;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.event.HoverEvent;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.entity.living.player.server.ServerPlayer;
@@ -23,12 +27,17 @@ import org.spongepowered.api.event.filter.Getter;
 import org.spongepowered.api.event.network.ServerSideConnectionEvent;
 import org.spongepowered.plugin.PluginContainer;
 
-public class NoteListener implements ListenerBase.Conditional {
+import java.util.List;
+import java.util.Optional;
+
+public class NoteListener implements ListenerBase.Conditional, IReloadableService.Reloadable {
 
     private final NoteHandler noteHandler;
     private final IPermissionService permissionService;
     private final IMessageProviderService messageService;
     private final PluginContainer pluginContainer;
+    private final LoginPrefetchService loginPrefetchService;
+    @Nullable private volatile LoginPrefetchService.Key<Integer> noteCount;
 
     @Inject
     public NoteListener(final INucleusServiceCollection serviceCollection) {
@@ -36,6 +45,7 @@ public class NoteListener implements ListenerBase.Conditional {
         this.permissionService = serviceCollection.permissionService();
         this.messageService = serviceCollection.messageProvider();
         this.pluginContainer = serviceCollection.pluginContainer();
+        this.loginPrefetchService = serviceCollection.getServiceUnchecked(LoginPrefetchService.class);
     }
 
     /**
@@ -47,20 +57,45 @@ public class NoteListener implements ListenerBase.Conditional {
      */
     @Listener
     public void onPlayerLogin(final ServerSideConnectionEvent.Join event, @Getter("player") final ServerPlayer player) {
+        final LoginPrefetchService.Key<Integer> key = this.noteCount;
+        final Optional<Integer> prefetched = key == null ? Optional.empty() : this.loginPrefetchService.get(player.uniqueId(), key);
+        if (prefetched.isPresent()) {
+            this.notify(player, prefetched.get());
+            return;
+        }
+
         this.noteHandler.getNotes(player.uniqueId()).thenAccept(notes -> {
             if (notes != null && !notes.isEmpty()) {
-                final Audience audience = this.permissionService.permissionMessageChannel(NotePermissions.NOTE_SHOWONLOGIN);
-                Sponge.server().scheduler().createExecutor(this.pluginContainer).execute(() ->
-                        audience.sendMessage(this.messageService.getMessage("note.login.notify", player.name(), String.valueOf(notes.size()))
-                            .hoverEvent(HoverEvent.showText(this.messageService.getMessage("note.login.view", player.name())))
-                            .clickEvent(ClickEvent.runCommand("/nucleus:checknotes " + player.name()))));
+                Sponge.server().scheduler().createExecutor(this.pluginContainer).execute(() -> this.notify(player, notes.size()));
             }
         });
     }
 
+    private void notify(final ServerPlayer player, final int count) {
+        if (count > 0) {
+            final Audience audience = this.permissionService.permissionMessageChannel(NotePermissions.NOTE_SHOWONLOGIN);
+            audience.sendMessage(this.messageService.getMessage("note.login.notify", player.name(), String.valueOf(count))
+                    .hoverEvent(HoverEvent.showText(this.messageService.getMessage("note.login.view", player.name())))
+                    .clickEvent(ClickEvent.runCommand("/nucleus:checknotes " + player.name())));
+        }
+    }
+
     @Override
     public boolean shouldEnable(final INucleusServiceCollection serviceCollection) {
         return serviceCollection.configProvider().getModuleConfig(NoteConfig.class).isShowOnLogin();
     }
 
+    @Override
+    public void onReload(final INucleusServiceCollection serviceCollection) {
+        final boolean showOnLogin = serviceCollection.configProvider().getModuleConfig(NoteConfig.class).isShowOnLogin();
+        // only count notes on login while there is something to show them.
+        if (showOnLogin && this.noteCount == null) {
+            this.noteCount = this.loginPrefetchService.register("note count",
+                    (uuid, dataObject) -> dataObject.get(NoteKeys.NOTE_DATA).map(List::size).orElse(0));
+        } else if (!showOnLogin && this.noteCount != null) {
+            this.loginPrefetchService.unregister(this.noteCount);
+            this.noteCount = null;
+        }
+    }
+
 }
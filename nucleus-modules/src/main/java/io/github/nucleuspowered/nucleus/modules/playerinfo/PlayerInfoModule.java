@@ -12,9 +12,13 @@ import io.github.nucleuspowered.nucleus.modules.playerinfo.commands.NearCommand;
 import io.github.nucleuspowered.nucleus.modules.playerinfo.commands.SeenCommand;
 import io.github.nucleuspowered.nucleus.modules.playerinfo.config.PlayerInfoConfig;
 import io.github.nucleuspowered.nucleus.modules.playerinfo.listeners.CommandListener;
+import io.github.nucleuspowered.nucleus.modules.playerinfo.listeners.ListSnapshotListener;
+import io.github.nucleuspowered.nucleus.modules.playerinfo.runnables.ListSnapshotRefreshTask;
+import io.github.nucleuspowered.nucleus.modules.playerinfo.services.ListSnapshotService;
 import io.github.nucleuspowered.nucleus.modules.playerinfo.services.SeenHandler;
 import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandExecutor;
 import io.github.nucleuspowered.nucleus.core.scaffold.listener.ListenerBase;
+import io.github.nucleuspowered.nucleus.core.scaffold.task.SyncTaskBase;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 
 import java.util.Arrays;
@@ -28,6 +32,7 @@ public final class PlayerInfoModule implements IModule.Configurable<PlayerInfoCo
 
     @Override public void init(final INucleusServiceCollection serviceCollection) {
         serviceCollection.registerService(SeenHandler.class, new SeenHandler(serviceCollection), false);
+        serviceCollection.registerService(ListSnapshotService.class, new ListSnapshotService(serviceCollection), false);
     }
 
     @Override public Collection<Class<? extends ICommandExecutor>> getCommands() {
@@ -45,7 +50,14 @@ public final class PlayerInfoModule implements IModule.Configurable<PlayerInfoCo
     }
 
     @Override public Collection<Class<? extends ListenerBase>> getListeners() {
-        return Collections.singleton(CommandListener.class);
+        return Arrays.asList(
+                CommandListener.class,
+                ListSnapshotListener.class
+        );
+    }
+
+    @Override public Collection<Class<? extends SyncTaskBase>> getSyncTasks() {
+        return Collections.singleton(ListSnapshotRefreshTask.class);
     }
 
     @Override public Class<PlayerInfoConfig> getConfigClass() {
@@ -0,0 +1,65 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.playerinfo.listeners;
+
+import com.google.inject.Inject;
+import io.github.nucleuspowered.nucleus.api.module.afk.event.NucleusAFKEvent;
+import io.github.nucleuspowered.nucleus.api.module.nickname.event.NucleusChangeNicknameEvent;
+import io.github.nucleuspowered.nucleus.core.scaffold.listener.ListenerBase;
+import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.ISchedulerService;
+import io.github.nucleuspowered.nucleus.modules.playerinfo.services.ListSnapshotService;
+import io.github.nucleuspowered.nucleus.modules.vanish.events.InternalVanishChangeEvent;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.entity.living.player.server.ServerPlayer;
+import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.filter.Getter;
+import org.spongepowered.api.event.network.ServerSideConnectionEvent;
+
+public class ListSnapshotListener implements ListenerBase {
+
+    private final ListSnapshotService listSnapshotService;
+    private final ISchedulerService schedulerService;
+
+    @Inject
+    public ListSnapshotListener(final INucleusServiceCollection serviceCollection) {
+        this.listSnapshotService = serviceCollection.getServiceUnchecked(ListSnapshotService.class);
+        this.schedulerService = serviceCollection.schedulerService();
+    }
+
+    @Listener(order = Order.POST)
+    public void onJoin(final ServerSideConnectionEvent.Join event, @Getter("player") final ServerPlayer player) {
+        this.listSnapshotService.updatePlayer(player);
+    }
+
+    @Listener(order = Order.POST)
+    public void onQuit(final ServerSideConnectionEvent.Disconnect event, @Getter("player") final ServerPlayer player) {
+        this.listSnapshotService.removePlayer(player.uniqueId());
+    }
+
+    @Listener(order = Order.POST)
+    public void onVanish(final InternalVanishChangeEvent event) {
+        this.listSnapshotService.updateVanished(event.getPlayer(), event.isVanished());
+    }
+
+    @Listener(order = Order.POST)
+    public void onAfk(final NucleusAFKEvent.GoingAFK event) {
+        this.listSnapshotService.updateAfk(event.getTargetPlayer(), true);
+    }
+
+    @Listener(order = Order.POST)
+    public void onReturn(final NucleusAFKEvent.ReturningFromAFK event) {
+        this.listSnapshotService.updateAfk(event.getTargetPlayer(), false);
+    }
+
+    @Listener(order = Order.POST)
+    public void onNicknameChange(final NucleusChangeNicknameEvent.Post event) {
+        // This event might be async, the template has to be rendered on the main thread.
+        this.schedulerService.runOnMainThread(() ->
+                Sponge.server().player(event.getUser()).ifPresent(this.listSnapshotService::updatePlayer));
+    }
+
+}
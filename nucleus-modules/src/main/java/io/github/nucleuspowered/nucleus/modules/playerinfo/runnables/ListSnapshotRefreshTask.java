@@ -0,0 +1,38 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.playerinfo.runnables;
+
+import com.google.inject.Inject;
+import io.github.nucleuspowered.nucleus.core.scaffold.task.SyncTaskBase;
+import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.modules.playerinfo.services.ListSnapshotService;
+import org.spongepowered.api.scheduler.ScheduledTask;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Picks up changes to the list group option, which do not fire an event.
+ */
+public class ListSnapshotRefreshTask implements SyncTaskBase {
+
+    private final ListSnapshotService listSnapshotService;
+
+    @Inject
+    public ListSnapshotRefreshTask(final INucleusServiceCollection serviceCollection) {
+        this.listSnapshotService = serviceCollection.getServiceUnchecked(ListSnapshotService.class);
+    }
+
+    @Override
+    public Duration interval() {
+        return Duration.of(1, ChronoUnit.MINUTES);
+    }
+
+    @Override
+    public void accept(final ScheduledTask scheduledTask) {
+        this.listSnapshotService.refreshAll();
+    }
+
+}
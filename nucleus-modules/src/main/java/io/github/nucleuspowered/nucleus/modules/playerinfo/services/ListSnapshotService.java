@@ -0,0 +1,409 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.playerinfo.services;
+
+import com.google.inject.Inject;
+import io.github.nucleuspowered.nucleus.api.NucleusAPI;
+import io.github.nucleuspowered.nucleus.api.module.afk.NucleusAFKService;
+import io.github.nucleuspowered.nucleus.api.text.NucleusTextTemplate;
+import io.github.nucleuspowered.nucleus.core.scaffold.service.ServiceBase;
+import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.IPermissionService;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.IPlayerDisplayNameService;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
+import io.github.nucleuspowered.nucleus.modules.playerinfo.commands.ListPlayerCommand;
+import io.github.nucleuspowered.nucleus.modules.playerinfo.config.ListConfig;
+import io.github.nucleuspowered.nucleus.modules.playerinfo.config.PlayerInfoConfig;
+import io.github.nucleuspowered.nucleus.modules.vanish.services.VanishService;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.LinearComponents;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.data.Keys;
+import org.spongepowered.api.entity.living.player.server.ServerPlayer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the player list shown by {@link ListPlayerCommand} up to date as
+ * players join, leave and change state, so that running the command does
+ * not need to look up every online player.
+ */
+public class ListSnapshotService implements ServiceBase, IReloadableService.Reloadable {
+
+    private static final Comparator<PlayerEntry> NAME_ORDER = (x, y) -> x.name.compareToIgnoreCase(y.name);
+
+    private final INucleusServiceCollection serviceCollection;
+    private final IPermissionService permissionService;
+    private final IPlayerDisplayNameService displayNameService;
+    private final Map<UUID, PlayerEntry> entries = new ConcurrentHashMap<>();
+
+    private ListConfig listConfig = new ListConfig();
+    @Nullable private NucleusTextTemplate template = null;
+    // bumped whenever the entries change, so that a snapshot built while they were changing is not kept.
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    @Inject
+    public ListSnapshotService(final INucleusServiceCollection serviceCollection) {
+        this.serviceCollection = serviceCollection;
+        this.permissionService = serviceCollection.permissionService();
+        this.displayNameService = serviceCollection.playerDisplayNameService();
+    }
+
+    /**
+     * Gets the current snapshot of the player list, rebuilding the grouping
+     * if anything has changed since it was last requested.
+     *
+     * @return The {@link Snapshot}
+     */
+    public Snapshot getSnapshot() {
+        final long version = this.version.get();
+        @Nullable final Snapshot current = this.snapshot.get();
+        if (current != null && current.version == version) {
+            return current;
+        }
+
+        final Snapshot built = this.buildSnapshot(version);
+        if (this.version.get() == version) {
+            this.snapshot.compareAndSet(current, built);
+        }
+        return built;
+    }
+
+    /**
+     * Resolves and renders the list entry for the player. Must be called on
+     * the main thread.
+     *
+     * @param player The player
+     */
+    public void updatePlayer(final ServerPlayer player) {
+        @Nullable final NucleusAFKService afkService = NucleusAPI.getAFKService().orElse(null);
+        final PlayerEntry entry = new PlayerEntry(
+                player.uniqueId(),
+                player.name(),
+                this.getGroup(player),
+                this.render(player),
+                this.isVanished(player),
+                afkService != null && afkService.isAFK(player.uniqueId()));
+        if (!entry.equals(this.entries.put(player.uniqueId(), entry))) {
+            this.invalidate();
+        }
+    }
+
+    public void removePlayer(final UUID uuid) {
+        if (this.entries.remove(uuid) != null) {
+            this.invalidate();
+        }
+    }
+
+    public void updateVanished(final UUID uuid, final boolean vanished) {
+        this.update(uuid, x -> x.vanished == vanished ? x : x.withVanished(vanished));
+    }
+
+    public void updateAfk(final UUID uuid, final boolean afk) {
+        this.update(uuid, x -> x.afk == afk ? x : x.withAfk(afk));
+    }
+
+    /**
+     * Re-resolves the group and rendered template of all online players,
+     * as there is no event for option changes. Must be called on the main
+     * thread.
+     */
+    public void refreshAll() {
+        for (final ServerPlayer player : Sponge.server().onlinePlayers()) {
+            this.updatePlayer(player);
+        }
+        this.entries.keySet().removeIf(x -> !Sponge.server().player(x).isPresent());
+    }
+
+    private void update(final UUID uuid, final UnaryOperator<PlayerEntry> operator) {
+        final PlayerEntry previous = this.entries.get(uuid);
+        if (previous != null) {
+            final PlayerEntry next = operator.apply(previous);
+            if (next != previous && this.entries.replace(uuid, previous, next)) {
+                this.invalidate();
+            }
+        }
+    }
+
+    private void invalidate() {
+        this.version.incrementAndGet();
+        this.snapshot.set(null);
+    }
+
+    private boolean isVanished(final ServerPlayer player) {
+        // A player who is vanished when they join only gets the vanish key on the next tick,
+        // but the vanish service knows about them as soon as they join.
+        return this.serviceCollection.getService(VanishService.class)
+                .map(x -> x.isVanished(player.uniqueId()))
+                .orElseGet(() -> player.get(Keys.VANISH).orElse(false));
+    }
+
+    private String getGroup(final ServerPlayer player) {
+        final String def = this.listConfig.getDefaultGroupName();
+        final String perm = this.permissionService.getOptionFromSubject(player, ListPlayerCommand.LIST_OPTION).orElse(def);
+        if (perm.trim().isEmpty()) {
+            return def;
+        }
+        return perm;
+    }
+
+    private Component render(final ServerPlayer player) {
+        if (this.template != null) { // it shouldn't be, but if it is, fallback...
+            return this.template.getForObject(player);
+        }
+        return this.displayNameService.getDisplayName(player.uniqueId());
+    }
+
+    private Snapshot buildSnapshot(final long version) {
+        final ListConfig config = this.listConfig;
+        final List<PlayerEntry> all = new ArrayList<>(this.entries.values());
+        all.sort(NAME_ORDER);
+        final long hidden = all.stream().filter(x -> x.vanished).count();
+
+        final List<Group> groups = new ArrayList<>();
+        if (config.isGroupByPermissionGroup()) {
+            final String defName = config.getDefaultGroupName();
+            final Map<String, List<PlayerEntry>> groupToPlayer = new HashMap<>();
+            for (final PlayerEntry entry : all) {
+                groupToPlayer.computeIfAbsent(entry.group, y -> new ArrayList<>()).add(entry);
+            }
+
+            for (final String alias : config.getOrder()) {
+                final List<PlayerEntry> plList = groupToPlayer.remove(alias);
+                if (plList != null) {
+                    groups.add(new Group(alias, plList));
+                }
+            }
+
+            groupToPlayer.entrySet().stream()
+                    .filter(x -> !x.getKey().equals(defName))
+                    .sorted((x, y) -> x.getKey().compareToIgnoreCase(y.getKey()))
+                    .forEach(x -> groups.add(new Group(x.getKey(), x.getValue())));
+
+            final List<PlayerEntry> pl = groupToPlayer.get(defName);
+            if (pl != null) {
+                groups.add(new Group(defName, pl));
+            }
+        } else {
+            groups.add(new Group(null, all));
+        }
+
+        return new Snapshot(version, groups, all.size(), hidden, config);
+    }
+
+    @Override
+    public void onReload(final INucleusServiceCollection serviceCollection) {
+        this.listConfig = serviceCollection.configProvider().getModuleConfig(PlayerInfoConfig.class).getList();
+        this.template = serviceCollection.textTemplateFactory().createFromAmpersandStringIgnoringExceptions(this.listConfig.getListTemplate())
+                .orElse(null);
+        this.invalidate();
+        if (Sponge.isServerAvailable()) {
+            serviceCollection.schedulerService().runOnMainThread(this::refreshAll);
+        }
+    }
+
+    /**
+     * An immutable view of the grouped player list.
+     */
+    public static final class Snapshot {
+
+        private final long version;
+        private final List<Group> groups;
+        private final long playerCount;
+        private final long hiddenCount;
+        private final ListConfig config;
+
+        // keyed on whether vanished players are shown and the viewer's afk and hidden markers
+        private final Map<List<Object>, List<Component>> rendered = new ConcurrentHashMap<>();
+
+        Snapshot(final long version, final List<Group> groups, final long playerCount, final long hiddenCount, final ListConfig config) {
+            this.version = version;
+            this.groups = groups;
+            this.playerCount = playerCount;
+            this.hiddenCount = hiddenCount;
+            this.config = config;
+        }
+
+        public long getPlayerCount() {
+            return this.playerCount;
+        }
+
+        public long getHiddenCount() {
+            return this.hiddenCount;
+        }
+
+        /**
+         * Gets the lines to display for a viewer.
+         *
+         * @param showVanished Whether the viewer can see vanished players
+         * @param afk The AFK marker, in the viewer's locale
+         * @param hidden The vanished marker, in the viewer's locale
+         * @return The lines to display
+         */
+        public List<Component> getLines(final boolean showVanished, final Component afk, final Component hidden) {
+            return this.rendered.computeIfAbsent(Arrays.asList(showVanished, afk, hidden), key -> this.createLines(showVanished, afk, hidden));
+        }
+
+        private List<Component> createLines(final boolean showVanished, final Component afk, final Component hidden) {
+            final List<Component> messages = new ArrayList<>();
+            for (final Group group : this.groups) {
+                final List<Component> players = this.getPlayerList(group.players, showVanished, afk, hidden);
+                if (group.name == null) {
+                    messages.addAll(players);
+                } else if (!players.isEmpty()) {
+                    // There might not be a player to show, they might be vanished!
+                    this.addGroup(players, messages, group.name);
+                }
+            }
+            return messages;
+        }
+
+        private void addGroup(final List<Component> m, final List<Component> messages, final String groupName) {
+            if (this.config.isCompact()) {
+                boolean isFirst = true;
+                for (final Component y : m) {
+                    final TextComponent.Builder tb = Component.text();
+                    if (isFirst) {
+                        tb.append(Component.text(": ", NamedTextColor.YELLOW));
+                    }
+                    isFirst = false;
+                    messages.add(tb.append(y).build());
+                }
+            } else {
+                final Component groupNameTextComponent = LegacyComponentSerializer.legacyAmpersand().deserialize(groupName);
+                messages.add(LinearComponents.linear(groupNameTextComponent, Component.text(":", NamedTextColor.YELLOW)));
+                messages.addAll(m);
+            }
+        }
+
+        private List<Component> getPlayerList(final Collection<PlayerEntry> playersToList, final boolean showVanished, final Component afk,
+                final Component hidden) {
+            final List<Component> playerList = playersToList.stream().filter(x -> showVanished || !x.vanished)
+                    .map(x -> {
+                        final TextComponent.Builder tb = Component.text();
+                        boolean appendSpace = false;
+                        if (x.afk) {
+                            tb.append(afk);
+                            appendSpace = true;
+                        }
+
+                        if (x.vanished) {
+                            tb.append(hidden);
+                            appendSpace = true;
+                        }
+
+                        if (appendSpace) {
+                            tb.append(Component.space());
+                        }
+
+                        return tb.append(x.rendered).build();
+                    }).collect(Collectors.toList());
+
+            if (this.config.isCompact() && !playerList.isEmpty()) {
+                final List<Component> toReturn = new ArrayList<>();
+                final int maxSize = this.config.getMaxPlayersPerLine();
+                TextComponent.Builder tb = null;
+                int count = 0;
+                for (final Component text : playerList) {
+                    if (tb == null || count == maxSize) {
+                        if (tb != null) {
+                            toReturn.add(tb.build());
+                        }
+                        tb = Component.text();
+                        count = 0;
+                    } else {
+                        tb.append(Component.text(", ", NamedTextColor.WHITE));
+                    }
+
+                    tb.append(text);
+                    count++;
+                }
+
+                toReturn.add(tb.build());
+                return toReturn;
+            }
+
+            return playerList;
+        }
+    }
+
+    static final class Group {
+
+        @Nullable private final String name;
+        private final List<PlayerEntry> players;
+
+        Group(@Nullable final String name, final List<PlayerEntry> players) {
+            this.name = name;
+            this.players = players;
+        }
+    }
+
+    static final class PlayerEntry {
+
+        private final UUID uuid;
+        private final String name;
+        private final String group;
+        private final Component rendered;
+        private final boolean vanished;
+        private final boolean afk;
+
+        PlayerEntry(final UUID uuid, final String name, final String group, final Component rendered, final boolean vanished, final boolean afk) {
+            this.uuid = uuid;
+            this.name = name;
+            this.group = group;
+            this.rendered = rendered;
+            this.vanished = vanished;
+            this.afk = afk;
+        }
+
+        PlayerEntry withVanished(final boolean vanished) {
+            return new PlayerEntry(this.uuid, this.name, this.group, this.rendered, vanished, this.afk);
+        }
+
+        PlayerEntry withAfk(final boolean afk) {
+            return new PlayerEntry(this.uuid, this.name, this.group, this.rendered, this.vanished, afk);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || this.getClass() != o.getClass()) {
+                return false;
+            }
+            final PlayerEntry that = (PlayerEntry) o;
+            return this.vanished == that.vanished
+                    && this.afk == that.afk
+                    && this.uuid.equals(that.uuid)
+                    && this.name.equals(that.name)
+                    && this.group.equals(that.group)
+                    && this.rendered.equals(that.rendered);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.uuid.hashCode();
+        }
+    }
+
+}
@@ -8,12 +8,14 @@ import io.github.nucleuspowered.nucleus.api.core.event.NucleusRegisterPreference
 import io.github.nucleuspowered.nucleus.core.module.IModule;
 import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandExecutor;
 import io.github.nucleuspowered.nucleus.core.scaffold.listener.ListenerBase;
+import io.github.nucleuspowered.nucleus.core.scaffold.task.TaskBase;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.modules.powertool.commands.DeletePowertoolCommand;
 import io.github.nucleuspowered.nucleus.modules.powertool.commands.ListPowertoolCommand;
 import io.github.nucleuspowered.nucleus.modules.powertool.commands.PowertoolCommand;
 import io.github.nucleuspowered.nucleus.modules.powertool.commands.TogglePowertoolCommand;
 import io.github.nucleuspowered.nucleus.modules.powertool.listeners.PowertoolListener;
+import io.github.nucleuspowered.nucleus.modules.powertool.runnables.PowertoolSaveTask;
 import io.github.nucleuspowered.nucleus.modules.powertool.services.PowertoolService;
 import org.spongepowered.api.event.Listener;
 
@@ -48,6 +50,11 @@ public class PowertoolModule implements IModule {
         return Collections.singleton(PowertoolListener.class);
     }
 
+    @Override
+    public Collection<Class<? extends TaskBase>> getAsyncTasks() {
+        return Collections.singleton(PowertoolSaveTask.class);
+    }
+
     @Listener
     public void onPreferenceKeyRegistration(final NucleusRegisterPreferenceKeyEvent event) {
         event.register(PowertoolKeys.POWERTOOL_ENABLED);
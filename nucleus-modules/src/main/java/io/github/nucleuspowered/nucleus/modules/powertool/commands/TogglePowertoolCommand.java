@@ -6,6 +6,7 @@ package io.github.nucleuspowered.nucleus.modules.powertool.commands;
 
 import io.github.nucleuspowered.nucleus.modules.powertool.PowertoolKeys;
 import io.github.nucleuspowered.nucleus.modules.powertool.PowertoolPermissions;
+import io.github.nucleuspowered.nucleus.modules.powertool.services.PowertoolService;
 import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandContext;
 import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandExecutor;
 import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandResult;
@@ -39,6 +40,7 @@ public class TogglePowertoolCommand implements ICommandExecutor {
         // If specified - get the key. Else, the inverse of what we have now.
         final boolean toggle = context.getOne(NucleusParameters.OPTIONAL_ONE_TRUE_FALSE).orElse(!keys);
         ups.set(src.uniqueId(), PowertoolKeys.POWERTOOL_ENABLED, toggle);
+        context.getServiceCollection().getServiceUnchecked(PowertoolService.class).invalidateState(src.uniqueId());
 
         context.sendMessage("command.powertool.toggle", context.getMessage(toggle ? "standard.enabled" : "standard.disabled"));
         return context.successResult();
@@ -0,0 +1,37 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.powertool.runnables;
+
+import com.google.inject.Inject;
+import io.github.nucleuspowered.nucleus.core.scaffold.task.TaskBase;
+import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.modules.powertool.services.PowertoolService;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Saves the powertools of online players that have changed.
+ */
+public class PowertoolSaveTask implements TaskBase {
+
+    private final PowertoolService service;
+
+    @Inject
+    public PowertoolSaveTask(final INucleusServiceCollection serviceCollection) {
+        this.service = serviceCollection.getServiceUnchecked(PowertoolService.class);
+    }
+
+    @Override
+    public Duration interval() {
+        return Duration.of(1, ChronoUnit.MINUTES);
+    }
+
+    @Override
+    public void run() {
+        this.service.saveChanges();
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.powertool.services;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The commands for a powertool, split up front around the
+ * <code>{{subject}}</code> token so that using the tool does not need to
+ * search each command for it.
+ */
+public final class CompiledPowertool {
+
+    public static final String SUBJECT_TOKEN = "{{subject}}";
+    private static final Pattern SUBJECT_PATTERN = Pattern.compile(Pattern.quote(SUBJECT_TOKEN));
+
+    // Commands without the token are held as a single segment.
+    private final List<String[]> commands;
+    private final boolean requiresSubject;
+
+    static CompiledPowertool compile(final List<String> commands) {
+        final List<String[]> compiled = new ArrayList<>(commands.size());
+        boolean requiresSubject = true;
+        for (final String command : commands) {
+            final String[] segments = SUBJECT_PATTERN.split(command, -1);
+            requiresSubject &= segments.length > 1;
+            compiled.add(segments);
+        }
+        return new CompiledPowertool(Collections.unmodifiableList(compiled), requiresSubject);
+    }
+
+    private CompiledPowertool(final List<String[]> commands, final boolean requiresSubject) {
+        this.commands = commands;
+        this.requiresSubject = requiresSubject;
+    }
+
+    /**
+     * Whether every command needs a subject, so there is nothing to run if
+     * the tool was not used on a player.
+     *
+     * @return Whether a subject is required
+     */
+    public boolean requiresSubject() {
+        return this.requiresSubject;
+    }
+
+    /**
+     * Gets the commands to run, with the subject filled in. If there is no
+     * subject, commands that need one are left out.
+     *
+     * @param subject The name of the subject, if any
+     * @return The commands
+     */
+    public List<String> getCommands(@Nullable final String subject) {
+        final List<String> result = new ArrayList<>(this.commands.size());
+        for (final String[] segments : this.commands) {
+            if (segments.length == 1) {
+                result.add(segments[0]);
+            } else if (subject != null) {
+                result.add(String.join(subject, segments));
+            }
+        }
+        return result;
+    }
+
+}
@@ -5,48 +5,159 @@
 package io.github.nucleuspowered.nucleus.modules.powertool.services;
 
 import io.github.nucleuspowered.nucleus.modules.powertool.PowertoolKeys;
+import io.github.nucleuspowered.nucleus.modules.powertool.PowertoolPermissions;
 import io.github.nucleuspowered.nucleus.core.scaffold.service.ServiceBase;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.IPermissionService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IStorageManager;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.IUserPreferenceService;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.api.ResourceKey;
+import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 import org.spongepowered.api.item.ItemType;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import com.google.inject.Inject;
 import org.spongepowered.api.registry.RegistryTypes;
 
+/**
+ * Holds the powertools of each online player, along with a table of those
+ * tools compiled for the item they are bound to, so that an interaction only
+ * has to look up the item in hand.
+ *
+ * <p>Changes made while a player is online are saved in batches, and when the
+ * player logs out, rather than on every edit.</p>
+ */
 public class PowertoolService implements ServiceBase {
 
-    private final Map<ItemType, String> cache = new HashMap<>();
-    private final Map<UUID, Map<String, List<String>>> powertools = new HashMap<>();
+    private static final long STATE_LIFETIME = TimeUnit.SECONDS.toNanos(30);
+
+    private final Map<ItemType, String> cache = new ConcurrentHashMap<>();
+    private final Map<UUID, Map<String, List<String>>> powertools = new ConcurrentHashMap<>();
+    private final Map<UUID, Map<ItemType, CompiledPowertool>> compiled = new ConcurrentHashMap<>();
+    private final Map<UUID, PlayerState> states = new ConcurrentHashMap<>();
+    private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> changed = ConcurrentHashMap.newKeySet();
 
     private final IStorageManager storageManager;
+    private final IPermissionService permissionService;
+    private final IUserPreferenceService userPreferenceService;
 
     @Inject
     public PowertoolService(final INucleusServiceCollection serviceCollection) {
         this.storageManager = serviceCollection.storageManager();
+        this.permissionService = serviceCollection.permissionService();
+        this.userPreferenceService = serviceCollection.userPreferenceService();
+    }
+
+    public void loadPlayer(final ServerPlayer player) {
+        final UUID uuid = player.uniqueId();
+        this.online.add(uuid);
+        this.states.put(uuid, this.createState(player));
+        this.storageManager.getUser(uuid).thenAccept(x -> {
+            final Map<String, List<String>> tools = x.flatMap(y -> y.get(PowertoolKeys.POWERTOOLS)).orElseGet(Collections::emptyMap);
+            synchronized (this) {
+                // don't overwrite anything changed since the player logged in.
+                if (this.online.contains(uuid) && !this.powertools.containsKey(uuid)) {
+                    this.install(uuid, tools);
+                }
+            }
+        });
+    }
+
+    public synchronized void unloadPlayer(final UUID uuid) {
+        this.online.remove(uuid);
+        this.states.remove(uuid);
+        this.compiled.remove(uuid);
+        final Map<String, List<String>> tools = this.powertools.remove(uuid);
+        if (this.changed.remove(uuid) && tools != null) {
+            this.save(uuid, tools);
+        }
+    }
+
+    /**
+     * Saves the powertools of any online player that have changed since they
+     * were last saved.
+     */
+    public synchronized void saveChanges() {
+        for (final UUID uuid : new ArrayList<>(this.changed)) {
+            this.changed.remove(uuid);
+            final Map<String, List<String>> tools = this.powertools.get(uuid);
+            if (tools != null) {
+                this.save(uuid, tools);
+            }
+        }
+    }
+
+    /**
+     * Gets the cached permission and toggle state for the player,
+     * recalculating it if it is out of date.
+     *
+     * @param player The player
+     * @return The state
+     */
+    public PlayerState getState(final ServerPlayer player) {
+        final PlayerState state = this.states.get(player.uniqueId());
+        if (state != null && System.nanoTime() - state.created < STATE_LIFETIME) {
+            return state;
+        }
+
+        final PlayerState newState = this.createState(player);
+        if (this.online.contains(player.uniqueId())) {
+            this.states.put(player.uniqueId(), newState);
+        }
+        return newState;
+    }
+
+    /**
+     * Marks the cached state for the player as out of date, such as when they
+     * toggle their powertools.
+     *
+     * @param uuid The {@link UUID} of the player
+     */
+    public void invalidateState(final UUID uuid) {
+        this.states.remove(uuid);
+    }
+
+    /**
+     * Gets the compiled powertools for an online player, keyed by item.
+     *
+     * @param uuid The {@link UUID} of the player
+     * @return The powertools, or null if the player has none
+     */
+    public @Nullable Map<ItemType, CompiledPowertool> getCompiledPowertools(final UUID uuid) {
+        return this.compiled.get(uuid);
     }
 
     public Map<String, List<String>> getPowertools(final UUID uuid) {
-        Map<String, List<String>> m = this.powertools.get(uuid);
-        if (m == null) {
-            // grab the user data
-            m = this.storageManager.getUserService()
-                    .getOrNewOnThread(uuid)
-                    .get(PowertoolKeys.POWERTOOLS)
-                    .orElseGet(HashMap::new);
-            this.powertools.put(uuid, m);
+        final Map<String, List<String>> m = this.powertools.get(uuid);
+        if (m != null) {
+            return m;
         }
 
-        return Collections.unmodifiableMap(m);
+        // grab the user data
+        final Map<String, List<String>> tools = this.storageManager.getUserOnThread(uuid)
+                .flatMap(x -> x.get(PowertoolKeys.POWERTOOLS))
+                .orElseGet(Collections::emptyMap);
+        synchronized (this) {
+            if (this.online.contains(uuid)) {
+                final Map<String, List<String>> current = this.powertools.get(uuid);
+                return current == null ? this.install(uuid, tools) : current;
+            }
+        }
+
+        return PowertoolService.freeze(tools);
     }
 
     // TODO: Fix powertools - the module needs redoing to properly handle items types and not just do this
@@ -58,20 +169,18 @@ public class PowertoolService implements ServiceBase {
     public Optional<List<String>> getPowertoolForItem(final UUID uuid, final ItemType item) {
         final String key = this.getKey(item);
         if (key != null) {
-            final List<String> tools = this.getPowertools(uuid).get(key);
-            if (tools != null) {
-                return Optional.of(Collections.unmodifiableList(tools));
-            }
+            return Optional.ofNullable(this.getPowertools(uuid).get(key));
         }
 
         return Optional.empty();
     }
 
-    public void setPowertool(final UUID uuid, final ItemType type, final List<String> commands) {
+    public synchronized void setPowertool(final UUID uuid, final ItemType type, final List<String> commands) {
         final String key = this.getKey(type);
         if (key != null) {
-            this.getPowertools(uuid).put(key, new ArrayList<>(commands));
-            this.setBack(uuid);
+            final Map<String, List<String>> tools = new HashMap<>(this.getPowertools(uuid));
+            tools.put(key, commands);
+            this.update(uuid, tools);
         }
     }
 
@@ -82,20 +191,80 @@ public class PowertoolService implements ServiceBase {
         }
     }
 
-    public void clearPowertool(final UUID uuid, final String type) {
-        this.getPowertools(uuid).remove(type);
-        this.setBack(uuid);
+    public synchronized void clearPowertool(final UUID uuid, final String type) {
+        final Map<String, List<String>> tools = new HashMap<>(this.getPowertools(uuid));
+        if (tools.remove(type) != null) {
+            this.update(uuid, tools);
+        }
+    }
+
+    private void update(final UUID uuid, final Map<String, List<String>> tools) {
+        if (this.online.contains(uuid)) {
+            this.install(uuid, tools);
+            this.changed.add(uuid);
+        } else {
+            this.save(uuid, tools);
+        }
     }
 
-    public void reset(final UUID uuid) {
-        this.powertools.remove(uuid);
-        this.setBack(uuid);
+    private Map<String, List<String>> install(final UUID uuid, final Map<String, List<String>> tools) {
+        final Map<String, List<String>> frozen = PowertoolService.freeze(tools);
+        final Map<ItemType, CompiledPowertool> table = new IdentityHashMap<>();
+        for (final Map.Entry<String, List<String>> entry : frozen.entrySet()) {
+            // tools for items that no longer exist can't be used, but are kept so they can be listed and removed.
+            final Optional<ItemType> type = RegistryTypes.ITEM_TYPE.get().findValue(ResourceKey.resolve(entry.getKey()));
+            type.ifPresent(itemType -> table.put(itemType, CompiledPowertool.compile(entry.getValue())));
+        }
+
+        this.powertools.put(uuid, frozen);
+        if (table.isEmpty()) {
+            this.compiled.remove(uuid);
+        } else {
+            this.compiled.put(uuid, Collections.unmodifiableMap(table));
+        }
+        return frozen;
     }
 
-    private void setBack(final UUID uuid) {
-        this.storageManager
-                .getUserService()
-                .getOrNew(uuid)
-                .thenAccept(x -> x.set(PowertoolKeys.POWERTOOLS, this.powertools.getOrDefault(uuid, new HashMap<>())));
+    private void save(final UUID uuid, final Map<String, List<String>> tools) {
+        if (tools.isEmpty()) {
+            this.storageManager.getUserService().removeAndSave(uuid, PowertoolKeys.POWERTOOLS);
+        } else {
+            final Map<String, List<String>> toSave = new HashMap<>();
+            tools.forEach((key, value) -> toSave.put(key, new ArrayList<>(value)));
+            this.storageManager.getUserService().setAndSave(uuid, PowertoolKeys.POWERTOOLS, toSave);
+        }
     }
+
+    private PlayerState createState(final ServerPlayer player) {
+        return new PlayerState(
+                this.permissionService.hasPermission(player, PowertoolPermissions.BASE_POWERTOOL),
+                this.userPreferenceService.get(player.uniqueId(), PowertoolKeys.POWERTOOL_ENABLED).orElse(true)
+        );
+    }
+
+    private static Map<String, List<String>> freeze(final Map<String, List<String>> tools) {
+        final Map<String, List<String>> frozen = new HashMap<>();
+        tools.forEach((key, value) -> frozen.put(key, Collections.unmodifiableList(new ArrayList<>(value))));
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    /**
+     * The permission and toggle state of a player, as of when it was created.
+     */
+    public static final class PlayerState {
+
+        private final long created = System.nanoTime();
+        private final boolean permitted;
+        private final boolean enabled;
+
+        private PlayerState(final boolean permitted, final boolean enabled) {
+            this.permitted = permitted;
+            this.enabled = enabled;
+        }
+
+        public boolean canUsePowertools() {
+            return this.permitted && this.enabled;
+        }
+    }
+
 }
@@ -10,6 +10,7 @@ import io.github.nucleuspowered.nucleus.modules.serverlist.commands.TemporaryMes
 import io.github.nucleuspowered.nucleus.modules.serverlist.config.ServerListConfig;
 import io.github.nucleuspowered.nucleus.modules.serverlist.listener.ServerListListener;
 import io.github.nucleuspowered.nucleus.modules.serverlist.listener.WhitelistServerListListener;
+import io.github.nucleuspowered.nucleus.modules.serverlist.services.ServerListPingService;
 import io.github.nucleuspowered.nucleus.modules.serverlist.services.ServerListService;
 import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandExecutor;
 import io.github.nucleuspowered.nucleus.core.scaffold.listener.ListenerBase;
@@ -26,6 +27,7 @@ public class ServerListModule implements IModule.Configurable<ServerListConfig>
     @Override 
     public void init(final INucleusServiceCollection serviceCollection) {
         serviceCollection.registerService(ServerListService.class, new ServerListService(serviceCollection), false);
+        serviceCollection.registerService(ServerListPingService.class, new ServerListPingService(serviceCollection), false);
     }
 
     @Override 
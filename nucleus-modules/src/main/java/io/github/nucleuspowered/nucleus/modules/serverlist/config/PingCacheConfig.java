@@ -0,0 +1,45 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.serverlist.config;
+
+import io.github.nucleuspowered.nucleus.core.services.interfaces.annotation.configuratehelper.LocalisedComment;
+import org.spongepowered.configurate.objectmapping.ConfigSerializable;
+import org.spongepowered.configurate.objectmapping.meta.Setting;
+
+@ConfigSerializable
+public class PingCacheConfig {
+
+    @Setting(value = "cache-seconds")
+    @LocalisedComment("config.serverlist.pingcache.seconds")
+    private int cacheSeconds = 5;
+
+    @Setting(value = "rate-limit-enabled")
+    @LocalisedComment("config.serverlist.pingcache.ratelimit")
+    private boolean rateLimitEnabled = false;
+
+    @Setting(value = "rate-limit-pings-per-second")
+    @LocalisedComment("config.serverlist.pingcache.rate")
+    private double pingsPerSecond = 1;
+
+    @Setting(value = "rate-limit-burst")
+    @LocalisedComment("config.serverlist.pingcache.burst")
+    private int burst = 5;
+
+    public long getCacheMillis() {
+        return Math.max(0, this.cacheSeconds) * 1000L;
+    }
+
+    public boolean isRateLimitEnabled() {
+        return this.rateLimitEnabled;
+    }
+
+    public double getPingsPerSecond() {
+        return Math.max(0.01, this.pingsPerSecond);
+    }
+
+    public int getBurst() {
+        return Math.max(1, this.burst);
+    }
+}
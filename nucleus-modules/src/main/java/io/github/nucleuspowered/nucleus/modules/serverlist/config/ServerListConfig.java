@@ -36,6 +36,10 @@ public class ServerListConfig {
     @LocalisedComment("config.serverlist.whitelistmessages")
     public List<String> whitelist = Collections.emptyList();
 
+    @Setting(value = "ping-cache")
+    @LocalisedComment("config.serverlist.pingcache")
+    private PingCacheConfig pingCache = new PingCacheConfig();
+
     public boolean isModifyServerList() {
         return this.modifyServerList == ServerListSelection.TRUE;
     }
@@ -64,6 +68,10 @@ public class ServerListConfig {
         return this.modifyServerList == ServerListSelection.WHITELIST;
     }
 
+    public PingCacheConfig getPingCache() {
+        return this.pingCache;
+    }
+
     public ServerListSelection getModifyServerList() {
         return this.modifyServerList;
     }
@@ -4,38 +4,32 @@
  */
 package io.github.nucleuspowered.nucleus.modules.serverlist.listener;
 
-import io.github.nucleuspowered.nucleus.api.text.NucleusTextTemplate;
 import io.github.nucleuspowered.nucleus.modules.serverlist.config.ServerListConfig;
+import io.github.nucleuspowered.nucleus.modules.serverlist.services.ServerListPingService;
 import io.github.nucleuspowered.nucleus.modules.serverlist.services.ServerListService;
+import io.github.nucleuspowered.nucleus.modules.vanish.events.InternalVanishChangeEvent;
 import io.github.nucleuspowered.nucleus.core.scaffold.listener.ListenerBase;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
 import net.kyori.adventure.text.Component;
 import org.spongepowered.api.Sponge;
-import org.spongepowered.api.data.Keys;
-import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.Order;
 import org.spongepowered.api.event.filter.Getter;
+import org.spongepowered.api.event.network.ServerSideConnectionEvent;
 import org.spongepowered.api.event.server.ClientPingServerEvent;
 import org.spongepowered.api.profile.GameProfile;
 
-import java.security.SecureRandom;
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import com.google.inject.Inject;
 
 public class ServerListListener implements IReloadableService.Reloadable, ListenerBase.Conditional {
 
     private final ServerListService service;
-    private final SecureRandom random = new SecureRandom(); // stops SonarQube complaining
+    private final ServerListPingService pingService;
 
-    private final List<NucleusTextTemplate> whitelist = new ArrayList<>();
-    private final List<NucleusTextTemplate> messages = new ArrayList<>();
     private boolean hidePlayerCount;
     private boolean hideVanishPlayers;
     private boolean modifyServerList;
@@ -43,26 +37,29 @@ public class ServerListListener implements IReloadableService.Reloadable, Listen
     @Inject
     public ServerListListener(final INucleusServiceCollection serviceCollection) {
         this.service = serviceCollection.getServiceUnchecked(ServerListService.class);
+        this.pingService = serviceCollection.getServiceUnchecked(ServerListPingService.class);
     }
 
     @Listener
     public void onServerListPing(final ClientPingServerEvent event, @Getter("response") final ClientPingServerEvent.Response response) {
+        final ServerListPingService.PingResponse pingResponse = this.pingService.getResponse(event.client().address().getAddress());
         if (this.modifyServerList) {
-            List<NucleusTextTemplate> list = null;
             final Optional<Component> ott = this.service.getMessage();
 
             if (ott.isPresent()) {
                 response.setDescription(ott.get());
             } else {
-                if (Sponge.server().isWhitelistEnabled() && !this.whitelist.isEmpty()) {
-                    list = this.whitelist;
-                } else if (!this.messages.isEmpty()) {
-                    list = this.messages;
+                Component description = null;
+                if (Sponge.server().isWhitelistEnabled()) {
+                    description = pingResponse.getRandomWhitelistMessage();
                 }
 
-                if (list != null) {
-                    final NucleusTextTemplate template = list.get(this.random.nextInt(list.size()));
-                    response.setDescription(template.getForObject(Sponge.systemSubject()));
+                if (description == null) {
+                    description = pingResponse.getRandomMessage();
+                }
+
+                if (description != null) {
+                    response.setDescription(description);
                 }
             }
         }
@@ -70,11 +67,7 @@ public class ServerListListener implements IReloadableService.Reloadable, Listen
         if (this.hidePlayerCount) {
             response.setHidePlayers(true);
         } else if (this.hideVanishPlayers) {
-            final Collection<GameProfile> players = Sponge.server().onlinePlayers().stream()
-                    .filter(x -> !x.get(Keys.VANISH).orElse(false))
-                    .map(ServerPlayer::profile)
-                    .collect(Collectors.toList());
-
+            final List<GameProfile> players = pingResponse.getVisiblePlayers();
             response.players().ifPresent(y -> {
                 y.profiles().clear();
                 y.profiles().addAll(players);
@@ -83,19 +76,24 @@ public class ServerListListener implements IReloadableService.Reloadable, Listen
         }
     }
 
+    @Listener(order = Order.POST)
+    public void onJoin(final ServerSideConnectionEvent.Join event) {
+        this.pingService.invalidate();
+    }
+
+    @Listener(order = Order.POST)
+    public void onQuit(final ServerSideConnectionEvent.Disconnect event) {
+        this.pingService.invalidate();
+    }
+
+    @Listener(order = Order.POST)
+    public void onVanish(final InternalVanishChangeEvent event) {
+        this.pingService.invalidate();
+    }
+
     @Override
     public void onReload(final INucleusServiceCollection serviceCollection) {
         final ServerListConfig config = serviceCollection.configProvider().getModuleConfig(ServerListConfig.class);
-        this.whitelist.clear();
-        this.messages.clear();
-        config.getWhitelist().stream()
-                .map(x -> serviceCollection.textTemplateFactory().createFromAmpersandStringIgnoringExceptions(x).orElse(null))
-                .filter(Objects::nonNull)
-                .forEach(this.whitelist::add);
-        config.getMessages().stream()
-                .map(x -> serviceCollection.textTemplateFactory().createFromAmpersandStringIgnoringExceptions(x).orElse(null))
-                .filter(Objects::nonNull)
-                .forEach(this.messages::add);
         this.hidePlayerCount = config.isHidePlayerCount();
         this.hideVanishPlayers = config.isHideVanishedPlayers();
         this.modifyServerList = config.isModifyServerList();
@@ -0,0 +1,256 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.serverlist.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.inject.Inject;
+import io.github.nucleuspowered.nucleus.api.text.NucleusTextTemplate;
+import io.github.nucleuspowered.nucleus.core.scaffold.service.IStatisticsReporter;
+import io.github.nucleuspowered.nucleus.core.scaffold.service.ServiceBase;
+import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
+import io.github.nucleuspowered.nucleus.modules.serverlist.config.PingCacheConfig;
+import io.github.nucleuspowered.nucleus.modules.serverlist.config.ServerListConfig;
+import net.kyori.adventure.text.Component;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.data.Keys;
+import org.spongepowered.api.entity.living.player.server.ServerPlayer;
+import org.spongepowered.api.profile.GameProfile;
+import org.spongepowered.api.scheduler.Task;
+import org.spongepowered.plugin.PluginContainer;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Holds a pre-rendered server list response that is reused between pings,
+ * and rebuilt on the main thread when it expires or is invalidated.
+ */
+public class ServerListPingService implements ServiceBase, IReloadableService.Reloadable, IStatisticsReporter {
+
+    private final PluginContainer pluginContainer;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean(false);
+    private final Cache<InetAddress, TokenBucket> buckets = Caffeine.newBuilder()
+            .expireAfterAccess(1, TimeUnit.MINUTES)
+            .maximumSize(10_000)
+            .build();
+
+    private final AtomicLong pingsServed = new AtomicLong();
+    private final AtomicLong pingsFromCache = new AtomicLong();
+    private final AtomicLong pingsRateLimited = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private final AtomicLong rebuildNanos = new AtomicLong();
+
+    private List<NucleusTextTemplate> messages = Collections.emptyList();
+    private List<NucleusTextTemplate> whitelist = Collections.emptyList();
+    private PingCacheConfig config = new PingCacheConfig();
+
+    @Nullable private volatile PingResponse response = null;
+    private volatile boolean invalidated = false;
+
+    @Inject
+    public ServerListPingService(final INucleusServiceCollection serviceCollection) {
+        this.pluginContainer = serviceCollection.pluginContainer();
+    }
+
+    /**
+     * Gets the response to send to a client pinging the server.
+     *
+     * @param address The address of the client
+     * @return The response
+     */
+    public PingResponse getResponse(@Nullable final InetAddress address) {
+        this.pingsServed.incrementAndGet();
+        final PingResponse current = this.response;
+        if (current == null) {
+            // nothing to serve yet.
+            return this.rebuild();
+        }
+
+        if (address != null && this.config.isRateLimitEnabled() && !this.tryAcquire(address)) {
+            // flooding, they get whatever we have, even if caching is off.
+            this.pingsRateLimited.incrementAndGet();
+            this.pingsFromCache.incrementAndGet();
+            return current;
+        }
+
+        if (this.config.getCacheMillis() == 0) {
+            return this.rebuild();
+        }
+
+        this.pingsFromCache.incrementAndGet();
+        if (this.invalidated || System.currentTimeMillis() - current.builtAt > this.config.getCacheMillis()) {
+            this.scheduleRebuild();
+        }
+        return current;
+    }
+
+    /**
+     * Marks the cached response as out of date, it will be rebuilt on the
+     * next ping.
+     */
+    public void invalidate() {
+        this.invalidated = true;
+    }
+
+    @Override
+    public String getStatisticsHeading() {
+        return "Server list pings";
+    }
+
+    @Override
+    public List<String> getStatistics() {
+        return Arrays.asList(
+                "Served: " + this.pingsServed.get(),
+                "Served from cache: " + this.pingsFromCache.get(),
+                "Rate limited: " + this.pingsRateLimited.get(),
+                "Responses built: " + this.rebuilds.get(),
+                "Average build time: " + String.format("%.2f", this.getAverageRebuildMillis()) + " ms"
+        );
+    }
+
+    private double getAverageRebuildMillis() {
+        final long count = this.rebuilds.get();
+        if (count == 0) {
+            return 0;
+        }
+        return this.rebuildNanos.get() / (count * 1_000_000.0);
+    }
+
+    private boolean tryAcquire(final InetAddress address) {
+        final PingCacheConfig pingCacheConfig = this.config;
+        return this.buckets.get(address, x -> new TokenBucket(pingCacheConfig.getBurst()))
+                .tryAcquire(pingCacheConfig.getPingsPerSecond(), pingCacheConfig.getBurst());
+    }
+
+    private void scheduleRebuild() {
+        if (this.rebuildScheduled.compareAndSet(false, true)) {
+            Sponge.server().scheduler().submit(Task.builder()
+                    .execute(() -> {
+                        this.rebuildScheduled.set(false);
+                        this.rebuild();
+                    })
+                    .plugin(this.pluginContainer)
+                    .build());
+        }
+    }
+
+    private PingResponse rebuild() {
+        final long start = System.nanoTime();
+        this.invalidated = false;
+        final List<Component> renderedMessages = this.render(this.messages);
+        final List<Component> renderedWhitelist = this.render(this.whitelist);
+        final List<GameProfile> visiblePlayers = Sponge.server().onlinePlayers().stream()
+                .filter(x -> !x.get(Keys.VANISH).orElse(false))
+                .map(ServerPlayer::profile)
+                .collect(Collectors.toList());
+        final PingResponse newResponse = new PingResponse(
+                renderedMessages,
+                renderedWhitelist,
+                Collections.unmodifiableList(visiblePlayers),
+                System.currentTimeMillis());
+        this.response = newResponse;
+        this.rebuilds.incrementAndGet();
+        this.rebuildNanos.addAndGet(System.nanoTime() - start);
+        return newResponse;
+    }
+
+    private List<Component> render(final Collection<NucleusTextTemplate> templates) {
+        final List<Component> result = new ArrayList<>(templates.size());
+        for (final NucleusTextTemplate template : templates) {
+            result.add(template.getForObject(Sponge.systemSubject()));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public void onReload(final INucleusServiceCollection serviceCollection) {
+        final ServerListConfig serverListConfig = serviceCollection.configProvider().getModuleConfig(ServerListConfig.class);
+        this.messages = this.createTemplates(serviceCollection, serverListConfig.getMessages());
+        this.whitelist = this.createTemplates(serviceCollection, serverListConfig.getWhitelist());
+        this.config = serverListConfig.getPingCache();
+        this.buckets.invalidateAll();
+        this.response = null;
+    }
+
+    private List<NucleusTextTemplate> createTemplates(final INucleusServiceCollection serviceCollection, final List<String> strings) {
+        return strings.stream()
+                .map(x -> serviceCollection.textTemplateFactory().createFromAmpersandStringIgnoringExceptions(x).orElse(null))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    public static final class PingResponse {
+
+        private final List<Component> messages;
+        private final List<Component> whitelistMessages;
+        private final List<GameProfile> visiblePlayers;
+        private final long builtAt;
+
+        PingResponse(final List<Component> messages, final List<Component> whitelistMessages, final List<GameProfile> visiblePlayers,
+                final long builtAt) {
+            this.messages = messages;
+            this.whitelistMessages = whitelistMessages;
+            this.visiblePlayers = visiblePlayers;
+            this.builtAt = builtAt;
+        }
+
+        @Nullable
+        public Component getRandomMessage() {
+            return PingResponse.random(this.messages);
+        }
+
+        @Nullable
+        public Component getRandomWhitelistMessage() {
+            return PingResponse.random(this.whitelistMessages);
+        }
+
+        public List<GameProfile> getVisiblePlayers() {
+            return this.visiblePlayers;
+        }
+
+        @Nullable
+        private static Component random(final List<Component> components) {
+            if (components.isEmpty()) {
+                return null;
+            }
+            return components.get(ThreadLocalRandom.current().nextInt(components.size()));
+        }
+    }
+
+    private static final class TokenBucket {
+
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        TokenBucket(final int burst) {
+            this.tokens = burst;
+        }
+
+        synchronized boolean tryAcquire(final double perSecond, final int burst) {
+            final long now = System.nanoTime();
+            this.tokens = Math.min(burst, this.tokens + (now - this.lastRefill) / 1_000_000_000.0 * perSecond);
+            this.lastRefill = now;
+            if (this.tokens >= 1) {
+                this.tokens--;
+                return true;
+            }
+            return false;
+        }
+    }
+
+}
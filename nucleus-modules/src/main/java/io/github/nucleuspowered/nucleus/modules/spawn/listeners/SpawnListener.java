@@ -120,7 +120,7 @@ public class SpawnListener implements IReloadableService.Reloadable, ListenerBas
             final Optional<ServerLocation> safe = this.serviceCollection.teleportService()
                     .getSafeLocation(
                             lw,
-                            TeleportScanners.ASCENDING_SCAN.get(),
+                            TeleportScanners.HEIGHTMAP_ASCENDING_SCAN.get(),
                             this.spawnConfig.isSafeTeleport() ? TeleportHelperFilters.DEFAULT.get() : NucleusTeleportHelperFilters.NO_CHECK.get()
                     );
 
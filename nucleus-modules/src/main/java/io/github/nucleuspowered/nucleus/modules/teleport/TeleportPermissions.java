@@ -45,6 +45,9 @@ public final class TeleportPermissions {
     @PermissionMetadata(descriptionKey = "permission.exempt.warmup", replacements = { "tpa" }, level = SuggestedLevel.ADMIN)
     public static final String EXEMPT_WARMUP_TPA = "nucleus.teleport.tpa.exempt.warmup";
 
+    @PermissionMetadata(descriptionKey = "permission.teleport.exempt.requestlimit", level = SuggestedLevel.ADMIN)
+    public static final String EXEMPT_REQUEST_LIMIT = "nucleus.teleport.tpa.exempt.requestlimit";
+
     @PermissionMetadata(descriptionKey = "permission.teleport.force", level = SuggestedLevel.ADMIN)
     public static final String TELEPORT_ASK_FORCE = "nucleus.teleport.tpa.force";
 
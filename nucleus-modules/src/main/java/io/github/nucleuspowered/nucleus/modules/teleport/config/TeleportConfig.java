@@ -43,6 +43,14 @@ public class TeleportConfig {
     @LocalisedComment("config.teleport.useRequestLocation")
     private boolean useRequestLocation = false;
 
+    @Setting(value = "max-pending-requests-per-player")
+    @LocalisedComment("config.teleport.maxPendingRequests")
+    private int maxRequestsPerRecipient = 0;
+
+    @Setting(value = "max-outstanding-requests-per-requester")
+    @LocalisedComment("config.teleport.maxOutstandingRequests")
+    private int maxRequestsPerRequester = 0;
+
     public boolean isDefaultQuiet() {
         return this.defaultQuiet;
     }
@@ -74,4 +82,12 @@ public class TeleportConfig {
     public boolean isUseRequestLocation() {
         return this.useRequestLocation;
     }
+
+    public int getMaxRequestsPerRecipient() {
+        return Math.max(0, this.maxRequestsPerRecipient);
+    }
+
+    public int getMaxRequestsPerRequester() {
+        return Math.max(0, this.maxRequestsPerRequester);
+    }
 }
@@ -4,31 +4,36 @@
  */
 package io.github.nucleuspowered.nucleus.modules.teleport.runnables;
 
-import io.github.nucleuspowered.nucleus.modules.teleport.services.PlayerTeleporterService;
-import io.github.nucleuspowered.nucleus.core.scaffold.task.TaskBase;
+import com.google.inject.Inject;
+import io.github.nucleuspowered.nucleus.core.scaffold.task.SyncTaskBase;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.modules.teleport.services.PlayerTeleporterService;
+import org.spongepowered.api.scheduler.ScheduledTask;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 
-import com.google.inject.Inject;
-
-public class TeleportAsyncTask implements TaskBase {
+/**
+ * Removes timed out teleport requests. This runs on the main thread as
+ * expiring a request may message the requester and refund them.
+ */
+public class TeleportRequestExpiryTask implements SyncTaskBase {
 
     private final PlayerTeleporterService teleporterService;
 
     @Inject
-    public TeleportAsyncTask(final INucleusServiceCollection serviceCollection) {
+    public TeleportRequestExpiryTask(final INucleusServiceCollection serviceCollection) {
         this.teleporterService = serviceCollection.getServiceUnchecked(PlayerTeleporterService.class);
     }
 
     @Override
-    public void run() {
-        this.teleporterService.removeExpired();
+    public Duration interval() {
+        return Duration.of(1, ChronoUnit.SECONDS);
     }
 
     @Override
-    public Duration interval() {
-        return Duration.of(2, ChronoUnit.SECONDS);
+    public void accept(final ScheduledTask scheduledTask) {
+        this.teleporterService.removeExpired();
     }
+
 }
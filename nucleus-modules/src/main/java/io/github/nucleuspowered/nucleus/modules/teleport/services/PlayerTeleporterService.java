@@ -4,14 +4,13 @@
  */
 package io.github.nucleuspowered.nucleus.modules.teleport.services;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
 import com.google.inject.Inject;
 import io.github.nucleuspowered.nucleus.api.teleport.data.TeleportResult;
 import io.github.nucleuspowered.nucleus.api.teleport.data.TeleportScanners;
 import io.github.nucleuspowered.nucleus.modules.teleport.TeleportKeys;
 import io.github.nucleuspowered.nucleus.modules.teleport.TeleportPermissions;
 import io.github.nucleuspowered.nucleus.modules.teleport.config.TeleportConfig;
+import io.github.nucleuspowered.nucleus.core.scaffold.service.IStatisticsReporter;
 import io.github.nucleuspowered.nucleus.core.scaffold.service.ServiceBase;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IMessageProviderService;
@@ -40,13 +39,14 @@ import org.spongepowered.api.service.permission.Subject;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
-public final class PlayerTeleporterService implements ServiceBase, IReloadableService.Reloadable {
+public final class PlayerTeleporterService implements ServiceBase, IReloadableService.Reloadable, IStatisticsReporter {
 
     private boolean showAcceptDeny = true;
 
@@ -61,6 +61,8 @@ public final class PlayerTeleporterService implements ServiceBase, IReloadableSe
     private boolean useRequestLocation = true;
     private boolean useCommandsOnClickAcceptDeny = false;
     private boolean isOnlySameDimension = false;
+    private int maxRequestsPerRecipient = 0;
+    private int maxRequestsPerRequester = 0;
 
     @Inject
     public PlayerTeleporterService(final INucleusServiceCollection serviceCollection) {
@@ -101,8 +103,12 @@ public final class PlayerTeleporterService implements ServiceBase, IReloadableSe
         return this.permissionService.hasPermission(from, TeleportPermissions.TPTOGGLE_EXEMPT);
     }
 
-    private final Map<UUID, TeleportRequest> activeTeleportRequestsCommand = new HashMap<>();
-    private final Multimap<UUID, TeleportRequest> activeTeleportRequests = HashMultimap.create();
+    private final TeleportRequestStore requestStore = new TeleportRequestStore();
+    private final AtomicLong requestsMade = new AtomicLong();
+    private final AtomicLong requestsAccepted = new AtomicLong();
+    private final AtomicLong requestsDenied = new AtomicLong();
+    private final AtomicLong requestsExpired = new AtomicLong();
+    private final AtomicLong requestsLimited = new AtomicLong();
 
     public TeleportResult teleportWithMessage(
             final Audience source,
@@ -151,10 +157,12 @@ public final class PlayerTeleporterService implements ServiceBase, IReloadableSe
             final boolean silentSource,
             @Nullable final Consumer<Player> successCallback,
             final String messageKey) {
-        this.removeExpired();
-
         if (this.canTeleportTo(playerToTeleport, target.user())) {
             final Audience src = requester == null ? Sponge.systemSubject() : requester;
+            if (!this.isWithinRequestLimits(src, toRequest)) {
+                this.requestsLimited.incrementAndGet();
+                return false;
+            }
 
             final TeleportRequest request = new TeleportRequest(
                     this.serviceCollection,
@@ -172,8 +180,8 @@ public final class PlayerTeleporterService implements ServiceBase, IReloadableSe
                     successCallback
             );
 
-            this.activeTeleportRequestsCommand.put(toRequest.uniqueId(), request);
-            this.activeTeleportRequests.put(toRequest.uniqueId(), request);
+            this.requestStore.add(toRequest.uniqueId(), requester instanceof ServerPlayer ? ((ServerPlayer) requester).uniqueId() : null, request);
+            this.requestsMade.incrementAndGet();
 
             @Nullable final ServerPlayer requesterAsPlayer = src instanceof ServerPlayer ? (ServerPlayer) src : null;
             final Identity requesterIdentity = requesterAsPlayer == null ? Identity.nil() : requesterAsPlayer.identity();
@@ -195,7 +203,7 @@ public final class PlayerTeleporterService implements ServiceBase, IReloadableSe
      * @return The request, if any.
      */
     public Optional<TeleportRequest> getCurrentRequest(final Player player) {
-        return Optional.ofNullable(this.activeTeleportRequestsCommand.get(player.uniqueId()));
+        return Optional.ofNullable(this.requestStore.getLatest(player.uniqueId()));
     }
 
     /**
@@ -204,13 +212,51 @@ public final class PlayerTeleporterService implements ServiceBase, IReloadableSe
      * @param player The player
      */
     public void removeRequestsFor(final Player player) {
-        this.activeTeleportRequests.removeAll(player.uniqueId()).forEach(x -> x.forceExpire(true));
-        this.activeTeleportRequestsCommand.remove(player.uniqueId());
+        this.requestStore.removeAllFor(player.uniqueId()).forEach(x -> x.forceExpire(true));
     }
 
+    /**
+     * Removes requests that have timed out, informing the requester. Must be
+     * called on the main thread.
+     */
     public void removeExpired() {
-        this.activeTeleportRequests.values().removeIf(x -> !x.isActive());
-        this.activeTeleportRequestsCommand.values().removeIf(x -> !x.isActive());
+        final List<TeleportRequest> expired = this.requestStore.removeExpired(Instant.now());
+        for (final TeleportRequest request : expired) {
+            request.expire();
+        }
+        this.requestsExpired.addAndGet(expired.size());
+    }
+
+    @Override
+    public String getStatisticsHeading() {
+        return "Teleport requests";
+    }
+
+    @Override
+    public List<String> getStatistics() {
+        return Arrays.asList(
+                "Outstanding: " + this.requestStore.size(),
+                "Made: " + this.requestsMade.get(),
+                "Accepted: " + this.requestsAccepted.get(),
+                "Denied: " + this.requestsDenied.get(),
+                "Expired: " + this.requestsExpired.get(),
+                "Refused by request limits: " + this.requestsLimited.get());
+    }
+
+    private boolean isWithinRequestLimits(final Audience requester, final ServerPlayer toRequest) {
+        if (this.maxRequestsPerRecipient > 0 && this.requestStore.countForRecipient(toRequest.uniqueId()) >= this.maxRequestsPerRecipient) {
+            this.messageProviderService.sendMessageTo(requester, "command.tpask.limit.recipient", toRequest.name());
+            return false;
+        }
+
+        if (this.maxRequestsPerRequester > 0 && requester instanceof ServerPlayer
+                && !this.permissionService.hasPermission((ServerPlayer) requester, TeleportPermissions.EXEMPT_REQUEST_LIMIT)
+                && this.requestStore.countForRequester(((ServerPlayer) requester).uniqueId()) >= this.maxRequestsPerRequester) {
+            this.messageProviderService.sendMessageTo(requester, "command.tpask.limit.requester", this.maxRequestsPerRequester);
+            return false;
+        }
+
+        return true;
     }
 
     private Optional<Component> getAcceptDenyMessage(final ServerPlayer forPlayer, final TeleportRequest target) {
@@ -292,9 +338,9 @@ public final class PlayerTeleporterService implements ServiceBase, IReloadableSe
             return false;
         }
 
-        this.activeTeleportRequests.values().remove(target);
-        this.activeTeleportRequestsCommand.values().remove(target);
+        this.requestStore.remove(target);
         target.forceExpire(false);
+        this.requestsAccepted.incrementAndGet();
 
         final Optional<ServerPlayer> playerToTeleport = target.getToBeTeleported();
         if (!playerToTeleport.isPresent()) {
@@ -329,8 +375,8 @@ public final class PlayerTeleporterService implements ServiceBase, IReloadableSe
         }
 
         target.forceExpire(true);
-        this.activeTeleportRequests.values().remove(target);
-        this.activeTeleportRequestsCommand.values().remove(target);
+        this.requestStore.remove(target);
+        this.requestsDenied.incrementAndGet();
         this.messageProviderService.sendMessageTo(player, "command.tpdeny.deny");
         return true;
     }
@@ -366,5 +412,7 @@ public final class PlayerTeleporterService implements ServiceBase, IReloadableSe
         this.refundOnDeny = config.isRefundOnDeny();
         this.useRequestLocation = config.isUseRequestLocation();
         this.isOnlySameDimension = config.isOnlySameDimension();
+        this.maxRequestsPerRecipient = config.getMaxRequestsPerRecipient();
+        this.maxRequestsPerRequester = config.getMaxRequestsPerRequester();
     }
 }
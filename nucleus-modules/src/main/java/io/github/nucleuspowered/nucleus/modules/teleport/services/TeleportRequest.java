@@ -59,15 +59,19 @@ public final class TeleportRequest extends TeleportTask {
         }
     }
 
-    public boolean isActive() {
-        if (!this.expired) {
-            this.expired = (this.forcedExpired && Instant.now().isAfter(this.expiry));
-            if (this.expired) {
-                this.onCancel();
-            }
+    /**
+     * Marks this request as having timed out, running the cancellation
+     * callback if the request had not already been dealt with.
+     */
+    public void expire() {
+        if (!this.forcedExpired && !this.expired) {
+            this.expired = true;
+            this.onCancel();
         }
+    }
 
-        return !this.forcedExpired;
+    public boolean isActive() {
+        return !this.forcedExpired && !this.expired && Instant.now().isBefore(this.expiry);
     }
 
     public Instant getExpiryTime() {
@@ -0,0 +1,179 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.teleport.services;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Holds outstanding teleport requests, indexed by the player who has been
+ * asked, by the player who asked, and by expiry time.
+ *
+ * <p>Requests that are accepted, denied or cancelled are removed from the
+ * player indexes straight away, but are left in the expiry queue and skipped
+ * when they reach its head. This keeps every operation bounded by the number
+ * of requests a single player may have, and {@link #removeExpired(Instant)}
+ * bounded by the number of requests that have expired.</p>
+ *
+ * <p>This is not thread safe, and must only be used on the main thread.</p>
+ */
+final class TeleportRequestStore {
+
+    private final Map<UUID, Deque<Entry>> byRecipient = new HashMap<>();
+    private final Map<UUID, Set<Entry>> byRequester = new HashMap<>();
+    private final Map<TeleportRequest, Entry> entries = new HashMap<>();
+    private final PriorityQueue<Entry> expiryQueue = new PriorityQueue<>(Comparator.comparing(x -> x.request.getExpiryTime()));
+
+    void add(final UUID recipient, @Nullable final UUID requester, final TeleportRequest request) {
+        final Entry entry = new Entry(recipient, requester, request);
+        this.entries.put(request, entry);
+        this.byRecipient.computeIfAbsent(recipient, x -> new ArrayDeque<>()).addLast(entry);
+        if (requester != null) {
+            this.byRequester.computeIfAbsent(requester, x -> new LinkedHashSet<>()).add(entry);
+        }
+        this.expiryQueue.add(entry);
+    }
+
+    /**
+     * Gets the most recent request made to the given player.
+     *
+     * @param recipient The player who was asked
+     * @return The request, if there is one
+     */
+    @Nullable
+    TeleportRequest getLatest(final UUID recipient) {
+        final Deque<Entry> entries = this.byRecipient.get(recipient);
+        return entries == null ? null : entries.peekLast().request;
+    }
+
+    int countForRecipient(final UUID recipient) {
+        final Deque<Entry> entries = this.byRecipient.get(recipient);
+        return entries == null ? 0 : entries.size();
+    }
+
+    int countForRequester(final UUID requester) {
+        final Set<Entry> entries = this.byRequester.get(requester);
+        return entries == null ? 0 : entries.size();
+    }
+
+    int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Removes the request from the store.
+     *
+     * @param request The request
+     * @return Whether the request was in the store
+     */
+    boolean remove(final TeleportRequest request) {
+        final Entry entry = this.entries.remove(request);
+        if (entry == null) {
+            return false;
+        }
+        this.unindex(entry);
+        return true;
+    }
+
+    /**
+     * Removes all requests made to the given player.
+     *
+     * @param recipient The player who was asked
+     * @return The requests that were removed
+     */
+    Collection<TeleportRequest> removeAllFor(final UUID recipient) {
+        final Deque<Entry> removed = this.byRecipient.remove(recipient);
+        if (removed == null) {
+            return Collections.emptyList();
+        }
+
+        final List<TeleportRequest> requests = new ArrayList<>(removed.size());
+        for (final Entry entry : removed) {
+            this.entries.remove(entry.request);
+            this.removeFromRequester(entry);
+            requests.add(entry.request);
+        }
+        return requests;
+    }
+
+    /**
+     * Removes and returns all requests that expire at or before the given
+     * time.
+     *
+     * @param now The current time
+     * @return The expired requests
+     */
+    List<TeleportRequest> removeExpired(final Instant now) {
+        List<TeleportRequest> expired = Collections.emptyList();
+        Entry head;
+        while ((head = this.expiryQueue.peek()) != null && !head.request.getExpiryTime().isAfter(now)) {
+            this.expiryQueue.poll();
+            // skip anything that has already been dealt with.
+            if (this.entries.remove(head.request) != null) {
+                this.unindex(head);
+                if (expired.isEmpty()) {
+                    expired = new ArrayList<>();
+                }
+                expired.add(head.request);
+            }
+        }
+        return expired;
+    }
+
+    private void unindex(final Entry entry) {
+        final Deque<Entry> recipientEntries = this.byRecipient.get(entry.recipient);
+        if (recipientEntries != null) {
+            final Iterator<Entry> iterator = recipientEntries.descendingIterator();
+            while (iterator.hasNext()) {
+                if (iterator.next() == entry) {
+                    iterator.remove();
+                    break;
+                }
+            }
+            if (recipientEntries.isEmpty()) {
+                this.byRecipient.remove(entry.recipient);
+            }
+        }
+        this.removeFromRequester(entry);
+    }
+
+    private void removeFromRequester(final Entry entry) {
+        if (entry.requester != null) {
+            final Set<Entry> requesterEntries = this.byRequester.get(entry.requester);
+            if (requesterEntries != null && requesterEntries.remove(entry) && requesterEntries.isEmpty()) {
+                this.byRequester.remove(entry.requester);
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final UUID recipient;
+        @Nullable private final UUID requester;
+        private final TeleportRequest request;
+
+        private Entry(final UUID recipient, @Nullable final UUID requester, final TeleportRequest request) {
+            this.recipient = recipient;
+            this.requester = requester;
+            this.request = request;
+        }
+    }
+
+}
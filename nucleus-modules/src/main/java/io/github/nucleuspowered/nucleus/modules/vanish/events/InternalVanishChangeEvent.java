@@ -0,0 +1,42 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.vanish.events;
+
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.event.Cause;
+import org.spongepowered.api.event.impl.AbstractEvent;
+
+import java.util.UUID;
+
+/**
+ * Fired when an online player's vanish state changes, so that other modules
+ * that hold player visibility can update.
+ */
+public class InternalVanishChangeEvent extends AbstractEvent {
+
+    private final UUID player;
+    private final boolean vanished;
+    private final Cause cause;
+
+    public InternalVanishChangeEvent(final UUID player, final boolean vanished) {
+        this.cause = Sponge.server().causeStackManager().currentCause();
+        this.player = player;
+        this.vanished = vanished;
+    }
+
+    @Override
+    public Cause cause() {
+        return this.cause;
+    }
+
+    public UUID getPlayer() {
+        return this.player;
+    }
+
+    public boolean isVanished() {
+        return this.vanished;
+    }
+
+}
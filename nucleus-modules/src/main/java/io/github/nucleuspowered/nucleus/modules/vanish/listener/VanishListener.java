@@ -59,7 +59,7 @@ public class VanishListener implements IReloadableService.Reloadable, ListenerBa
 
     @Listener
     public void onLogin(final ServerSideConnectionEvent.Join event, @Getter("player") final ServerPlayer player) {
-        final boolean persist = this.service.isVanished(player.uniqueId());
+        final boolean persist = this.service.loadVanishState(player);
 
         final boolean shouldVanish = (this.permissionService.hasPermission(player, VanishPermissions.VANISH_ONLOGIN)
                 && this.userPreferenceService.get(player.uniqueId(), VanishKeys.VANISH_ON_LOGIN).orElse(false))
@@ -99,6 +99,7 @@ public class VanishListener implements IReloadableService.Reloadable, ListenerBa
         }
 
         this.service.clearLastVanishTime(player.uniqueId());
+        this.service.clearVanishState(player.uniqueId());
     }
 
     @Override
@@ -8,11 +8,11 @@ import com.google.inject.Inject;
 import io.github.nucleuspowered.nucleus.modules.vanish.VanishKeys;
 import io.github.nucleuspowered.nucleus.modules.vanish.VanishPermissions;
 import io.github.nucleuspowered.nucleus.modules.vanish.config.VanishConfig;
+import io.github.nucleuspowered.nucleus.modules.vanish.events.InternalVanishChangeEvent;
 import io.github.nucleuspowered.nucleus.core.scaffold.service.ServiceBase;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IPermissionService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
-import io.github.nucleuspowered.nucleus.core.services.interfaces.ISchedulerService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IStorageManager;
 import net.kyori.adventure.text.Component;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -21,27 +21,44 @@ import org.spongepowered.api.data.Keys;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.entity.living.player.User;
 import org.spongepowered.api.entity.living.player.server.ServerPlayer;
+import org.spongepowered.api.entity.living.player.tab.TabList;
 import org.spongepowered.api.entity.living.player.tab.TabListEntry;
+import org.spongepowered.api.scheduler.Task;
+import org.spongepowered.plugin.PluginContainer;
 
 import java.time.Instant;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class VanishService implements IReloadableService.Reloadable, ServiceBase {
 
     private boolean isAlter = false;
-    private final Map<UUID, Instant> lastVanish = new HashMap<>();
+    private final Map<UUID, Instant> lastVanish = new ConcurrentHashMap<>();
     private final IPermissionService permissionService;
     private final IStorageManager storageManager;
-    private final ISchedulerService schedulerService;
+    private final PluginContainer pluginContainer;
+
+    // Vanish state of online players, the storage is only consulted for offline players.
+    private final Map<UUID, Boolean> onlineVanishState = new ConcurrentHashMap<>();
+    private final Set<UUID> vanishedOnline = ConcurrentHashMap.newKeySet();
+
+    // Tab list changes are batched and applied once per tick.
+    private final Set<UUID> pendingSubjects = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> pendingViewers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean tabListUpdateScheduled = new AtomicBoolean(false);
 
     @Inject
     public VanishService(final INucleusServiceCollection serviceCollection) {
         this.permissionService = serviceCollection.permissionService();
         this.storageManager = serviceCollection.storageManager();
-        this.schedulerService = serviceCollection.schedulerService();
+        this.pluginContainer = serviceCollection.pluginContainer();
     }
 
     @Override
@@ -79,12 +96,52 @@ public class VanishService implements IReloadableService.Reloadable, ServiceBase
     }
 
     public boolean isVanished(final UUID uuid) {
+        final Boolean state = this.onlineVanishState.get(uuid);
+        if (state != null) {
+            return state;
+        }
         return this.storageManager.getUserService()
                 .getOnThread(uuid)
                 .flatMap(x -> x.get(VanishKeys.VANISH_STATUS))
                 .orElse(false);
     }
 
+    /**
+     * Gets the {@link UUID}s of online players who are vanished.
+     *
+     * @return The vanished players.
+     */
+    public Collection<UUID> getVanishedOnlinePlayers() {
+        return this.vanishedOnline;
+    }
+
+    /**
+     * Loads the stored vanish state for a player that has just joined.
+     *
+     * @param player The player
+     * @return The stored vanish state
+     */
+    public boolean loadVanishState(final ServerPlayer player) {
+        final boolean vanished = this.storageManager.getUserService()
+                .getOnThread(player.uniqueId())
+                .flatMap(x -> x.get(VanishKeys.VANISH_STATUS))
+                .orElse(false);
+        this.setOnlineState(player.uniqueId(), vanished);
+        if (this.isAlter && !this.vanishedOnline.isEmpty()) {
+            // the new player needs to have vanished players removed from their list.
+            this.pendingViewers.add(player.uniqueId());
+            this.scheduleTabListUpdate();
+        }
+        return vanished;
+    }
+
+    public void clearVanishState(final UUID uuid) {
+        this.onlineVanishState.remove(uuid);
+        this.vanishedOnline.remove(uuid);
+        this.pendingSubjects.remove(uuid);
+        this.pendingViewers.remove(uuid);
+    }
+
     public void vanishPlayer(final User player) {
         this.vanishPlayer(player, false);
     }
@@ -95,34 +152,31 @@ public class VanishService implements IReloadableService.Reloadable, ServiceBase
                 .set(VanishKeys.VANISH_STATUS, true);
 
         if (player.isOnline()) {
+            this.setOnlineState(player.uniqueId(), true);
             if (delay) {
-                this.schedulerService.runOnMainThread(() -> this.vanishPlayerInternal(player.player().get()));
+                // wait until the next tick so the join has finished, and only vanish them if they have not
+                // been unvanished since.
+                Sponge.server().scheduler().submit(Task.builder()
+                        .execute(() -> player.player()
+                                .filter(x -> this.vanishedOnline.contains(x.uniqueId()))
+                                .ifPresent(this::vanishPlayerInternal))
+                        .plugin(this.pluginContainer)
+                        .build());
             } else {
                 this.lastVanish.put(player.uniqueId(), Instant.now());
-                this.vanishPlayerInternal((Player) player);
+                this.vanishPlayerInternal(player.player().get());
             }
         }
     }
 
     private void vanishPlayerInternal(final Player player) {
-        this.vanishPlayerInternal(player,
-                this.storageManager.getUserService()
-                        .getOrNewOnThread(player.uniqueId())
-                        .get(VanishKeys.VANISH_STATUS)
-                        .orElse(false));
-    }
+        player.offer(Keys.VANISH, true);
+        player.offer(Keys.VANISH_IGNORES_COLLISION, true);
+        player.offer(Keys.VANISH_PREVENTS_TARGETING, true);
 
-    private void vanishPlayerInternal(final Player player, final boolean vanish) {
-        if (vanish) {
-            player.offer(Keys.VANISH, true);
-            player.offer(Keys.VANISH_IGNORES_COLLISION, true);
-            player.offer(Keys.VANISH_PREVENTS_TARGETING, true);
-
-            if (this.isAlter) {
-                Sponge.server().onlinePlayers().stream().filter(x -> !player.equals(x) || !this.permissionService
-                        .hasPermission(x, VanishPermissions.VANISH_SEE))
-                        .forEach(x -> x.tabList().removeEntry(player.uniqueId()));
-            }
+        if (this.isAlter) {
+            this.pendingSubjects.add(player.uniqueId());
+            this.scheduleTabListUpdate();
         }
     }
 
@@ -134,18 +188,83 @@ public class VanishService implements IReloadableService.Reloadable, ServiceBase
         user.offer(Keys.VANISH_IGNORES_COLLISION, false);
         user.offer(Keys.VANISH_PREVENTS_TARGETING, false);
 
-        if (this.isAlter && user.isOnline()) {
-            final ServerPlayer player = user.player().get();
-            Sponge.server().onlinePlayers().forEach(x -> {
-                if (!x.tabList().entry(player.uniqueId()).isPresent()) {
-                    x.tabList().addEntry(TabListEntry.builder()
-                            .displayName(Component.text(player.name()))
-                            .profile(player.profile())
-                            .gameMode(player.gameMode().get())
-                            .latency(player.connection().latency())
-                            .list(x.tabList()).build());
+        if (user.isOnline()) {
+            this.setOnlineState(user.uniqueId(), false);
+            if (this.isAlter) {
+                this.pendingSubjects.add(user.uniqueId());
+                this.scheduleTabListUpdate();
+            }
+        }
+    }
+
+    private void setOnlineState(final UUID uuid, final boolean vanished) {
+        final Boolean previous = this.onlineVanishState.put(uuid, vanished);
+        if (vanished) {
+            this.vanishedOnline.add(uuid);
+        } else {
+            this.vanishedOnline.remove(uuid);
+        }
+
+        if (previous != null && previous != vanished) {
+            Sponge.eventManager().post(new InternalVanishChangeEvent(uuid, vanished));
+        }
+    }
+
+    private void scheduleTabListUpdate() {
+        if (this.tabListUpdateScheduled.compareAndSet(false, true)) {
+            Sponge.server().scheduler().submit(Task.builder()
+                    .execute(this::applyTabListChanges)
+                    .plugin(this.pluginContainer)
+                    .build());
+        }
+    }
+
+    private void applyTabListChanges() {
+        this.tabListUpdateScheduled.set(false);
+        final List<UUID> subjects = new ArrayList<>(this.pendingSubjects);
+        this.pendingSubjects.removeAll(subjects);
+        final List<UUID> viewers = new ArrayList<>(this.pendingViewers);
+        this.pendingViewers.removeAll(viewers);
+
+        // Players whose vanish state changed, against everyone.
+        if (!subjects.isEmpty()) {
+            final Collection<ServerPlayer> online = Sponge.server().onlinePlayers();
+            for (final UUID subjectUuid : subjects) {
+                final Optional<ServerPlayer> subject = Sponge.server().player(subjectUuid);
+                if (subject.isPresent()) {
+                    final boolean vanished = this.vanishedOnline.contains(subjectUuid);
+                    for (final ServerPlayer viewer : online) {
+                        this.updateEntry(viewer, subject.get(), vanished);
+                    }
+                }
+            }
+        }
+
+        // New players, against the vanished players only.
+        for (final UUID viewerUuid : viewers) {
+            final Optional<ServerPlayer> viewer = Sponge.server().player(viewerUuid);
+            if (viewer.isPresent()) {
+                for (final UUID vanishedUuid : this.vanishedOnline) {
+                    Sponge.server().player(vanishedUuid).ifPresent(subject -> this.updateEntry(viewer.get(), subject, true));
                 }
-            });
+            }
+        }
+    }
+
+    private void updateEntry(final ServerPlayer viewer, final ServerPlayer subject, final boolean vanished) {
+        final boolean shouldShow = !vanished || viewer.equals(subject)
+                || this.permissionService.hasPermission(viewer, VanishPermissions.VANISH_SEE);
+        final TabList tabList = viewer.tabList();
+        final boolean isShown = tabList.entry(subject.uniqueId()).isPresent();
+        if (shouldShow && !isShown) {
+            tabList.addEntry(TabListEntry.builder()
+                    .displayName(Component.text(subject.name()))
+                    .profile(subject.profile())
+                    .gameMode(subject.gameMode().get())
+                    .latency(subject.connection().latency())
+                    .list(tabList).build());
+        } else if (!shouldShow && isShown) {
+            tabList.removeEntry(subject.uniqueId());
         }
     }
 
@@ -0,0 +1,58 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.test.modules.nickname;
+
+import io.github.nucleuspowered.nucleus.modules.nickname.services.NameTrie;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+public class NameTrieTest {
+
+    private final UUID first = UUID.randomUUID();
+    private final UUID second = UUID.randomUUID();
+
+    @Test
+    public void testPrefixLookupIgnoresCase() {
+        final NameTrie trie = new NameTrie();
+        trie.put(this.first, "Dualspiral");
+        trie.put(this.second, "duck");
+
+        final Map<UUID, String> result = trie.startsWith("DU");
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals("Dualspiral", result.get(this.first));
+        Assert.assertEquals("duck", result.get(this.second));
+
+        Assert.assertEquals(1, trie.startsWith("dua").size());
+        Assert.assertTrue(trie.startsWith("dux").isEmpty());
+        Assert.assertEquals(2, trie.startsWith("").size());
+    }
+
+    @Test
+    public void testRemoveOnlyRemovesTheGivenName() {
+        final NameTrie trie = new NameTrie();
+        trie.put(this.first, "Bob");
+        trie.put(this.second, "Bobby");
+
+        trie.remove(this.first, "bob");
+        Assert.assertEquals(1, trie.startsWith("bob").size());
+        Assert.assertEquals("Bobby", trie.startsWith("b").get(this.second));
+
+        trie.remove(this.second, "Bobby");
+        Assert.assertTrue(trie.startsWith("").isEmpty());
+    }
+
+    @Test
+    public void testRemovingUnknownNameDoesNothing() {
+        final NameTrie trie = new NameTrie();
+        trie.put(this.first, "Alex");
+        trie.remove(this.second, "Alex");
+        trie.remove(this.first, "Alexander");
+        Assert.assertEquals("Alex", trie.startsWith("al").get(this.first));
+    }
+
+}